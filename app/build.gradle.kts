@@ -8,6 +8,9 @@
 plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
+
+    // JMH benchmarks live in src/jmh/java and run with ./gradlew jmh.
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -32,12 +35,32 @@ java {
     }
 }
 
+// graph.OffHeapGraph uses the Foreign Function & Memory API, which is a preview feature in Java 21.
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.add("--enable-preview")
+}
+
+tasks.withType<JavaExec>().configureEach {
+    jvmArgs("--enable-preview")
+}
+
 application {
     // Define the main class for the application.
     mainClass = "main.Main"
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // Pass -PjmhFormat=CSV (or TEXT, SCSV, LATEX) to change the report format; JSON by default.
+    val format = providers.gradleProperty("jmhFormat").getOrElse("JSON")
+    resultFormat = format
+    resultsFile = layout.buildDirectory.file("results/jmh/results.${format.lowercase()}")
+    // Pass -PjmhInclude=<regex> to run a subset, e.g. -PjmhInclude=SortBenchmark
+    providers.gradleProperty("jmhInclude").orNull?.let { includes.add(it) }
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
+    jvmArgs("--enable-preview")
 }
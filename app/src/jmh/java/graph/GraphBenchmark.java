@@ -0,0 +1,122 @@
+package graph;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for shortest paths and traversals over random sparse graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class GraphBenchmark {
+
+  @Param({ "10000", "100000" })
+  public int nodes;
+
+  @Param({ "4", "16" })
+  public int averageDegree;
+
+  @Param({ "true", "false" })
+  public boolean directed;
+
+  private Graph graph;
+  private int[] batchSources;
+  private final TraversalContext context = new TraversalContext();
+
+  @Setup(Level.Trial)
+  public void createGraph() {
+    graph = RandomGraphs.generate(nodes, averageDegree, directed, 100.0, 7L);
+    batchSources = new int[64];
+    for (int i = 0; i < batchSources.length; i++) {
+      batchSources[i] = (int) ((long) i * nodes / batchSources.length);
+    }
+  }
+
+  @Benchmark
+  public Dijkstra.Result dijkstra() {
+    return Dijkstra.compute(graph, 0);
+  }
+
+  @Benchmark
+  public Dijkstra.Result dijkstraIndexedHeap() {
+    return Dijkstra.compute(graph, 0, Dijkstra.QueueStrategy.INDEXED_HEAP);
+  }
+
+  @Benchmark
+  public double sequentialRows() {
+    double sum = 0.0;
+    for (int source : batchSources) {
+      sum += graph.shortestDistances(source)[nodes - 1];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double batchRows() {
+    DoubleAdder sum = new DoubleAdder();
+    BatchDijkstra.computeRows(graph, batchSources, (index, source, row) -> sum.add(row[nodes - 1]));
+    return sum.sum();
+  }
+
+  @Benchmark
+  public Iterable<Integer> shortestPath() {
+    return graph.shortestPath(0, nodes - 1);
+  }
+
+  @Benchmark
+  public Iterable<Integer> bfs() {
+    return graph.bfs(0);
+  }
+
+  @Benchmark
+  public int bfsWithContext() {
+    return graph.bfs(0, context, node -> true);
+  }
+
+  @Benchmark
+  public ParallelBfs.Result parallelBfs() {
+    return ParallelBfs.compute(graph, 0);
+  }
+
+  @Benchmark
+  public ConnectedComponents.Result unionFindComponents() {
+    return ConnectedComponents.compute(graph);
+  }
+
+  @Benchmark
+  public ConnectedComponents.Result afforestComponents() {
+    return ConnectedComponents.computeParallel(graph);
+  }
+
+  @Benchmark
+  public ConnectedComponents.Result strongComponents() {
+    return StronglyConnectedComponents.compute(graph);
+  }
+
+  @Benchmark
+  public Iterable<Integer> dfs() {
+    return graph.dfs(0);
+  }
+
+  @Benchmark
+  public int dfsWithContext() {
+    return graph.dfs(0, context, node -> true);
+  }
+}
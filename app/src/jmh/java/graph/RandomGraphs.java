@@ -0,0 +1,50 @@
+package graph;
+
+import java.util.Random;
+
+/**
+ * Deterministic random graph generators used by the graph benchmarks.
+ */
+final class RandomGraphs {
+  private RandomGraphs() {
+  }
+
+  /**
+   * Builds a graph with a Hamiltonian chain {@code 0 -> 1 -> ... -> n-1} (so every node is
+   * reachable from node 0) plus {@code (averageDegree - 1) * n} uniformly random edges with
+   * weights drawn from {@code [1, maxWeight)}.
+   */
+  static Graph generate(int nodes, int averageDegree, boolean directed, double maxWeight, long seed) {
+    return generate(nodes, averageDegree, directed, rand -> 1.0 + rand.nextDouble() * (maxWeight - 1.0), seed);
+  }
+
+  /**
+   * Same shape as {@link #generate(int, int, boolean, double, long)} with weights drawn from
+   * {@code weights}.
+   */
+  static Graph generate(int nodes, int averageDegree, boolean directed, Weights weights, long seed) {
+    Random rand = new Random(seed);
+    Graph graph = directed ? new DirectedGraph(nodes) : new UndirectedGraph(nodes);
+    for (int u = 0; u + 1 < nodes; u++) {
+      graph.addEdge(u, u + 1, weights.sample(rand));
+    }
+    long extra = (long) Math.max(0, averageDegree - 1) * nodes;
+    for (long i = 0; i < extra; i++) {
+      int u = rand.nextInt(nodes);
+      int v = rand.nextInt(nodes);
+      if (u == v) {
+        continue;
+      }
+      graph.addEdge(u, v, weights.sample(rand));
+    }
+    return graph;
+  }
+
+  /**
+   * A weight distribution for generated edges.
+   */
+  @FunctionalInterface
+  interface Weights {
+    double sample(Random rand);
+  }
+}
@@ -0,0 +1,88 @@
+package graph;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sequential Dijkstra against parallel delta-stepping on the same CSR graph, across sizes and
+ * weight distributions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ShortestPathBenchmark {
+
+  @Param({ "100000", "1000000" })
+  public int nodes;
+
+  @Param({ "UNIT", "UNIFORM", "EXPONENTIAL" })
+  public WeightDistribution weights;
+
+  private CsrGraph graph;
+  private double delta;
+
+  @Setup(Level.Trial)
+  public void createGraph() {
+    graph = CsrGraph.copyOf(RandomGraphs.generate(nodes, 8, true, weights, 11L));
+    delta = DeltaStepping.defaultDelta(graph);
+  }
+
+  @Benchmark
+  public Dijkstra.Result dijkstra() {
+    return Dijkstra.compute(graph, 0);
+  }
+
+  @Benchmark
+  public Dijkstra.Result dijkstraIndexedHeap() {
+    return Dijkstra.compute(graph, 0, Dijkstra.QueueStrategy.INDEXED_HEAP);
+  }
+
+  @Benchmark
+  public Dijkstra.Result deltaStepping() {
+    return DeltaStepping.compute(graph, 0, delta, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Edge weight distributions to benchmark.
+   */
+  public enum WeightDistribution implements RandomGraphs.Weights {
+    /** Every edge weighs 1, so shortest paths are hop counts. */
+    UNIT {
+      @Override
+      public double sample(Random rand) {
+        return 1.0;
+      }
+    },
+    /** Uniform in {@code [1, 100)}. */
+    UNIFORM {
+      @Override
+      public double sample(Random rand) {
+        return 1.0 + rand.nextDouble() * 99.0;
+      }
+    },
+    /** 1 plus an exponential with mean 10: mostly light edges with a long tail of heavy ones. */
+    EXPONENTIAL {
+      @Override
+      public double sample(Random rand) {
+        return 1.0 - 10.0 * Math.log(1.0 - rand.nextDouble());
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the run-adaptive merge sort, the sampling dispatcher and the introsort on inputs with
+ * varying amounts of existing order. {@code Arrays.sort} (TimSort) is the stable baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class AdaptiveSortBenchmark {
+
+  @Param({ "100000", "1000000" })
+  public int size;
+
+  @Param({ "SORTED", "REVERSED", "NEARLY_SORTED", "SORTED_RUNS", "RANDOM" })
+  public String order;
+
+  private Integer[] base;
+  private Integer[] data;
+
+  @Setup(Level.Trial)
+  public void createInput() {
+    Random rand = new Random(42L);
+    switch (order) {
+      case "SORTED" -> base = SortUtils.genSortedIntegers(size);
+      case "REVERSED" -> base = SortUtils.genReversedIntegers(size);
+      case "NEARLY_SORTED" -> {
+        base = SortUtils.genSortedIntegers(size);
+        for (int i = 0; i < size / 100; i++) {
+          SortUtils.swap(base, rand.nextInt(size), rand.nextInt(size));
+        }
+      }
+      case "SORTED_RUNS" -> {
+        // Sixteen ascending runs, each a contiguous block of the reversed sequence.
+        base = SortUtils.genReversedIntegers(size);
+        int run = Math.max(1, size / 16);
+        for (int from = 0; from < size; from += run) {
+          Arrays.sort(base, from, Math.min(size, from + run));
+        }
+      }
+      case "RANDOM" -> base = SortUtils.genRandomIntegers(size, 42L, Integer.MAX_VALUE);
+      default -> throw new IllegalArgumentException("Unknown order: " + order);
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void copyInput() {
+    data = base.clone();
+  }
+
+  @Benchmark
+  public Integer[] powerSort() {
+    PowerSort.sort(data);
+    return data;
+  }
+
+  @Benchmark
+  public Integer[] adaptiveSort() {
+    AdaptiveSort.sort(data);
+    return data;
+  }
+
+  @Benchmark
+  public Integer[] hybridQuickHeapSort() {
+    HybridQuickHeapSort.sort(data);
+    return data;
+  }
+
+  @Benchmark
+  public Integer[] arraysSort() {
+    Arrays.sort(data);
+    return data;
+  }
+}
@@ -0,0 +1,94 @@
+package sorting;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap sort fallback. The median-of-three killer from
+ * {@link SortUtils#genMedianOfThreeKiller} drives {@link HybridQuickHeapSort} into the fallback for
+ * nearly the whole array. Random input, which never falls back, is the reference. The heap sort
+ * layouts are also timed directly on the killer permutation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class HeapFallbackBenchmark {
+
+  @Param({ "100000", "1000000" })
+  public int size;
+
+  private Integer[] killerBase;
+  private Integer[] randomBase;
+  private int[] killerIntBase;
+  private Integer[] killer;
+  private Integer[] random;
+  private int[] killerInts;
+
+  @Setup(Level.Trial)
+  public void createInput() {
+    killerBase = SortUtils.genMedianOfThreeKiller(size);
+    randomBase = SortUtils.genRandomIntegers(size, 42L, Integer.MAX_VALUE);
+    killerIntBase = new int[size];
+    for (int i = 0; i < size; i++) {
+      killerIntBase[i] = killerBase[i];
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void copyInput() {
+    killer = killerBase.clone();
+    random = randomBase.clone();
+    killerInts = killerIntBase.clone();
+  }
+
+  @Benchmark
+  public Integer[] hybridOnKiller() {
+    HybridQuickHeapSort.sort(killer);
+    return killer;
+  }
+
+  @Benchmark
+  public Integer[] hybridOnRandom() {
+    HybridQuickHeapSort.sort(random);
+    return random;
+  }
+
+  @Benchmark
+  public Integer[] binaryHeapSort() {
+    HeapSort.sort(killer, 0, killer.length - 1);
+    return killer;
+  }
+
+  @Benchmark
+  public Integer[] quaternaryHeapSort() {
+    HeapSort.sortQuaternary(killer, 0, killer.length - 1);
+    return killer;
+  }
+
+  @Benchmark
+  public int[] binaryHeapSortPrimitive() {
+    HeapSort.sort(killerInts, 0, killerInts.length - 1);
+    return killerInts;
+  }
+
+  @Benchmark
+  public int[] quaternaryHeapSortPrimitive() {
+    HeapSort.sortQuaternary(killerInts, 0, killerInts.length - 1);
+    return killerInts;
+  }
+}
@@ -0,0 +1,172 @@
+package sorting;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the sorting package. Every invocation sorts a fresh copy of the input, so
+ * in-place sorts never run on data a previous invocation already sorted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class SortBenchmark {
+
+  @Param({ "10000", "100000", "1000000" })
+  public int size;
+
+  @Param({ "RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE" })
+  public Distribution distribution;
+
+  private Integer[] boxedBase;
+  private int[] intBase;
+  private Integer[] boxed;
+  private int[] ints;
+
+  @Setup(Level.Trial)
+  public void createInput() {
+    intBase = distribution.generate(size, 42L);
+    boxedBase = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      boxedBase[i] = intBase[i];
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void copyInput() {
+    boxed = boxedBase.clone();
+    ints = intBase.clone();
+  }
+
+  @Benchmark
+  public Integer[] hybridQuickHeapSort() {
+    HybridQuickHeapSort.sort(boxed);
+    return boxed;
+  }
+
+  @Benchmark
+  public Integer[] hybridQuickHeapSortComparator() {
+    HybridQuickHeapSort.sort(boxed, Comparator.reverseOrder());
+    return boxed;
+  }
+
+  @Benchmark
+  public int[] hybridQuickHeapSortPrimitive() {
+    HybridQuickHeapSort.sort(ints);
+    return ints;
+  }
+
+  @Benchmark
+  public int[] hybridQuickHeapSortParallel() {
+    HybridQuickHeapSort.parallelSort(ints);
+    return ints;
+  }
+
+  @Benchmark
+  public int[] radixSort() {
+    RadixSort.sort(ints);
+    return ints;
+  }
+
+  @Benchmark
+  public int[] lsdRadixSort() {
+    RadixSort.lsdSort(ints);
+    return ints;
+  }
+
+  @Benchmark
+  public int[] americanFlagSort() {
+    RadixSort.americanFlagSort(ints);
+    return ints;
+  }
+
+  @Benchmark
+  public Integer[] sortByKey() {
+    RadixSort.sortByIntKey(boxed, Integer::intValue);
+    return boxed;
+  }
+
+  @Benchmark
+  public Integer[] quickSort() {
+    QuickSort.sort(boxed, 0, boxed.length - 1, Integer.MAX_VALUE);
+    return boxed;
+  }
+
+  @Benchmark
+  public Integer[] heapSort() {
+    HeapSort.sort(boxed, 0, boxed.length - 1);
+    return boxed;
+  }
+
+  /**
+   * Input distributions shared by the sorting benchmarks.
+   */
+  public enum Distribution {
+    RANDOM {
+      @Override
+      int[] generate(int n, long seed) {
+        return SortUtils.genRandomInts(n, seed, Integer.MAX_VALUE);
+      }
+    },
+    SORTED {
+      @Override
+      int[] generate(int n, long seed) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+          result[i] = i;
+        }
+        return result;
+      }
+    },
+    REVERSED {
+      @Override
+      int[] generate(int n, long seed) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+          result[i] = n - i - 1;
+        }
+        return result;
+      }
+    },
+    FEW_UNIQUE {
+      @Override
+      int[] generate(int n, long seed) {
+        Random rand = new Random(seed);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+          result[i] = rand.nextInt(16);
+        }
+        return result;
+      }
+    },
+    ORGAN_PIPE {
+      @Override
+      int[] generate(int n, long seed) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+          result[i] = i < n / 2 ? i : n - i;
+        }
+        return result;
+      }
+    };
+
+    abstract int[] generate(int n, long seed);
+  }
+}
@@ -0,0 +1,91 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Utility class providing A* point-to-point shortest path search.
+ *
+ * <p>A* is Dijkstra's algorithm ordered by {@code distance(source, u) + estimate(u, target)}.
+ * With a good {@link Heuristic} it settles far fewer nodes than {@link Dijkstra#compute}. The
+ * search stops when the target is settled; with an admissible heuristic its distance is then
+ * optimal. Inconsistent heuristics are handled by reopening nodes whose distance improves.
+ */
+public final class AStar {
+
+  private AStar() {
+    // Utility class
+  }
+
+  public static Result compute(Graph graph, int source, int target, Heuristic heuristic) {
+    Objects.requireNonNull(heuristic, "heuristic");
+    int n = graph.nodeCount();
+    validateNode(source, n);
+    validateNode(target, n);
+
+    double[] distances = new double[n];
+    int[] parents = new int[n];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    Arrays.fill(parents, -1);
+
+    IndexedDaryHeap queue = new IndexedDaryHeap(n, Dijkstra.DEFAULT_HEAP_ARITY);
+    distances[source] = 0.0;
+    queue.insert(source, heuristic.estimate(source, target));
+    int settled = 0;
+
+    AbstractCsrGraph csr = graph instanceof AbstractCsrGraph compact ? compact : null;
+    while (!queue.isEmpty()) {
+      int u = queue.poll();
+      settled++;
+      if (u == target) {
+        break;
+      }
+      double base = distances[u];
+      if (csr != null) {
+        for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+          relax(u, csr.target(slot), base, csr.weight(slot), target, heuristic, distances, parents, queue);
+        }
+      } else {
+        for (Edge edge : graph.adjacency(u)) {
+          relax(u, edge.to(), base, edge.weight(), target, heuristic, distances, parents, queue);
+        }
+      }
+    }
+
+    return new Result(distances, parents, settled);
+  }
+
+  private static void relax(int u, int v, double base, double weight, int target, Heuristic heuristic,
+      double[] distances, int[] parents, IndexedDaryHeap queue) {
+    if (weight < 0) {
+      throw new IllegalArgumentException("Negative edge weights are not supported by A* search.");
+    }
+    double candidate = base + weight;
+    if (candidate < distances[v]) {
+      distances[v] = candidate;
+      parents[v] = u;
+      queue.insertOrDecrease(v, candidate + heuristic.estimate(v, target));
+    }
+  }
+
+  private static void validateNode(int node, int size) {
+    if (node < 0 || node >= size) {
+      throw new IllegalArgumentException("Node " + node + " is out of bounds.");
+    }
+  }
+
+  /**
+   * Outcome of an A* search. Only the distances of settled nodes, including the target, are
+   * final; use {@link #toDijkstraResult()} with {@link Dijkstra#reconstructPath} to get the path.
+   *
+   * @param distances tentative distances from the source
+   * @param parents the predecessor of each labeled node, or {@code -1}
+   * @param settledCount how many nodes were taken off the queue, including reopened ones
+   */
+  public record Result(double[] distances, int[] parents, int settledCount) {
+
+    public Dijkstra.Result toDijkstraResult() {
+      return new Dijkstra.Result(distances, parents);
+    }
+  }
+}
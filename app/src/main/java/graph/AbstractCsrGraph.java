@@ -0,0 +1,335 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * An abstract base class for immutable graphs stored in compressed sparse row (CSR) form.
+ *
+ * <p>The outgoing arcs of node {@code u} occupy the slots {@code [firstSlot(u), endSlot(u))};
+ * each slot holds a target node and a weight. Undirected graphs store every edge once per
+ * direction, exactly like {@link UndirectedGraph}. Subclasses only decide where the arrays live;
+ * path queries and iteration are implemented here directly over the slots, and traversals use the
+ * slot loop in {@link Traversals}.
+ */
+public abstract class AbstractCsrGraph implements Graph {
+
+  protected final int nodes;
+  protected final int edges;
+  protected final boolean directed;
+  private volatile ReachabilityIndex reachability;
+  private volatile int negativeWeights = -1;
+
+  protected AbstractCsrGraph(int nodes, int edges, boolean directed) {
+    if (nodes < 0) {
+      throw new IllegalArgumentException("Node count must not be negative: " + nodes);
+    }
+    this.nodes = nodes;
+    this.edges = edges;
+    this.directed = directed;
+  }
+
+  /**
+   * Returns the first adjacency slot of {@code u}.
+   */
+  protected abstract long firstSlot(int u);
+
+  /**
+   * Returns the slot just past the last adjacency slot of {@code u}.
+   */
+  protected abstract long endSlot(int u);
+
+  /**
+   * Returns the target node stored in {@code slot}.
+   */
+  protected abstract int target(long slot);
+
+  /**
+   * Returns the edge weight stored in {@code slot}.
+   */
+  protected abstract double weight(long slot);
+
+  @Override
+  public int nodeCount() {
+    return nodes;
+  }
+
+  @Override
+  public int edgeCount() {
+    return edges;
+  }
+
+  /**
+   * Returns the edge count as a {@code long}; implementations that can hold more than
+   * {@link Integer#MAX_VALUE} edges override this and saturate {@link #edgeCount()}.
+   */
+  public long longEdgeCount() {
+    return edges;
+  }
+
+  @Override
+  public boolean isDirected() {
+    return directed;
+  }
+
+  @Override
+  public void addEdge(int u, int v) {
+    throw immutable();
+  }
+
+  @Override
+  public void addEdge(int u, int v, double weight) {
+    throw immutable();
+  }
+
+  @Override
+  public void removeEdge(int u, int v) {
+    throw immutable();
+  }
+
+  @Override
+  public int degree(int u) {
+    checkNode(u);
+    return (int) (endSlot(u) - firstSlot(u));
+  }
+
+  @Override
+  public Iterable<Integer> nodes() {
+    return () -> new Iterator<Integer>() {
+      int current = 0;
+
+      @Override
+      public boolean hasNext() {
+        return current < nodes;
+      }
+
+      @Override
+      public Integer next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current++;
+      }
+    };
+  }
+
+  /**
+   * Returns an iterable over all edges. Undirected edges are reported once, from the endpoint
+   * with the smaller id, matching {@link UndirectedGraph#edges()}.
+   */
+  @Override
+  public Iterable<Edge> edges() {
+    return () -> new Iterator<Edge>() {
+      private int node = -1;
+      private long slot = 0;
+      private long end = 0;
+      private Edge nextEdge;
+
+      {
+        advance();
+      }
+
+      @Override
+      public boolean hasNext() {
+        return nextEdge != null;
+      }
+
+      @Override
+      public Edge next() {
+        if (nextEdge == null) {
+          throw new NoSuchElementException();
+        }
+        Edge result = nextEdge;
+        advance();
+        return result;
+      }
+
+      private void advance() {
+        nextEdge = null;
+        while (true) {
+          while (slot < end) {
+            int to = target(slot);
+            double w = weight(slot);
+            slot++;
+            if (directed || node <= to) {
+              nextEdge = new Edge(node, to, w);
+              return;
+            }
+          }
+          if (node + 1 >= nodes) {
+            return;
+          }
+          node++;
+          slot = firstSlot(node);
+          end = endSlot(node);
+        }
+      }
+    };
+  }
+
+  @Override
+  public Iterable<Edge> adjacency(int u) {
+    checkNode(u);
+    long first = firstSlot(u);
+    long end = endSlot(u);
+    return () -> new Iterator<Edge>() {
+      private long slot = first;
+
+      @Override
+      public boolean hasNext() {
+        return slot < end;
+      }
+
+      @Override
+      public Edge next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Edge edge = new Edge(u, target(slot), weight(slot));
+        slot++;
+        return edge;
+      }
+    };
+  }
+
+  @Override
+  public Iterable<Integer> bfs(int start) {
+    checkNode(start);
+    List<Integer> order = new ArrayList<>();
+    Traversals.bfs(this, start, new TraversalContext(nodes), order::add);
+    return Collections.unmodifiableList(order);
+  }
+
+  @Override
+  public Iterable<Integer> dfs(int start) {
+    checkNode(start);
+    List<Integer> order = new ArrayList<>();
+    Traversals.dfs(this, start, new TraversalContext(nodes), order::add);
+    return Collections.unmodifiableList(order);
+  }
+
+  /**
+   * Returns whether {@code target} is reachable from {@code source}, in constant time for most
+   * pairs once the first call has labelled the components; see {@link AbstractGraph#hasPath}.
+   */
+  @Override
+  public boolean hasPath(int source, int target) {
+    checkNode(source);
+    checkNode(target);
+    if (source == target) {
+      return true;
+    }
+    ReachabilityIndex index = reachability;
+    if (index == null) {
+      index = ReachabilityIndex.build(this);
+      reachability = index;
+    }
+    int answer = index.query(source, target);
+    if (answer != ReachabilityIndex.UNKNOWN) {
+      return answer == ReachabilityIndex.REACHABLE;
+    }
+    return !findPath(source, target).isEmpty();
+  }
+
+  @Override
+  public Iterable<Integer> path(int source, int target) {
+    checkNode(source);
+    checkNode(target);
+    List<Integer> path = findPath(source, target);
+    if (path.isEmpty()) {
+      return List.of();
+    }
+    return Collections.unmodifiableList(path);
+  }
+
+  @Override
+  public double[] shortestDistances(int source) {
+    checkNode(source);
+    return Dijkstra.compute(this, source).distances();
+  }
+
+  @Override
+  public Iterable<Integer> shortestPath(int source, int target) {
+    checkNode(source);
+    checkNode(target);
+    Dijkstra.Result result = Dijkstra.computeForTarget(this, source, target, hasNegativeWeight());
+    List<Integer> path = Dijkstra.reconstructPath(source, target, result);
+    if (path.isEmpty()) {
+      return List.of();
+    }
+    return Collections.unmodifiableList(path);
+  }
+
+  /**
+   * Returns whether any arc has a negative weight. The arcs are scanned once, on the first call.
+   */
+  boolean hasNegativeWeight() {
+    int known = negativeWeights;
+    if (known < 0) {
+      known = 0;
+      for (int u = 0; u < nodes && known == 0; u++) {
+        for (long slot = firstSlot(u), end = endSlot(u); slot < end; slot++) {
+          if (weight(slot) < 0) {
+            known = 1;
+            break;
+          }
+        }
+      }
+      negativeWeights = known;
+    }
+    return known == 1;
+  }
+
+  protected void checkNode(int u) {
+    if (u < 0 || u >= nodes) {
+      throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+    }
+  }
+
+  private List<Integer> findPath(int source, int target) {
+    if (source == target) {
+      return new ArrayList<>(List.of(source));
+    }
+
+    boolean[] visited = new boolean[nodes];
+    int[] parent = new int[nodes];
+    Arrays.fill(parent, -1);
+    int[] queue = new int[nodes];
+    int head = 0;
+    int tail = 0;
+
+    visited[source] = true;
+    queue[tail++] = source;
+
+    while (head < tail) {
+      int current = queue[head++];
+      for (long slot = firstSlot(current), end = endSlot(current); slot < end; slot++) {
+        int neighbor = target(slot);
+        if (!visited[neighbor]) {
+          visited[neighbor] = true;
+          parent[neighbor] = current;
+          if (neighbor == target) {
+            return buildPath(source, target, parent);
+          }
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+
+    return Collections.emptyList();
+  }
+
+  private static List<Integer> buildPath(int source, int target, int[] parent) {
+    List<Integer> path = new ArrayList<>();
+    int current = target;
+    path.add(target);
+    while (current != source) {
+      current = parent[current];
+      if (current == -1) {
+        return Collections.emptyList();
+      }
+      path.add(current);
+    }
+    Collections.reverse(path);
+    return path;
+  }
+
+  private static UnsupportedOperationException immutable() {
+    return new UnsupportedOperationException("CSR graphs are immutable.");
+  }
+}
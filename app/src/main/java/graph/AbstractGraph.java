@@ -10,6 +10,26 @@ public abstract class AbstractGraph implements Graph {
   protected final int nodes;
   protected int edges;
   protected final List<List<Edge>> adjList;
+  private ShortestPathCache pathCache;
+  private AdjacencyIndex[] adjIndex;
+  private int indexThreshold = DEFAULT_INDEX_THRESHOLD;
+  private GraphListener[] listeners = NO_LISTENERS;
+  private volatile ReachabilityIndex reachability;
+  private int negativeArcs;
+  private int queriesSinceChange;
+
+  private static final GraphListener[] NO_LISTENERS = new GraphListener[0];
+
+  /**
+   * Degree at which a node's adjacency list gets an {@link AdjacencyIndex} by default.
+   */
+  public static final int DEFAULT_INDEX_THRESHOLD = 64;
+
+  /**
+   * Number of {@link #hasPath} calls after a change that search directly before the component
+   * labels are built; a labelling costs about as much as one or two full searches.
+   */
+  private static final int REACHABILITY_INDEX_QUERIES = 4;
 
   protected AbstractGraph(int nodes) {
     this.nodes = nodes;
@@ -60,21 +80,7 @@ public abstract class AbstractGraph implements Graph {
   public Iterable<Integer> bfs(int start) {
     checkNode(start);
     List<Integer> order = new ArrayList<>();
-    boolean[] visited = new boolean[nodes];
-    Deque<Integer> queue = new ArrayDeque<>();
-    visited[start] = true;
-    queue.add(start);
-    while (!queue.isEmpty()) {
-      int current = queue.remove();
-      order.add(current);
-      for (Edge edge : adjList.get(current)) {
-        int neighbor = edge.to();
-        if (!visited[neighbor]) {
-          visited[neighbor] = true;
-          queue.add(neighbor);
-        }
-      }
-    }
+    Traversals.bfs(this, start, new TraversalContext(nodes), order::add);
     return Collections.unmodifiableList(order);
   }
 
@@ -82,25 +88,18 @@ public abstract class AbstractGraph implements Graph {
   public Iterable<Integer> dfs(int start) {
     checkNode(start);
     List<Integer> order = new ArrayList<>();
-    boolean[] visited = new boolean[nodes];
-    Deque<Integer> stack = new ArrayDeque<>();
-    stack.push(start);
-    visited[start] = true;
-    while (!stack.isEmpty()) {
-      int current = stack.pop();
-      order.add(current);
-      List<Edge> neighbors = adjList.get(current);
-      for (int i = neighbors.size() - 1; i >= 0; i--) {
-        int neighbor = neighbors.get(i).to();
-        if (!visited[neighbor]) {
-          visited[neighbor] = true;
-          stack.push(neighbor);
-        }
-      }
-    }
+    Traversals.dfs(this, start, new TraversalContext(nodes), order::add);
     return Collections.unmodifiableList(order);
   }
 
+  /**
+   * Returns whether {@code target} is reachable from {@code source}. The first
+   * {@value #REACHABILITY_INDEX_QUERIES} calls after a change run an early-exit search; the next
+   * one labels the components of the graph, and later calls answer from the labels in constant
+   * time, except in directed graphs for pairs in different strong components where the source's
+   * component may precede the target's, which still run a search. Workloads that interleave
+   * mutations and single queries therefore never pay for the labelling.
+   */
   @Override
   public boolean hasPath(int source, int target) {
     checkNode(source);
@@ -108,6 +107,18 @@ public abstract class AbstractGraph implements Graph {
     if (source == target) {
       return true;
     }
+    ReachabilityIndex index = reachability;
+    if (index == null) {
+      if (++queriesSinceChange <= REACHABILITY_INDEX_QUERIES) {
+        return !findPath(source, target).isEmpty();
+      }
+      index = ReachabilityIndex.build(this);
+      reachability = index;
+    }
+    int answer = index.query(source, target);
+    if (answer != ReachabilityIndex.UNKNOWN) {
+      return answer == ReachabilityIndex.REACHABLE;
+    }
     return !findPath(source, target).isEmpty();
   }
 
@@ -125,15 +136,33 @@ public abstract class AbstractGraph implements Graph {
   @Override
   public double[] shortestDistances(int source) {
     checkNode(source);
-    Dijkstra.Result result = Dijkstra.compute(this, source);
-    return result.distances().clone();
+    if (pathCache == null) {
+      return Dijkstra.compute(this, source).distances();
+    }
+    return shortestPathTree(source).distances().clone();
+  }
+
+  /**
+   * Returns the shortest distance from {@code source} to {@code target}, or
+   * {@link Double#POSITIVE_INFINITY} if unreachable. With the cache enabled this reads the cached
+   * tree without copying it.
+   */
+  public double shortestDistance(int source, int target) {
+    checkNode(source);
+    checkNode(target);
+    if (pathCache == null) {
+      return Dijkstra.computeForTarget(this, source, target, negativeArcs > 0).distances()[target];
+    }
+    return shortestPathTree(source).distances()[target];
   }
 
   @Override
   public Iterable<Integer> shortestPath(int source, int target) {
     checkNode(source);
     checkNode(target);
-    Dijkstra.Result result = Dijkstra.compute(this, source);
+    Dijkstra.Result result = pathCache == null
+        ? Dijkstra.computeForTarget(this, source, target, negativeArcs > 0)
+        : shortestPathTree(source);
     List<Integer> path = Dijkstra.reconstructPath(source, target, result);
     if (path.isEmpty()) {
       return List.of();
@@ -141,6 +170,32 @@ public abstract class AbstractGraph implements Graph {
     return Collections.unmodifiableList(path);
   }
 
+  /**
+   * Caches the shortest-path trees of up to {@code maxEntries} sources for
+   * {@link #shortestDistances}, {@link #shortestDistance} and {@link #shortestPath}, evicting the
+   * least recently used source first. Every successful {@code addEdge} or {@code removeEdge}
+   * clears the cache. Calling this again replaces the cache and resets its statistics.
+   */
+  public void enableShortestPathCache(int maxEntries) {
+    pathCache = new ShortestPathCache(maxEntries);
+  }
+
+  public void disableShortestPathCache() {
+    pathCache = null;
+  }
+
+  public boolean isShortestPathCacheEnabled() {
+    return pathCache != null;
+  }
+
+  /**
+   * Returns the cache counters, or all zeros if the cache is disabled.
+   */
+  public CacheStats shortestPathCacheStats() {
+    ShortestPathCache cache = pathCache;
+    return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+  }
+
   @Override
   public Iterable<Edge> edges() {
     return () -> new Iterator<Edge>() {
@@ -218,6 +273,19 @@ public abstract class AbstractGraph implements Graph {
     return Collections.emptyList();
   }
 
+  private Dijkstra.Result shortestPathTree(int source) {
+    ShortestPathCache cache = pathCache;
+    if (cache == null) {
+      return Dijkstra.compute(this, source);
+    }
+    Dijkstra.Result result = cache.get(source);
+    if (result == null) {
+      result = Dijkstra.compute(this, source);
+      cache.put(source, result);
+    }
+    return result;
+  }
+
   private List<Integer> buildPath(int source, int target, int[] parent) {
     List<Integer> path = new ArrayList<>();
     int current = target;
@@ -236,22 +304,227 @@ public abstract class AbstractGraph implements Graph {
   protected void addAdjEdge(int u, int v, double weight) {
     checkNode(u);
     checkNode(v);
-    adjList.get(u).add(new Edge(u, v, weight));
+    List<Edge> edges = adjList.get(u);
+    Edge edge = new Edge(u, v, weight);
+    edges.add(edge);
+    AdjacencyIndex index = indexOf(u);
+    if (index != null) {
+      index.add(v, edges.size() - 1);
+    } else if (edges.size() >= indexThreshold) {
+      buildIndex(u);
+    }
+    if (weight < 0) {
+      negativeArcs++;
+    }
+    invalidateCaches();
+    for (GraphListener listener : listeners) {
+      listener.edgeAdded(edge);
+    }
   }
 
   protected boolean removeAdjEdge(int u, int v) {
+    return detachAdjEdge(u, v) != null;
+  }
+
+  /**
+   * Removes one edge {@code u -> v} and returns it, or returns {@code null} if there is none.
+   * Unindexed nodes remove the first matching edge and keep the order of the remaining ones;
+   * indexed nodes move their last edge into the freed slot.
+   */
+  protected Edge detachAdjEdge(int u, int v) {
     checkNode(u);
     checkNode(v);
+    AdjacencyIndex index = indexOf(u);
+    if (index != null) {
+      int slot = index.find(v);
+      return slot < 0 ? null : swapRemove(u, slot);
+    }
     Iterator<Edge> iterator = adjList.get(u).iterator();
     while (iterator.hasNext()) {
-      if (iterator.next().to() == v) {
+      Edge edge = iterator.next();
+      if (edge.to() == v) {
+        iterator.remove();
+        edgeRemoved(edge);
+        return edge;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes one edge {@code u -> v} whose weight is exactly {@code weight}. Undirected graphs use
+   * this to drop the mirror of an edge removed by {@link #detachAdjEdge}, so parallel edges with
+   * different weights stay paired.
+   */
+  protected boolean removeAdjEdge(int u, int v, double weight) {
+    checkNode(u);
+    checkNode(v);
+    List<Edge> edges = adjList.get(u);
+    AdjacencyIndex index = indexOf(u);
+    if (index != null) {
+      int slot = index.find(v, weight, edges);
+      if (slot < 0) {
+        return false;
+      }
+      swapRemove(u, slot);
+      return true;
+    }
+    Iterator<Edge> iterator = edges.iterator();
+    while (iterator.hasNext()) {
+      Edge edge = iterator.next();
+      if (edge.to() == v && Double.compare(edge.weight(), weight) == 0) {
         iterator.remove();
+        edgeRemoved(edge);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasEdge(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    AdjacencyIndex index = indexOf(u);
+    if (index != null) {
+      return index.find(v) >= 0;
+    }
+    for (Edge edge : adjList.get(u)) {
+      if (edge.to() == v) {
         return true;
       }
     }
     return false;
   }
 
+  @Override
+  public OptionalDouble edgeWeight(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    AdjacencyIndex index = indexOf(u);
+    if (index != null) {
+      double weight = index.minWeight(v, adjList.get(u));
+      return Double.isNaN(weight) ? OptionalDouble.empty() : OptionalDouble.of(weight);
+    }
+    return Graph.super.edgeWeight(u, v);
+  }
+
+  /**
+   * Sets the degree at which nodes get a hash index over their adjacency list, giving O(1)
+   * {@link #hasEdge}, {@link #edgeWeight} and {@code removeEdge}. Removing an edge from an indexed
+   * node does not preserve the order of its remaining edges, which changes the order in which
+   * traversals visit its neighbours. An index is dropped again once the degree falls below half
+   * the threshold. Pass {@link Integer#MAX_VALUE} to disable indexing.
+   */
+  public void setAdjacencyIndexThreshold(int threshold) {
+    if (threshold < 1) {
+      throw new IllegalArgumentException("Index threshold must be at least 1: " + threshold);
+    }
+    indexThreshold = threshold;
+    for (int u = 0; u < nodes; u++) {
+      int degree = adjList.get(u).size();
+      if (degree >= threshold) {
+        if (indexOf(u) == null) {
+          buildIndex(u);
+        }
+      } else if (indexOf(u) != null) {
+        adjIndex[u] = null;
+      }
+    }
+  }
+
+  public int adjacencyIndexThreshold() {
+    return indexThreshold;
+  }
+
+  /**
+   * Registers {@code listener} for every adjacency entry added or removed from now on. A listener
+   * added twice is notified twice.
+   */
+  public void addGraphListener(GraphListener listener) {
+    Objects.requireNonNull(listener, "listener");
+    GraphListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+    updated[listeners.length] = listener;
+    listeners = updated;
+  }
+
+  /**
+   * Unregisters one registration of {@code listener}. Returns {@code false} if it was not
+   * registered.
+   */
+  public boolean removeGraphListener(GraphListener listener) {
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i] == listener) {
+        GraphListener[] updated = new GraphListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, updated, 0, i);
+        System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+        listeners = updated.length == 0 ? NO_LISTENERS : updated;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isIndexed(int u) {
+    return indexOf(u) != null;
+  }
+
+  boolean hasReachabilityIndex() {
+    return reachability != null;
+  }
+
+  private AdjacencyIndex indexOf(int u) {
+    return adjIndex == null ? null : adjIndex[u];
+  }
+
+  private void buildIndex(int u) {
+    if (adjIndex == null) {
+      adjIndex = new AdjacencyIndex[nodes];
+    }
+    adjIndex[u] = AdjacencyIndex.build(adjList.get(u));
+  }
+
+  private Edge swapRemove(int u, int slot) {
+    List<Edge> edges = adjList.get(u);
+    AdjacencyIndex index = adjIndex[u];
+    Edge removed = edges.get(slot);
+    int last = edges.size() - 1;
+    index.remove(removed.to(), slot);
+    Edge moved = edges.remove(last);
+    if (slot != last) {
+      edges.set(slot, moved);
+      index.move(moved.to(), last, slot);
+    }
+    if (edges.size() < indexThreshold / 2) {
+      adjIndex[u] = null;
+    }
+    edgeRemoved(removed);
+    return removed;
+  }
+
+  private void edgeRemoved(Edge edge) {
+    if (edge.weight() < 0) {
+      negativeArcs--;
+    }
+    invalidateCaches();
+    for (GraphListener listener : listeners) {
+      listener.edgeRemoved(edge);
+    }
+  }
+
+  /**
+   * Drops derived data such as cached shortest-path trees and component labels. Subclasses that change the adjacency
+   * lists without going through {@link #addAdjEdge} or {@link #removeAdjEdge} must call this.
+   */
+  protected void invalidateCaches() {
+    reachability = null;
+    queriesSinceChange = 0;
+    ShortestPathCache cache = pathCache;
+    if (cache != null) {
+      cache.invalidate();
+    }
+  }
+
   protected void incrementEdgeCount() {
     edges++;
   }
@@ -273,4 +546,22 @@ public abstract class AbstractGraph implements Graph {
     checkNode(u);
     return adjList.get(u).size();
   }
+
+  /**
+   * Counters of the shortest-path cache.
+   *
+   * @param hits lookups answered from the cache
+   * @param misses lookups that ran Dijkstra
+   * @param evictions trees dropped to respect the size bound
+   * @param invalidations times the cache was cleared because the graph changed
+   * @param size trees currently cached
+   * @param maxEntries the size bound, or 0 if the cache is disabled
+   */
+  public record CacheStats(long hits, long misses, long evictions, long invalidations, int size, int maxEntries) {
+
+    public double hitRate() {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+  }
 }
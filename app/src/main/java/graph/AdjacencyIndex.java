@@ -0,0 +1,160 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open-addressing multimap from neighbour id to position in one node's adjacency list.
+ *
+ * <p>Parallel edges get one entry each, so every {@code (neighbour, slot)} pair is stored
+ * exactly once. Keys and slots live in two {@code int[]} arrays probed linearly, with the load
+ * factor kept at or below one half, and removal uses backward-shift deletion so no tombstones
+ * accumulate under churn.
+ */
+final class AdjacencyIndex {
+
+  private static final int EMPTY = -1;
+
+  private int[] keys;
+  private int[] slots;
+  private int mask;
+  private int size;
+
+  private AdjacencyIndex(int expected) {
+    int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+    this.keys = new int[capacity];
+    this.slots = new int[capacity];
+    this.mask = capacity - 1;
+    Arrays.fill(keys, EMPTY);
+  }
+
+  static AdjacencyIndex build(List<Edge> edges) {
+    AdjacencyIndex index = new AdjacencyIndex(edges.size());
+    for (int slot = 0; slot < edges.size(); slot++) {
+      index.add(edges.get(slot).to(), slot);
+    }
+    return index;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void add(int neighbor, int slot) {
+    if ((size + 1) * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+    int i = hash(neighbor);
+    while (keys[i] != EMPTY) {
+      i = (i + 1) & mask;
+    }
+    keys[i] = neighbor;
+    slots[i] = slot;
+    size++;
+  }
+
+  /**
+   * Returns the slot of some edge to {@code neighbor}, or -1 if there is none.
+   */
+  int find(int neighbor) {
+    for (int i = hash(neighbor); keys[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == neighbor) {
+        return slots[i];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the slot of an edge to {@code neighbor} with exactly {@code weight}, or -1.
+   */
+  int find(int neighbor, double weight, List<Edge> edges) {
+    for (int i = hash(neighbor); keys[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == neighbor && Double.compare(edges.get(slots[i]).weight(), weight) == 0) {
+        return slots[i];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the smallest weight among the edges to {@code neighbor}, or NaN if there is none.
+   */
+  double minWeight(int neighbor, List<Edge> edges) {
+    double min = Double.NaN;
+    for (int i = hash(neighbor); keys[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == neighbor) {
+        double weight = edges.get(slots[i]).weight();
+        if (Double.isNaN(min) || weight < min) {
+          min = weight;
+        }
+      }
+    }
+    return min;
+  }
+
+  /**
+   * Removes the entry {@code (neighbor, slot)}; returns {@code false} if it is absent.
+   */
+  boolean remove(int neighbor, int slot) {
+    int i = locate(neighbor, slot);
+    if (i < 0) {
+      return false;
+    }
+    // Backward-shift deletion: pull later entries of the probe run into the hole.
+    int hole = i;
+    int j = (i + 1) & mask;
+    while (keys[j] != EMPTY) {
+      int home = hash(keys[j]);
+      if (((j - home) & mask) >= ((j - hole) & mask)) {
+        keys[hole] = keys[j];
+        slots[hole] = slots[j];
+        hole = j;
+      }
+      j = (j + 1) & mask;
+    }
+    keys[hole] = EMPTY;
+    size--;
+    return true;
+  }
+
+  /**
+   * Records that the edge to {@code neighbor} moved from {@code from} to {@code to}.
+   */
+  void move(int neighbor, int from, int to) {
+    int i = locate(neighbor, from);
+    if (i < 0) {
+      throw new IllegalStateException("Adjacency index is missing edge to " + neighbor + ".");
+    }
+    slots[i] = to;
+  }
+
+  private int locate(int neighbor, int slot) {
+    for (int i = hash(neighbor); keys[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == neighbor && slots[i] == slot) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void resize(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldSlots = slots;
+    keys = new int[capacity];
+    slots = new int[capacity];
+    mask = capacity - 1;
+    size = 0;
+    Arrays.fill(keys, EMPTY);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        add(oldKeys[i], oldSlots[i]);
+      }
+    }
+  }
+
+  private int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+}
@@ -0,0 +1,230 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Dijkstra from many sources in parallel and streams one distance row per source.
+ *
+ * <p>The graph is frozen into a {@link CsrGraph} once per batch. Each worker owns an
+ * {@link IndexedDaryHeap} and epoch-stamped distance arrays that are reused for every source it
+ * processes, so a batch allocates O(V) scratch per worker instead of per source, and the full
+ * {@code |sources| x |targets|} matrix is never materialized unless {@link #distanceMatrix} is
+ * used. When targets are given, a search stops as soon as all of them are settled.
+ */
+public final class BatchDijkstra {
+
+  private BatchDijkstra() {
+    // Utility class
+  }
+
+  /**
+   * Receives the distances from one source. Rows arrive from several threads at once and in no
+   * particular order, so implementations must be thread-safe. The {@code row} array is reused
+   * for the next source on the same thread; copy it if it has to outlive the call.
+   */
+  @FunctionalInterface
+  public interface RowConsumer {
+    /**
+     * @param sourceIndex the position of the source in the {@code sources} array
+     * @param source the source node
+     * @param row the distance to each target, {@link Double#POSITIVE_INFINITY} if unreachable
+     */
+    void accept(int sourceIndex, int source, double[] row);
+  }
+
+  /**
+   * Streams the distances from every source to every node on the common pool.
+   */
+  public static void computeRows(Graph graph, int[] sources, RowConsumer consumer) {
+    computeRows(graph, sources, null, consumer);
+  }
+
+  /**
+   * Streams the distances from every source to the given targets on the common pool.
+   *
+   * @param targets the target nodes, or {@code null} for all nodes in id order
+   */
+  public static void computeRows(Graph graph, int[] sources, int[] targets, RowConsumer consumer) {
+    computeRows(graph, sources, targets, ForkJoinPool.commonPool(), consumer);
+  }
+
+  /**
+   * Streams the distances from every source to {@code targets} (all nodes if {@code null}),
+   * running at most {@code pool.getParallelism()} searches at a time on {@code pool}. The first
+   * exception thrown by a search or by the consumer stops the batch and is rethrown.
+   */
+  public static void computeRows(Graph graph, int[] sources, int[] targets, ForkJoinPool pool, RowConsumer consumer) {
+    Objects.requireNonNull(graph, "graph");
+    Objects.requireNonNull(sources, "sources");
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(consumer, "consumer");
+    int n = graph.nodeCount();
+    for (int source : sources) {
+      checkNode(source, n);
+    }
+    if (targets != null) {
+      for (int target : targets) {
+        checkNode(target, n);
+      }
+    }
+    if (sources.length == 0) {
+      return;
+    }
+    Batch batch = new Batch(CsrGraph.copyOf(graph), sources, targets, consumer);
+    int workers = Math.max(1, Math.min(pool.getParallelism(), sources.length));
+    pool.invoke(new BatchTask(batch, workers));
+  }
+
+  /**
+   * Returns the {@code sources.length x targets.length} distance matrix. Only use this when the
+   * matrix fits in memory; otherwise consume rows with {@link #computeRows}.
+   */
+  public static double[][] distanceMatrix(Graph graph, int[] sources, int[] targets) {
+    Objects.requireNonNull(targets, "targets");
+    double[][] matrix = new double[sources.length][];
+    computeRows(graph, sources, targets, (index, source, row) -> matrix[index] = row.clone());
+    return matrix;
+  }
+
+  private static void checkNode(int u, int n) {
+    if (u < 0 || u >= n) {
+      throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+    }
+  }
+
+  /**
+   * State shared by all workers of one batch.
+   */
+  private static final class Batch {
+    final CsrGraph graph;
+    final int[] sources;
+    final int[] targets;
+    final boolean[] isTarget;
+    final int distinctTargets;
+    final RowConsumer consumer;
+    final AtomicInteger next = new AtomicInteger();
+    final AtomicBoolean failed = new AtomicBoolean();
+
+    Batch(CsrGraph graph, int[] sources, int[] targets, RowConsumer consumer) {
+      this.graph = graph;
+      this.sources = sources;
+      this.targets = targets;
+      this.consumer = consumer;
+      if (targets == null) {
+        this.isTarget = null;
+        this.distinctTargets = 0;
+      } else {
+        this.isTarget = new boolean[graph.nodeCount()];
+        int distinct = 0;
+        for (int target : targets) {
+          if (!isTarget[target]) {
+            isTarget[target] = true;
+            distinct++;
+          }
+        }
+        this.distinctTargets = distinct;
+      }
+    }
+  }
+
+  private static final class BatchTask extends RecursiveAction {
+    private final Batch batch;
+    private final int workers;
+
+    BatchTask(Batch batch, int workers) {
+      this.batch = batch;
+      this.workers = workers;
+    }
+
+    @Override
+    protected void compute() {
+      Worker[] tasks = new Worker[workers];
+      for (int i = 0; i < workers; i++) {
+        tasks[i] = new Worker(batch);
+      }
+      invokeAll(tasks);
+    }
+  }
+
+  /**
+   * Claims sources one at a time and searches them with its own scratch arrays.
+   */
+  private static final class Worker extends RecursiveAction {
+    private final Batch batch;
+
+    Worker(Batch batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    protected void compute() {
+      CsrGraph graph = batch.graph;
+      int n = graph.nodeCount();
+      IndexedDaryHeap queue = new IndexedDaryHeap(n, Dijkstra.DEFAULT_HEAP_ARITY);
+      double[] distances = new double[n];
+      int[] stamps = new int[n];
+      double[] row = new double[batch.targets == null ? n : batch.targets.length];
+      int epoch = 0;
+
+      try {
+        int index;
+        while (!batch.failed.get() && (index = batch.next.getAndIncrement()) < batch.sources.length) {
+          epoch++;
+          if (epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+          }
+          int source = batch.sources[index];
+          search(graph, source, queue, distances, stamps, epoch);
+          fillRow(row, distances, stamps, epoch);
+          batch.consumer.accept(index, source, row);
+        }
+      } catch (RuntimeException | Error e) {
+        batch.failed.set(true);
+        throw e;
+      }
+    }
+
+    private void search(CsrGraph graph, int source, IndexedDaryHeap queue, double[] distances, int[] stamps, int epoch) {
+      boolean[] isTarget = batch.isTarget;
+      int remaining = batch.distinctTargets;
+      queue.clear();
+      stamps[source] = epoch;
+      distances[source] = 0.0;
+      queue.insert(source, 0.0);
+      while (!queue.isEmpty()) {
+        int u = queue.poll();
+        if (isTarget != null && isTarget[u] && --remaining == 0) {
+          return;
+        }
+        double base = distances[u];
+        for (long slot = graph.firstSlot(u), end = graph.endSlot(u); slot < end; slot++) {
+          double weight = graph.weight(slot);
+          if (weight < 0) {
+            throw Dijkstra.negativeWeight();
+          }
+          int v = graph.target(slot);
+          double candidate = base + weight;
+          if (stamps[v] != epoch || candidate < distances[v]) {
+            stamps[v] = epoch;
+            distances[v] = candidate;
+            queue.insertOrDecrease(v, candidate);
+          }
+        }
+      }
+    }
+
+    private void fillRow(double[] row, double[] distances, int[] stamps, int epoch) {
+      int[] targets = batch.targets;
+      for (int i = 0; i < row.length; i++) {
+        int node = targets == null ? i : targets[i];
+        row[i] = stamps[node] == epoch ? distances[node] : Double.POSITIVE_INFINITY;
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package graph;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size bit set whose bits can be set concurrently. Bits are only ever set, never
+ * cleared, which is all a visited set needs.
+ */
+final class ConcurrentBitSet {
+
+  private final AtomicLongArray words;
+  private final int size;
+
+  ConcurrentBitSet(int size) {
+    this.size = size;
+    this.words = new AtomicLongArray((size + 63) >>> 6);
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean get(int index) {
+    return (words.get(index >>> 6) & (1L << index)) != 0;
+  }
+
+  /**
+   * Sets the bit and returns {@code true} if this call changed it from clear to set.
+   */
+  boolean set(int index) {
+    int word = index >>> 6;
+    long mask = 1L << index;
+    while (true) {
+      long current = words.get(word);
+      if ((current & mask) != 0) {
+        return false;
+      }
+      if (words.compareAndSet(word, current, current | mask)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,352 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe graph for mixed ingestion and query traffic.
+ *
+ * <p>The graph is published as an immutable {@code Version}: a persistent trie of per-node
+ * {@code Edge[]} arrays together with the edge count, held in an {@link AtomicReference}. A
+ * writer takes the striped monitors of both endpoints in stripe order, so writers to different
+ * nodes run in parallel and cannot deadlock. It builds the new adjacency arrays and then installs
+ * them with a compare-and-set that copies only the {@code O(log V)} trie path to each changed
+ * node. A retry only repeats that path copy, because no other writer can change the locked nodes
+ * in between.
+ *
+ * <p>Readers never lock. {@link #edgeCount()}, {@link #degree(int)} and {@link #adjacency(int)}
+ * read the current version, so they are linearizable with the writes. {@link #snapshot()} wraps
+ * the current version in O(1), and traversals and shortest-path queries run on such a snapshot,
+ * so each query sees one consistent version of the graph.
+ */
+public final class ConcurrentGraph implements Graph {
+
+  private static final Edge[] NO_EDGES = new Edge[0];
+  private static final int STRIPES = 64;
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private final int nodes;
+  private final boolean directed;
+  private final int shift;
+  private final AtomicReference<Version> version;
+  private final Object[] locks = new Object[STRIPES];
+
+  public ConcurrentGraph(int nodes, boolean directed) {
+    if (nodes < 0) {
+      throw new IllegalArgumentException("Node count must not be negative: " + nodes);
+    }
+    this.nodes = nodes;
+    this.directed = directed;
+    int levels = 0;
+    while (levels < 6 && (long) nodes > 1L << (BITS * (levels + 1))) {
+      levels++;
+    }
+    this.shift = BITS * levels;
+    this.version = new AtomicReference<>(new Version(build(shift, 0), 0, 0));
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  /**
+   * Returns an immutable view of the graph at a single point in time.
+   */
+  public Graph snapshot() {
+    return new Snapshot(this, version.get());
+  }
+
+  @Override
+  public int nodeCount() {
+    return nodes;
+  }
+
+  @Override
+  public int edgeCount() {
+    return version.get().edges;
+  }
+
+  @Override
+  public boolean isDirected() {
+    return directed;
+  }
+
+  @Override
+  public void addEdge(int u, int v) {
+    addEdge(u, v, 1.0);
+  }
+
+  @Override
+  public void addEdge(int u, int v, double weight) {
+    checkNode(u);
+    checkNode(v);
+    if (!directed && u == v) {
+      throw new IllegalArgumentException("Self-loops are not supported in undirected graphs.");
+    }
+    int first = stripe(u);
+    int second = stripe(v);
+    synchronized (locks[Math.min(first, second)]) {
+      synchronized (locks[Math.max(first, second)]) {
+        Version current = version.get();
+        Edge[] from = appended(edgesOf(current, u), new Edge(u, v, weight));
+        Edge[] to = directed ? null : appended(edgesOf(current, v), new Edge(v, u, weight));
+        publish(u, from, v, to, 1, weight < 0 ? 1 : 0);
+      }
+    }
+  }
+
+  @Override
+  public void removeEdge(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    int first = stripe(u);
+    int second = stripe(v);
+    synchronized (locks[Math.min(first, second)]) {
+      synchronized (locks[Math.max(first, second)]) {
+        Version current = version.get();
+        Edge[] outgoing = edgesOf(current, u);
+        int index = indexOf(outgoing, v, Double.NaN);
+        if (index < 0) {
+          return;
+        }
+        Edge[] from = without(outgoing, index);
+        Edge[] to = null;
+        if (!directed) {
+          Edge[] incoming = edgesOf(current, v);
+          int back = indexOf(incoming, u, outgoing[index].weight());
+          if (back < 0) {
+            throw new IllegalStateException("Undirected edge is missing its symmetric counterpart.");
+          }
+          to = without(incoming, back);
+        }
+        publish(u, from, v, to, -1, outgoing[index].weight() < 0 ? -1 : 0);
+      }
+    }
+  }
+
+  @Override
+  public int degree(int u) {
+    checkNode(u);
+    return edgesOf(version.get(), u).length;
+  }
+
+  @Override
+  public Iterable<Integer> nodes() {
+    return () -> new Iterator<Integer>() {
+      int current = 0;
+
+      @Override
+      public boolean hasNext() {
+        return current < nodes;
+      }
+
+      @Override
+      public Integer next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current++;
+      }
+    };
+  }
+
+  @Override
+  public Iterable<Edge> edges() {
+    return snapshot().edges();
+  }
+
+  /**
+   * Returns the current edges of {@code u}; later writes do not affect the returned list.
+   */
+  @Override
+  public Iterable<Edge> adjacency(int u) {
+    checkNode(u);
+    return Collections.unmodifiableList(Arrays.asList(edgesOf(version.get(), u)));
+  }
+
+  @Override
+  public Iterable<Integer> bfs(int start) {
+    return snapshot().bfs(start);
+  }
+
+  @Override
+  public Iterable<Integer> dfs(int start) {
+    return snapshot().dfs(start);
+  }
+
+  @Override
+  public int bfs(int start, TraversalContext context, NodeVisitor visitor) {
+    return snapshot().bfs(start, context, visitor);
+  }
+
+  @Override
+  public int dfs(int start, TraversalContext context, NodeVisitor visitor) {
+    return snapshot().dfs(start, context, visitor);
+  }
+
+  /**
+   * Searches a fresh snapshot; unlike the other graphs there is no component index to reuse, since
+   * the next call may see a different graph.
+   */
+  @Override
+  public boolean hasPath(int source, int target) {
+    return snapshot().path(source, target).iterator().hasNext();
+  }
+
+  @Override
+  public Iterable<Integer> path(int source, int target) {
+    return snapshot().path(source, target);
+  }
+
+  @Override
+  public double[] shortestDistances(int source) {
+    return snapshot().shortestDistances(source);
+  }
+
+  @Override
+  public Iterable<Integer> shortestPath(int source, int target) {
+    return snapshot().shortestPath(source, target);
+  }
+
+  /**
+   * Returns the monitor index of {@code u}. Monitors are reentrant, so when both endpoints share a
+   * stripe the nested {@code synchronized} takes it only once.
+   */
+  private static int stripe(int u) {
+    return u & (STRIPES - 1);
+  }
+
+  /**
+   * Installs {@code from} as the edges of {@code u} and, unless it is {@code null}, {@code to} as
+   * the edges of {@code v}. The caller holds the monitors of both nodes.
+   */
+  private void publish(int u, Edge[] from, int v, Edge[] to, int delta, int negativeDelta) {
+    while (true) {
+      Version current = version.get();
+      Object[] root = with(current.root, shift, u, from);
+      if (to != null) {
+        root = with(root, shift, v, to);
+      }
+      Version updated = new Version(root, current.edges + delta, current.negativeEdges + negativeDelta);
+      if (version.compareAndSet(current, updated)) {
+        return;
+      }
+    }
+  }
+
+  private Edge[] edgesOf(Version version, int u) {
+    Object[] node = version.root;
+    for (int s = shift; s > 0; s -= BITS) {
+      node = (Object[]) node[(u >>> s) & MASK];
+    }
+    return (Edge[]) node[u & MASK];
+  }
+
+  /**
+   * Returns a copy of the trie {@code node} whose entry for {@code u} is {@code edges}; only the
+   * path to {@code u} is copied.
+   */
+  private static Object[] with(Object[] node, int shift, int u, Edge[] edges) {
+    Object[] copy = node.clone();
+    int i = (u >>> shift) & MASK;
+    copy[i] = shift == 0 ? edges : with((Object[]) node[i], shift - BITS, u, edges);
+    return copy;
+  }
+
+  private Object[] build(int shift, int base) {
+    Object[] node = new Object[1 << BITS];
+    for (int i = 0; i <= MASK; i++) {
+      int child = base + (i << shift);
+      if (child >= nodes) {
+        break;
+      }
+      node[i] = shift == 0 ? NO_EDGES : build(shift - BITS, child);
+    }
+    return node;
+  }
+
+  private static Edge[] appended(Edge[] current, Edge edge) {
+    Edge[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = edge;
+    return updated;
+  }
+
+  private static Edge[] without(Edge[] current, int index) {
+    Edge[] updated = new Edge[current.length - 1];
+    System.arraycopy(current, 0, updated, 0, index);
+    System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+    return updated;
+  }
+
+  /**
+   * Returns the index of the first edge to {@code v}, restricted to {@code weight} unless it is
+   * NaN, or -1 if there is no such edge.
+   */
+  private static int indexOf(Edge[] edges, int v, double weight) {
+    for (int i = 0; i < edges.length; i++) {
+      Edge edge = edges[i];
+      if (edge.to() == v && (Double.isNaN(weight) || Double.compare(edge.weight(), weight) == 0)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void checkNode(int u) {
+    if (u < 0 || u >= nodes) {
+      throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+    }
+  }
+
+  /**
+   * One published state of the graph: the root of the adjacency trie, the edge count and the
+   * number of edges with a negative weight.
+   */
+  private record Version(Object[] root, int edges, int negativeEdges) {
+  }
+
+  /**
+   * An immutable graph over one {@code Version}. Slot {@code (u << 32) | i} is the {@code i}-th
+   * edge of node {@code u}.
+   */
+  private static final class Snapshot extends AbstractCsrGraph {
+    private final ConcurrentGraph owner;
+    private final Version version;
+
+    Snapshot(ConcurrentGraph owner, Version version) {
+      super(owner.nodes, version.edges, owner.directed);
+      this.owner = owner;
+      this.version = version;
+    }
+
+    @Override
+    boolean hasNegativeWeight() {
+      return version.negativeEdges > 0;
+    }
+
+    @Override
+    protected long firstSlot(int u) {
+      return (long) u << 32;
+    }
+
+    @Override
+    protected long endSlot(int u) {
+      return ((long) u << 32) + owner.edgesOf(version, u).length;
+    }
+
+    @Override
+    protected int target(long slot) {
+      return edge(slot).to();
+    }
+
+    @Override
+    protected double weight(long slot) {
+      return edge(slot).weight();
+    }
+
+    private Edge edge(long slot) {
+      return owner.edgesOf(version, (int) (slot >>> 32))[(int) slot];
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Utility class computing connected components, sequentially with a {@link UnionFind} or in
+ * parallel with the Afforest algorithm.
+ *
+ * <p>Edges are treated as undirected, so directed graphs get their weakly connected components;
+ * see {@link StronglyConnectedComponents} for the strong ones. Both methods number components in
+ * the order of their smallest node and therefore return identical results.
+ */
+public final class ConnectedComponents {
+
+  private ConnectedComponents() {
+    // Utility class
+  }
+
+  private static final int NEIGHBOR_ROUNDS = 2;
+  private static final int SAMPLES = 1024;
+  private static final int GRAIN = 1024;
+
+  /**
+   * Computes the components with a union-find pass over all edges.
+   */
+  public static Result compute(Graph graph) {
+    Objects.requireNonNull(graph, "graph");
+    int n = graph.nodeCount();
+    UnionFind sets = new UnionFind(n);
+    if (graph instanceof AbstractCsrGraph csr) {
+      for (int u = 0; u < n; u++) {
+        for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+          sets.union(u, csr.target(slot));
+        }
+      }
+    } else if (graph instanceof AbstractGraph list) {
+      for (int u = 0; u < n; u++) {
+        for (Edge edge : list.adjList.get(u)) {
+          sets.union(u, edge.to());
+        }
+      }
+    } else {
+      for (int u = 0; u < n; u++) {
+        for (Edge edge : graph.adjacency(u)) {
+          sets.union(u, edge.to());
+        }
+      }
+    }
+    int[] labels = new int[n];
+    for (int u = 0; u < n; u++) {
+      labels[u] = sets.find(u);
+    }
+    return normalize(labels);
+  }
+
+  public static Result computeParallel(Graph graph) {
+    return computeParallel(graph, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Computes the components on {@code pool} with Afforest: every node is first linked to its
+   * first {@value #NEIGHBOR_ROUNDS} neighbours, which usually merges most of the graph into one
+   * giant component. A sample of nodes identifies that component, and only the remaining arcs of
+   * nodes outside it are linked afterwards. Links hook the larger of two roots under the smaller
+   * one with compare-and-set, so no locks are taken. Graphs that are not {@link AbstractCsrGraph}
+   * are copied into a {@link CsrGraph} first.
+   */
+  public static Result computeParallel(Graph graph, ForkJoinPool pool) {
+    Objects.requireNonNull(graph, "graph");
+    Objects.requireNonNull(pool, "pool");
+    AbstractCsrGraph csr = graph instanceof AbstractCsrGraph c ? c : CsrGraph.copyOf(graph);
+    int n = csr.nodeCount();
+    AtomicIntegerArray parents = new AtomicIntegerArray(n);
+    for (int u = 0; u < n; u++) {
+      parents.set(u, u);
+    }
+    for (int round = 0; round < NEIGHBOR_ROUNDS; round++) {
+      pool.invoke(new LinkTask(csr, parents, round, round + 1, -1, 0, n));
+      pool.invoke(new CompressTask(parents, 0, n));
+    }
+    // Skipping is safe only when every arc has a mirror. In a directed graph an arc out of a
+    // skipped giant-component node into a node outside it has none, so every node has to link
+    // its remaining arcs.
+    int skip = csr.isDirected() ? -1 : mostFrequentRoot(parents);
+    pool.invoke(new LinkTask(csr, parents, NEIGHBOR_ROUNDS, Long.MAX_VALUE, skip, 0, n));
+    pool.invoke(new CompressTask(parents, 0, n));
+    int[] labels = new int[n];
+    for (int u = 0; u < n; u++) {
+      labels[u] = parents.get(u);
+    }
+    return normalize(labels);
+  }
+
+  /**
+   * Component labels.
+   *
+   * @param labels the component of each node, from 0 to {@code count - 1}
+   * @param count the number of components
+   */
+  public record Result(int[] labels, int count) {
+
+    public boolean connected(int u, int v) {
+      return labels[u] == labels[v];
+    }
+
+    /**
+     * Returns the number of nodes in each component, indexed by label.
+     */
+    public int[] sizes() {
+      int[] sizes = new int[count];
+      for (int label : labels) {
+        sizes[label]++;
+      }
+      return sizes;
+    }
+  }
+
+  /**
+   * Renumbers the representatives in {@code labels} to {@code 0 .. count - 1} in place.
+   */
+  static Result normalize(int[] labels) {
+    int[] renamed = new int[labels.length];
+    Arrays.fill(renamed, -1);
+    int count = 0;
+    for (int u = 0; u < labels.length; u++) {
+      int root = labels[u];
+      if (renamed[root] < 0) {
+        renamed[root] = count++;
+      }
+      labels[u] = renamed[root];
+    }
+    return new Result(labels, count);
+  }
+
+  private static int mostFrequentRoot(AtomicIntegerArray parents) {
+    int n = parents.length();
+    if (n == 0) {
+      return -1;
+    }
+    Random random = new Random(n);
+    int[] samples = new int[Math.min(SAMPLES, n)];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = parents.get(random.nextInt(n));
+    }
+    Arrays.sort(samples);
+    int best = samples[0];
+    int bestRun = 0;
+    for (int i = 0; i < samples.length; ) {
+      int j = i;
+      while (j < samples.length && samples[j] == samples[i]) {
+        j++;
+      }
+      if (j - i > bestRun) {
+        bestRun = j - i;
+        best = samples[i];
+      }
+      i = j;
+    }
+    return best;
+  }
+
+  /**
+   * Hooks the trees of {@code u} and {@code v} together, always under the smaller root.
+   */
+  private static void link(AtomicIntegerArray parents, int u, int v) {
+    int p1 = parents.get(u);
+    int p2 = parents.get(v);
+    while (p1 != p2) {
+      int high = Math.max(p1, p2);
+      int low = Math.min(p1, p2);
+      int highParent = parents.get(high);
+      if (highParent == low) {
+        return;
+      }
+      if (highParent == high && parents.compareAndSet(high, high, low)) {
+        return;
+      }
+      p1 = parents.get(parents.get(high));
+      p2 = parents.get(low);
+    }
+  }
+
+  /**
+   * Links the arcs of each node whose index within its adjacency is in {@code [fromArc, toArc)},
+   * skipping nodes already in component {@code skip}.
+   */
+  private static final class LinkTask extends RecursiveAction {
+    private final AbstractCsrGraph graph;
+    private final AtomicIntegerArray parents;
+    private final long fromArc;
+    private final long toArc;
+    private final int skip;
+    private final int from;
+    private final int to;
+
+    LinkTask(AbstractCsrGraph graph, AtomicIntegerArray parents, long fromArc, long toArc, int skip,
+        int from, int to) {
+      this.graph = graph;
+      this.parents = parents;
+      this.fromArc = fromArc;
+      this.toArc = toArc;
+      this.skip = skip;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > GRAIN) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new LinkTask(graph, parents, fromArc, toArc, skip, from, mid),
+            new LinkTask(graph, parents, fromArc, toArc, skip, mid, to));
+        return;
+      }
+      for (int u = from; u < to; u++) {
+        if (skip >= 0 && parents.get(u) == skip) {
+          continue;
+        }
+        long first = graph.firstSlot(u);
+        long end = graph.endSlot(u);
+        if (end - first > toArc) {
+          end = first + toArc;
+        }
+        for (long slot = first + fromArc; slot < end; slot++) {
+          link(parents, u, graph.target(slot));
+        }
+      }
+    }
+  }
+
+  /**
+   * Points every node directly at its root.
+   */
+  private static final class CompressTask extends RecursiveAction {
+    private final AtomicIntegerArray parents;
+    private final int from;
+    private final int to;
+
+    CompressTask(AtomicIntegerArray parents, int from, int to) {
+      this.parents = parents;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > GRAIN) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new CompressTask(parents, from, mid), new CompressTask(parents, mid, to));
+        return;
+      }
+      for (int u = from; u < to; u++) {
+        int parent = parents.get(u);
+        while (parents.get(parent) != parent) {
+          parent = parents.get(parent);
+        }
+        parents.set(u, parent);
+      }
+    }
+  }
+}
@@ -0,0 +1,718 @@
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Contraction hierarchies for fast repeated shortest path queries on a rarely changing graph.
+ *
+ * <p>{@link #build(Graph)} contracts the nodes one by one in order of importance (edge
+ * difference, contracted neighbours and level, refreshed for the neighbours of each contracted
+ * node and re-checked lazily). Contracting a node adds a
+ * shortcut between two of its neighbours whenever a bounded local witness search cannot prove
+ * that a path avoiding the node is at least as short. Every arc of the resulting augmented graph
+ * goes either up or down in the contraction order. A query runs two small Dijkstra searches that
+ * only follow upward arcs, one from the source and one backward from the target, and meets at
+ * the most important node of the shortest path.
+ *
+ * <p>Shortcuts remember the node they bypass, so {@link #shortestPath} can unpack them into the
+ * original nodes. Distances equal those of {@link Graph#shortestDistances}; when several shortest
+ * paths tie the route may differ from {@link Graph#shortestPath}. The hierarchy is a snapshot and
+ * does not follow later mutations of the graph. A built hierarchy is immutable and can be shared
+ * between threads.
+ *
+ * <p>Each query needs O(V) scratch space. {@link #newQuery()} returns a reusable {@link Query} that
+ * owns it; keep one per thread for repeated queries. {@link #distance} and {@link #shortestPath}
+ * borrow a single cached query and allocate a new one when another thread holds it.
+ */
+public final class ContractionHierarchy {
+
+  private static final int MAGIC = 0x43484731; // "CHG1"
+  private static final int WITNESS_SETTLE_LIMIT = 500;
+  private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+  private final int nodes;
+  private final boolean directed;
+  private final int[] rank;
+
+  // Upward arcs u -> v (rank[v] > rank[u]) stored at u.
+  private final int[] upOffsets;
+  private final int[] upTargets;
+  private final double[] upWeights;
+  private final int[] upMiddles;
+
+  // Downward arcs u -> v (rank[u] > rank[v]) stored at v, so the backward search walks them upward.
+  private final int[] downOffsets;
+  private final int[] downSources;
+  private final double[] downWeights;
+  private final int[] downMiddles;
+
+  private final int shortcuts;
+  private final AtomicReference<Query> spare = new AtomicReference<>();
+
+  private ContractionHierarchy(int nodes, boolean directed, int[] rank, int[] upOffsets, int[] upTargets,
+      double[] upWeights, int[] upMiddles, int[] downOffsets, int[] downSources, double[] downWeights,
+      int[] downMiddles) {
+    this.nodes = nodes;
+    this.directed = directed;
+    this.rank = rank;
+    this.upOffsets = upOffsets;
+    this.upTargets = upTargets;
+    this.upWeights = upWeights;
+    this.upMiddles = upMiddles;
+    this.downOffsets = downOffsets;
+    this.downSources = downSources;
+    this.downWeights = downWeights;
+    this.downMiddles = downMiddles;
+    int count = 0;
+    for (int middle : upMiddles) {
+      if (middle >= 0) count++;
+    }
+    for (int middle : downMiddles) {
+      if (middle >= 0) count++;
+    }
+    this.shortcuts = count;
+  }
+
+  /**
+   * Preprocesses {@code graph} into a contraction hierarchy.
+   *
+   * @throws IllegalArgumentException if the graph has a negative edge weight
+   */
+  public static ContractionHierarchy build(Graph graph) {
+    Objects.requireNonNull(graph, "graph");
+    return new Builder(graph).run();
+  }
+
+  public int nodeCount() {
+    return nodes;
+  }
+
+  public boolean isDirected() {
+    return directed;
+  }
+
+  /**
+   * Returns the number of shortcut arcs added during preprocessing.
+   */
+  public int shortcutCount() {
+    return shortcuts;
+  }
+
+  /**
+   * Returns the position of {@code u} in the contraction order; higher means more important.
+   */
+  public int rank(int u) {
+    checkNode(u);
+    return rank[u];
+  }
+
+  /**
+   * Returns a new query object with its own scratch space; it is not thread-safe.
+   */
+  public Query newQuery() {
+    return new Query();
+  }
+
+  /**
+   * Returns the shortest distance from {@code source} to {@code target}, or
+   * {@link Double#POSITIVE_INFINITY} if the target is unreachable.
+   */
+  public double distance(int source, int target) {
+    Query query = borrow();
+    try {
+      return query.distance(source, target);
+    } finally {
+      spare.set(query);
+    }
+  }
+
+  /**
+   * Returns the nodes of a shortest path from {@code source} to {@code target} with all
+   * shortcuts unpacked, or an empty list if the target is unreachable.
+   */
+  public List<Integer> shortestPath(int source, int target) {
+    Query query = borrow();
+    try {
+      return query.shortestPath(source, target);
+    } finally {
+      spare.set(query);
+    }
+  }
+
+  private Query borrow() {
+    Query query = spare.getAndSet(null);
+    return query != null ? query : new Query();
+  }
+
+  /**
+   * Writes the hierarchy in a compact binary format readable by {@link #readFrom}. The stream is
+   * flushed but not closed.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(nodes);
+    data.writeBoolean(directed);
+    writeInts(data, rank);
+    writeInts(data, upOffsets);
+    writeInts(data, upTargets);
+    writeDoubles(data, upWeights);
+    writeInts(data, upMiddles);
+    writeInts(data, downOffsets);
+    writeInts(data, downSources);
+    writeDoubles(data, downWeights);
+    writeInts(data, downMiddles);
+    data.flush();
+  }
+
+  /**
+   * Reads a hierarchy written by {@link #writeTo}. The stream is not closed.
+   *
+   * @throws IOException if the stream is truncated or not a contraction hierarchy
+   */
+  public static ContractionHierarchy readFrom(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Not a contraction hierarchy stream.");
+    }
+    int nodes = data.readInt();
+    boolean directed = data.readBoolean();
+    int[] rank = readInts(data);
+    int[] upOffsets = readInts(data);
+    int[] upTargets = readInts(data);
+    double[] upWeights = readDoubles(data);
+    int[] upMiddles = readInts(data);
+    int[] downOffsets = readInts(data);
+    int[] downSources = readInts(data);
+    double[] downWeights = readDoubles(data);
+    int[] downMiddles = readInts(data);
+    if (rank.length != nodes || upOffsets.length != nodes + 1 || downOffsets.length != nodes + 1
+        || upTargets.length != upWeights.length || upTargets.length != upMiddles.length
+        || downSources.length != downWeights.length || downSources.length != downMiddles.length) {
+      throw new IOException("Corrupt contraction hierarchy stream.");
+    }
+    return new ContractionHierarchy(nodes, directed, rank, upOffsets, upTargets, upWeights, upMiddles,
+        downOffsets, downSources, downWeights, downMiddles);
+  }
+
+  private void checkNode(int u) {
+    if (u < 0 || u >= nodes) {
+      throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+    }
+  }
+
+  private int findUpSlot(int from, int to) {
+    for (int slot = upOffsets[from]; slot < upOffsets[from + 1]; slot++) {
+      if (upTargets[slot] == to) {
+        return slot;
+      }
+    }
+    throw new IllegalStateException("Missing upward arc " + from + " -> " + to + ".");
+  }
+
+  private int findDownSlot(int from, int to) {
+    for (int slot = downOffsets[to]; slot < downOffsets[to + 1]; slot++) {
+      if (downSources[slot] == from) {
+        return slot;
+      }
+    }
+    throw new IllegalStateException("Missing downward arc " + from + " -> " + to + ".");
+  }
+
+  /**
+   * Appends the original nodes after {@code from} on the arc {@code from -> to}.
+   */
+  private void unpack(int from, int to, int middle, List<Integer> path) {
+    if (middle < 0) {
+      path.add(to);
+      return;
+    }
+    // Both halves lead to the bypassed node, which was contracted before either endpoint.
+    unpack(from, middle, downMiddles[findDownSlot(from, middle)], path);
+    unpack(middle, to, upMiddles[findUpSlot(middle, to)], path);
+  }
+
+  private static void writeInts(DataOutputStream data, int[] values) throws IOException {
+    data.writeInt(values.length);
+    for (int value : values) {
+      data.writeInt(value);
+    }
+  }
+
+  private static void writeDoubles(DataOutputStream data, double[] values) throws IOException {
+    data.writeInt(values.length);
+    for (double value : values) {
+      data.writeDouble(value);
+    }
+  }
+
+  private static int[] readInts(DataInputStream data) throws IOException {
+    int[] values = new int[checkLength(data.readInt())];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = data.readInt();
+    }
+    return values;
+  }
+
+  private static double[] readDoubles(DataInputStream data) throws IOException {
+    double[] values = new double[checkLength(data.readInt())];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = data.readDouble();
+    }
+    return values;
+  }
+
+  private static int checkLength(int length) throws IOException {
+    if (length < 0) {
+      throw new IOException("Corrupt contraction hierarchy stream.");
+    }
+    return length;
+  }
+
+  /**
+   * A bidirectional upward search with reusable epoch-stamped scratch arrays; use one per thread.
+   */
+  public final class Query {
+    private final IndexedDaryHeap forwardQueue = new IndexedDaryHeap(nodes, Dijkstra.DEFAULT_HEAP_ARITY);
+    private final IndexedDaryHeap backwardQueue = new IndexedDaryHeap(nodes, Dijkstra.DEFAULT_HEAP_ARITY);
+    private final double[] forwardDistances = new double[nodes];
+    private final double[] backwardDistances = new double[nodes];
+    private final int[] forwardSlots = new int[nodes];
+    private final int[] backwardSlots = new int[nodes];
+    private final int[] forwardStamps = new int[nodes];
+    private final int[] backwardStamps = new int[nodes];
+    private int epoch;
+    private double best;
+    private int meeting;
+
+    private Query() {
+    }
+
+    /**
+     * See {@link ContractionHierarchy#distance(int, int)}.
+     */
+    public double distance(int source, int target) {
+      checkNode(source);
+      checkNode(target);
+      run(source, target);
+      return best;
+    }
+
+    /**
+     * See {@link ContractionHierarchy#shortestPath(int, int)}.
+     */
+    public List<Integer> shortestPath(int source, int target) {
+      checkNode(source);
+      checkNode(target);
+      run(source, target);
+      if (meeting < 0) {
+        return List.of();
+      }
+      return Collections.unmodifiableList(path(source, target));
+    }
+
+    private void run(int source, int target) {
+      epoch++;
+      if (epoch == 0) {
+        Arrays.fill(forwardStamps, 0);
+        Arrays.fill(backwardStamps, 0);
+        epoch = 1;
+      }
+      forwardQueue.clear();
+      backwardQueue.clear();
+      best = Double.POSITIVE_INFINITY;
+      meeting = -1;
+
+      forwardStamps[source] = epoch;
+      forwardDistances[source] = 0.0;
+      forwardSlots[source] = -1;
+      forwardQueue.insert(source, 0.0);
+      backwardStamps[target] = epoch;
+      backwardDistances[target] = 0.0;
+      backwardSlots[target] = -1;
+      backwardQueue.insert(target, 0.0);
+
+      boolean forwardTurn = true;
+      while (true) {
+        boolean forwardOpen = !forwardQueue.isEmpty() && forwardQueue.key(forwardQueue.peek()) < best;
+        boolean backwardOpen = !backwardQueue.isEmpty() && backwardQueue.key(backwardQueue.peek()) < best;
+        if (!forwardOpen && !backwardOpen) {
+          return;
+        }
+        if (forwardOpen && (forwardTurn || !backwardOpen)) {
+          int u = forwardQueue.poll();
+          meet(u);
+          double base = forwardDistances[u];
+          for (int slot = upOffsets[u]; slot < upOffsets[u + 1]; slot++) {
+            int v = upTargets[slot];
+            double candidate = base + upWeights[slot];
+            if (forwardStamps[v] != epoch || candidate < forwardDistances[v]) {
+              forwardStamps[v] = epoch;
+              forwardDistances[v] = candidate;
+              forwardSlots[v] = slot;
+              forwardQueue.insertOrDecrease(v, candidate);
+            }
+          }
+        } else {
+          int v = backwardQueue.poll();
+          meet(v);
+          double base = backwardDistances[v];
+          for (int slot = downOffsets[v]; slot < downOffsets[v + 1]; slot++) {
+            int u = downSources[slot];
+            double candidate = base + downWeights[slot];
+            if (backwardStamps[u] != epoch || candidate < backwardDistances[u]) {
+              backwardStamps[u] = epoch;
+              backwardDistances[u] = candidate;
+              backwardSlots[u] = slot;
+              backwardQueue.insertOrDecrease(u, candidate);
+            }
+          }
+        }
+        forwardTurn = !forwardTurn;
+      }
+    }
+
+    private void meet(int u) {
+      if (forwardStamps[u] == epoch && backwardStamps[u] == epoch) {
+        double total = forwardDistances[u] + backwardDistances[u];
+        if (total < best) {
+          best = total;
+          meeting = u;
+        }
+      }
+    }
+
+    private List<Integer> path(int source, int target) {
+      // Collect the arcs of the upward forward path in reverse, then unpack them in order.
+      List<Integer> forwardSlotsOnPath = new ArrayList<>();
+      for (int node = meeting; node != source; ) {
+        int slot = forwardSlots[node];
+        forwardSlotsOnPath.add(slot);
+        node = sourceOfUpSlot(slot);
+      }
+      List<Integer> path = new ArrayList<>();
+      path.add(source);
+      int current = source;
+      for (int i = forwardSlotsOnPath.size() - 1; i >= 0; i--) {
+        int slot = forwardSlotsOnPath.get(i);
+        unpack(current, upTargets[slot], upMiddles[slot], path);
+        current = upTargets[slot];
+      }
+      while (current != target) {
+        int slot = backwardSlots[current];
+        int next = targetOfDownSlot(slot);
+        unpack(current, next, downMiddles[slot], path);
+        current = next;
+      }
+      return path;
+    }
+
+    private int sourceOfUpSlot(int slot) {
+      return upperBound(upOffsets, slot);
+    }
+
+    private int targetOfDownSlot(int slot) {
+      return upperBound(downOffsets, slot);
+    }
+
+    // Returns the node whose offset range contains slot.
+    private int upperBound(int[] offsets, int slot) {
+      int lo = 0;
+      int hi = nodes - 1;
+      while (lo < hi) {
+        int mid = (lo + hi + 1) >>> 1;
+        if (offsets[mid] <= slot) {
+          lo = mid;
+        } else {
+          hi = mid - 1;
+        }
+      }
+      return lo;
+    }
+  }
+
+  /**
+   * Node contraction over a mutable overlay graph. The working lists only hold arcs between
+   * uncontracted nodes; when a node is contracted its lists are frozen as its final upward and
+   * downward arcs and it is unlinked from its neighbours.
+   */
+  private static final class Builder {
+    private final int n;
+    private final boolean directed;
+    private final List<List<Arc>> out;
+    private final List<List<Arc>> in;
+    private final int[] rank;
+    private final int[] contractedNeighbors;
+    private final int[] level;
+
+    // Witness search scratch space.
+    private final IndexedDaryHeap witnessQueue;
+    private final double[] witnessDistances;
+    private final int[] witnessStamps;
+    private final int[] targetStamps;
+    private int witnessEpoch;
+
+    Builder(Graph graph) {
+      this.n = graph.nodeCount();
+      this.directed = graph.isDirected();
+      this.out = new ArrayList<>(n);
+      this.in = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        out.add(new ArrayList<>());
+        in.add(new ArrayList<>());
+      }
+      this.rank = new int[n];
+      this.contractedNeighbors = new int[n];
+      this.level = new int[n];
+      this.witnessQueue = new IndexedDaryHeap(n, Dijkstra.DEFAULT_HEAP_ARITY);
+      this.witnessDistances = new double[n];
+      this.witnessStamps = new int[n];
+      this.targetStamps = new int[n];
+
+      for (int u = 0; u < n; u++) {
+        for (Edge edge : graph.adjacency(u)) {
+          if (edge.weight() < 0) {
+            throw new IllegalArgumentException("Negative edge weights are not supported by contraction hierarchies.");
+          }
+          if (edge.to() != u) {
+            addArc(u, edge.to(), edge.weight(), -1);
+          }
+        }
+      }
+    }
+
+    ContractionHierarchy run() {
+      IndexedDaryHeap order = new IndexedDaryHeap(n, 2);
+      for (int v = 0; v < n; v++) {
+        order.insert(v, priority(v));
+      }
+      int next = 0;
+      while (!order.isEmpty()) {
+        int v = order.poll();
+        double updated = priority(v);
+        if (!order.isEmpty() && updated > order.key(order.peek())) {
+          order.insert(v, updated);
+          continue;
+        }
+        shortcutsFor(v, true);
+        rank[v] = next++;
+        for (Arc arc : out.get(v)) {
+          removeArc(in.get(arc.node), v);
+        }
+        for (Arc arc : in.get(v)) {
+          removeArc(out.get(arc.node), v);
+        }
+        for (Arc arc : out.get(v)) {
+          touchNeighbor(order, v, arc.node);
+        }
+        for (Arc arc : in.get(v)) {
+          touchNeighbor(order, v, arc.node);
+        }
+      }
+      return assemble();
+    }
+
+    private void touchNeighbor(IndexedDaryHeap order, int v, int neighbor) {
+      if (!order.contains(neighbor)) {
+        return;
+      }
+      contractedNeighbors[neighbor]++;
+      level[neighbor] = Math.max(level[neighbor], level[v] + 1);
+      order.changeKey(neighbor, priority(neighbor));
+    }
+
+    /**
+     * Edge difference plus contracted neighbours plus hierarchy level; lower is contracted first.
+     */
+    private double priority(int v) {
+      int added = shortcutsFor(v, false);
+      int removed = out.get(v).size() + in.get(v).size();
+      return 2.0 * (added - removed) + contractedNeighbors[v] + level[v];
+    }
+
+    /**
+     * Counts (and optionally adds) the shortcuts needed to contract {@code v}.
+     */
+    private int shortcutsFor(int v, boolean add) {
+      int count = 0;
+      List<Arc> outgoing = out.get(v);
+      // Adding u -> x never touches the lists of v, so iterating them directly is safe.
+      for (Arc incoming : in.get(v)) {
+        int u = incoming.node;
+        nextWitnessEpoch();
+        double limit = -1.0;
+        int targets = 0;
+        for (Arc arc : outgoing) {
+          if (arc.node != u) {
+            limit = Math.max(limit, incoming.weight + arc.weight);
+            if (targetStamps[arc.node] != witnessEpoch) {
+              targetStamps[arc.node] = witnessEpoch;
+              targets++;
+            }
+          }
+        }
+        if (targets == 0) {
+          continue;
+        }
+        witnessSearch(u, v, limit, targets, add ? WITNESS_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+        for (Arc arc : outgoing) {
+          int x = arc.node;
+          if (x == u) {
+            continue;
+          }
+          double via = incoming.weight + arc.weight;
+          if (witnessStamps[x] == witnessEpoch && witnessDistances[x] <= via) {
+            continue;
+          }
+          count++;
+          if (add) {
+            addArc(u, x, via, v);
+          }
+        }
+      }
+      return count;
+    }
+
+    /**
+     * Bounded Dijkstra from {@code source} over uncontracted nodes that avoids {@code excluded}.
+     * It stops once every node marked in {@code targetStamps} is settled, the distance exceeds
+     * {@code limit}, or {@code settleLimit} nodes were settled. Labels are only upper bounds, so
+     * stopping early can cause extra shortcuts but never a wrong one.
+     */
+    private void witnessSearch(int source, int excluded, double limit, int targets, int settleLimit) {
+      witnessQueue.clear();
+      witnessStamps[source] = witnessEpoch;
+      witnessDistances[source] = 0.0;
+      witnessQueue.insert(source, 0.0);
+      int settled = 0;
+      while (!witnessQueue.isEmpty() && settled < settleLimit) {
+        int u = witnessQueue.poll();
+        settled++;
+        double base = witnessDistances[u];
+        if (base > limit) {
+          return;
+        }
+        if (targetStamps[u] == witnessEpoch && --targets == 0) {
+          return;
+        }
+        for (Arc arc : out.get(u)) {
+          int x = arc.node;
+          if (x == excluded) {
+            continue;
+          }
+          double candidate = base + arc.weight;
+          if (witnessStamps[x] != witnessEpoch || candidate < witnessDistances[x]) {
+            witnessStamps[x] = witnessEpoch;
+            witnessDistances[x] = candidate;
+            witnessQueue.insertOrDecrease(x, candidate);
+          }
+        }
+      }
+    }
+
+    private void nextWitnessEpoch() {
+      witnessEpoch++;
+      if (witnessEpoch == 0) {
+        Arrays.fill(witnessStamps, 0);
+        Arrays.fill(targetStamps, 0);
+        witnessEpoch = 1;
+      }
+    }
+
+    /**
+     * Adds the arc {@code u -> v} or lowers the weight of the existing one.
+     */
+    private void addArc(int u, int v, double weight, int middle) {
+      for (Arc arc : out.get(u)) {
+        if (arc.node == v) {
+          if (weight < arc.weight) {
+            arc.weight = weight;
+            arc.middle = middle;
+            for (Arc reverse : in.get(v)) {
+              if (reverse.node == u) {
+                reverse.weight = weight;
+                reverse.middle = middle;
+                break;
+              }
+            }
+          }
+          return;
+        }
+      }
+      out.get(u).add(new Arc(v, weight, middle));
+      in.get(v).add(new Arc(u, weight, middle));
+    }
+
+    private static void removeArc(List<Arc> arcs, int node) {
+      for (int i = 0; i < arcs.size(); i++) {
+        if (arcs.get(i).node == node) {
+          int last = arcs.size() - 1;
+          arcs.set(i, arcs.get(last));
+          arcs.remove(last);
+          return;
+        }
+      }
+    }
+
+    /**
+     * Lays out the frozen lists: {@code out(v)} holds the upward arcs of {@code v} and
+     * {@code in(v)} the downward arcs into {@code v}.
+     */
+    private ContractionHierarchy assemble() {
+      int[] upOffsets = new int[n + 1];
+      int[] downOffsets = new int[n + 1];
+      for (int v = 0; v < n; v++) {
+        upOffsets[v + 1] = upOffsets[v] + out.get(v).size();
+        downOffsets[v + 1] = downOffsets[v] + in.get(v).size();
+      }
+      int[] upTargets = new int[upOffsets[n]];
+      double[] upWeights = new double[upOffsets[n]];
+      int[] upMiddles = new int[upOffsets[n]];
+      int[] downSources = new int[downOffsets[n]];
+      double[] downWeights = new double[downOffsets[n]];
+      int[] downMiddles = new int[downOffsets[n]];
+      for (int v = 0; v < n; v++) {
+        int slot = upOffsets[v];
+        for (Arc arc : out.get(v)) {
+          upTargets[slot] = arc.node;
+          upWeights[slot] = arc.weight;
+          upMiddles[slot] = arc.middle;
+          slot++;
+        }
+        slot = downOffsets[v];
+        for (Arc arc : in.get(v)) {
+          downSources[slot] = arc.node;
+          downWeights[slot] = arc.weight;
+          downMiddles[slot] = arc.middle;
+          slot++;
+        }
+      }
+      return new ContractionHierarchy(n, directed, rank, upOffsets, upTargets, upWeights, upMiddles, downOffsets,
+          downSources, downWeights, downMiddles);
+    }
+  }
+
+  private static final class Arc {
+    private final int node;
+    private double weight;
+    private int middle;
+
+    Arc(int node, double weight, int middle) {
+      this.node = node;
+      this.weight = weight;
+      this.middle = middle;
+    }
+  }
+}
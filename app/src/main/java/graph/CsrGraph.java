@@ -0,0 +1,213 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * An immutable graph backed by compressed sparse row arrays.
+ *
+ * <p>The arcs of node {@code u} are stored in {@code targets[offsets[u] .. offsets[u + 1])} and
+ * {@code weights[offsets[u] .. offsets[u + 1])}, in the same order as the adjacency list of the
+ * graph it was built from. That keeps {@code bfs}, {@code dfs}, {@code path} and
+ * {@link Dijkstra#compute} results identical to the mutable graph while using three primitive
+ * arrays instead of one {@link Edge} object per arc.
+ */
+public final class CsrGraph extends AbstractCsrGraph {
+
+  private final int[] offsets;
+  private final int[] targets;
+  private final double[] weights;
+
+  private CsrGraph(int nodes, int edges, boolean directed, int[] offsets, int[] targets, double[] weights) {
+    super(nodes, edges, directed);
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  /**
+   * Creates a frozen copy of {@code graph}, preserving the order of every adjacency list.
+   */
+  public static CsrGraph copyOf(Graph graph) {
+    Objects.requireNonNull(graph, "graph");
+    if (graph instanceof CsrGraph csr) {
+      return csr;
+    }
+    int n = graph.nodeCount();
+    int[] offsets = new int[n + 1];
+    for (int u = 0; u < n; u++) {
+      offsets[u + 1] = Math.addExact(offsets[u], graph.degree(u));
+    }
+    int[] targets = new int[offsets[n]];
+    double[] weights = new double[offsets[n]];
+    for (int u = 0; u < n; u++) {
+      int slot = offsets[u];
+      for (Edge edge : graph.adjacency(u)) {
+        targets[slot] = edge.to();
+        weights[slot] = edge.weight();
+        slot++;
+      }
+    }
+    return new CsrGraph(n, graph.edgeCount(), graph.isDirected(), offsets, targets, weights);
+  }
+
+  /**
+   * Builds a graph from a stream of edges. Undirected edges are stored in both directions.
+   */
+  public static CsrGraph fromEdges(int nodes, boolean directed, Stream<Edge> edges) {
+    Builder builder = builder(nodes, directed);
+    edges.forEachOrdered(edge -> builder.addEdge(edge.from(), edge.to(), edge.weight()));
+    return builder.build();
+  }
+
+  public static Builder builder(int nodes, boolean directed) {
+    return new Builder(nodes, directed);
+  }
+
+  /**
+   * Returns the graph with every arc reversed, i.e. the incoming adjacency of this graph.
+   * Undirected graphs are their own transpose. Arcs into {@code v} are ordered by source node.
+   */
+  public CsrGraph transpose() {
+    return directed ? transposeOf(this) : this;
+  }
+
+  /**
+   * Builds the transpose of the directed {@code graph} straight from its slots, so backings such
+   * as {@link MappedGraph} are read once instead of being copied first. The arcs have to fit in
+   * int-indexed arrays.
+   */
+  static CsrGraph transposeOf(AbstractCsrGraph graph) {
+    int n = graph.nodeCount();
+    int[] reverseOffsets = new int[n + 1];
+    for (int u = 0; u < n; u++) {
+      for (long slot = graph.firstSlot(u); slot < graph.endSlot(u); slot++) {
+        reverseOffsets[graph.target(slot) + 1]++;
+      }
+    }
+    for (int v = 0; v < n; v++) {
+      reverseOffsets[v + 1] = Math.addExact(reverseOffsets[v + 1], reverseOffsets[v]);
+    }
+    int arcs = reverseOffsets[n];
+    int[] cursor = Arrays.copyOf(reverseOffsets, n);
+    int[] reverseTargets = new int[arcs];
+    double[] reverseWeights = new double[arcs];
+    for (int u = 0; u < n; u++) {
+      for (long slot = graph.firstSlot(u); slot < graph.endSlot(u); slot++) {
+        int reverseSlot = cursor[graph.target(slot)]++;
+        reverseTargets[reverseSlot] = u;
+        reverseWeights[reverseSlot] = graph.weight(slot);
+      }
+    }
+    return new CsrGraph(n, graph.edgeCount(), true, reverseOffsets, reverseTargets, reverseWeights);
+  }
+
+  /**
+   * Lays out the first {@code size} entries of the parallel edge arrays as CSR, keeping their
+   * order within each node. Undirected edges are stored in both directions. The caller has
+   * already validated the node ids.
+   */
+  static CsrGraph build(int nodes, boolean directed, int[] from, int[] to, double[] weight, int size) {
+    int arcs = directed ? size : Math.multiplyExact(size, 2);
+    int[] offsets = new int[nodes + 1];
+    for (int i = 0; i < size; i++) {
+      offsets[from[i] + 1]++;
+      if (!directed) {
+        offsets[to[i] + 1]++;
+      }
+    }
+    for (int u = 0; u < nodes; u++) {
+      offsets[u + 1] += offsets[u];
+    }
+    int[] cursor = Arrays.copyOf(offsets, nodes);
+    int[] targets = new int[arcs];
+    double[] weights = new double[arcs];
+    for (int i = 0; i < size; i++) {
+      int slot = cursor[from[i]]++;
+      targets[slot] = to[i];
+      weights[slot] = weight[i];
+      if (!directed) {
+        slot = cursor[to[i]]++;
+        targets[slot] = from[i];
+        weights[slot] = weight[i];
+      }
+    }
+    return new CsrGraph(nodes, size, directed, offsets, targets, weights);
+  }
+
+  @Override
+  protected long firstSlot(int u) {
+    return offsets[u];
+  }
+
+  @Override
+  protected long endSlot(int u) {
+    return offsets[u + 1];
+  }
+
+  @Override
+  protected int target(long slot) {
+    return targets[(int) slot];
+  }
+
+  @Override
+  protected double weight(long slot) {
+    return weights[(int) slot];
+  }
+
+  /**
+   * Collects edges into primitive arrays and lays them out as CSR in {@link #build()}. Arcs keep
+   * their insertion order within each node, so a builder fed the same {@code addEdge} calls as a
+   * {@link DirectedGraph} or {@link UndirectedGraph} produces identical adjacency order.
+   */
+  public static final class Builder {
+    private final int nodes;
+    private final boolean directed;
+    private int[] from = new int[16];
+    private int[] to = new int[16];
+    private double[] weight = new double[16];
+    private int size;
+
+    private Builder(int nodes, boolean directed) {
+      if (nodes < 0) {
+        throw new IllegalArgumentException("Node count must not be negative: " + nodes);
+      }
+      this.nodes = nodes;
+      this.directed = directed;
+    }
+
+    public Builder addEdge(int u, int v) {
+      return addEdge(u, v, 1.0);
+    }
+
+    public Builder addEdge(int u, int v, double w) {
+      checkNode(u);
+      checkNode(v);
+      if (!directed && u == v) {
+        throw new IllegalArgumentException("Self-loops are not supported in undirected graphs.");
+      }
+      if (size == from.length) {
+        int capacity = Math.max(16, from.length + (from.length >> 1));
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+      }
+      from[size] = u;
+      to[size] = v;
+      weight[size] = w;
+      size++;
+      return this;
+    }
+
+    public CsrGraph build() {
+      return CsrGraph.build(nodes, directed, from, to, weight, size);
+    }
+
+    private void checkNode(int u) {
+      if (u < 0 || u >= nodes) {
+        throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+      }
+    }
+  }
+}
@@ -0,0 +1,332 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source shortest paths with the delta-stepping algorithm.
+ *
+ * <p>Tentative distances are grouped into buckets of width {@code delta}. The lowest non-empty
+ * bucket is emptied by repeatedly relaxing the light arcs ({@code weight <= delta}) of its nodes
+ * in parallel, after which the heavy arcs of every node removed from it are relaxed once. Each
+ * phase runs on a {@link ForkJoinPool}; distances are kept as raw {@code double} bits in an
+ * {@link AtomicLongArray} and lowered with compare-and-set, which orders correctly because
+ * distances are never negative. A small delta approaches Dijkstra, a large one Bellman-Ford.
+ *
+ * <p>The result has the same contract as {@link Dijkstra#compute}: the distances are identical,
+ * and the parents form a shortest-path tree that is rebuilt after the search by a breadth-first
+ * pass over tight arcs, so zero-weight cycles cannot produce parent cycles. When shortest paths
+ * tie, the parents may differ from Dijkstra's.
+ */
+public final class DeltaStepping {
+
+  private DeltaStepping() {
+    // Utility class
+  }
+
+  private static final int GRAIN = 512;
+  private static final long MAX_BUCKETS = 1 << 22;
+
+  public static Dijkstra.Result compute(Graph graph, int source) {
+    AbstractCsrGraph csr = frozen(Objects.requireNonNull(graph, "graph"));
+    return compute(csr, source, defaultDelta(csr), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Runs delta-stepping on {@code pool} with bucket width {@code delta}.
+   *
+   * @throws IllegalArgumentException if {@code delta} is not positive, if it is so small that
+   *     more than 2^22 buckets would be live at once, or if the graph has negative weights
+   */
+  public static Dijkstra.Result compute(Graph graph, int source, double delta, ForkJoinPool pool) {
+    Objects.requireNonNull(graph, "graph");
+    Objects.requireNonNull(pool, "pool");
+    if (!(delta > 0) || Double.isInfinite(delta)) {
+      throw new IllegalArgumentException("Bucket width must be positive and finite: " + delta);
+    }
+    int n = graph.nodeCount();
+    if (source < 0 || source >= n) {
+      throw new IllegalArgumentException("Node " + source + " is out of bounds.");
+    }
+    AbstractCsrGraph csr = frozen(graph);
+    double maxWeight = maxWeight(csr);
+    long buckets = (long) Math.ceil(maxWeight / delta) + 2;
+    if (buckets > MAX_BUCKETS) {
+      throw new IllegalArgumentException("Bucket width " + delta + " is too small for maximum weight " + maxWeight);
+    }
+    Search search = new Search(csr, delta, (int) buckets, pool);
+    double[] distances = search.run(source);
+    return new Dijkstra.Result(distances, tightTree(csr, source, distances));
+  }
+
+  /**
+   * Returns the bucket width used by {@link #compute(Graph, int)}: the largest weight divided by
+   * the average out-degree, which keeps the expected number of light re-relaxations per bucket
+   * small on graphs with spread-out weights.
+   */
+  public static double defaultDelta(Graph graph) {
+    AbstractCsrGraph csr = frozen(graph);
+    double maxWeight = maxWeight(csr);
+    long arcs = 0;
+    for (int u = 0; u < csr.nodeCount(); u++) {
+      arcs += csr.endSlot(u) - csr.firstSlot(u);
+    }
+    if (maxWeight == 0 || arcs == 0) {
+      return 1.0;
+    }
+    double averageDegree = Math.max(1.0, (double) arcs / csr.nodeCount());
+    return maxWeight / averageDegree;
+  }
+
+  private static AbstractCsrGraph frozen(Graph graph) {
+    return graph instanceof AbstractCsrGraph csr ? csr : CsrGraph.copyOf(graph);
+  }
+
+  private static double maxWeight(AbstractCsrGraph csr) {
+    double max = 0;
+    for (int u = 0; u < csr.nodeCount(); u++) {
+      for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+        double weight = csr.weight(slot);
+        if (weight < 0) {
+          throw Dijkstra.negativeWeight();
+        }
+        if (weight > max && weight != Double.POSITIVE_INFINITY) {
+          max = weight;
+        }
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Assigns each reached node the first parent found by a BFS over arcs with
+   * {@code distance[u] + weight == distance[v]}; the relaxation that set {@code distance[v]}
+   * computed exactly that sum, so every reached node has such an arc.
+   */
+  private static int[] tightTree(AbstractCsrGraph csr, int source, double[] distances) {
+    int n = csr.nodeCount();
+    int[] parents = new int[n];
+    Arrays.fill(parents, -1);
+    boolean[] visited = new boolean[n];
+    int[] queue = new int[n];
+    int head = 0;
+    int tail = 0;
+    visited[source] = true;
+    queue[tail++] = source;
+    while (head < tail) {
+      int u = queue[head++];
+      double base = distances[u];
+      for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+        int v = csr.target(slot);
+        if (!visited[v] && base + csr.weight(slot) == distances[v]) {
+          visited[v] = true;
+          parents[v] = u;
+          queue[tail++] = v;
+        }
+      }
+    }
+    return parents;
+  }
+
+  private static final class Search {
+    final AbstractCsrGraph graph;
+    final double delta;
+    final ForkJoinPool pool;
+    final AtomicLongArray distances;
+    final IntList[] buckets;
+    final int[] frontierStamps;
+    final int[] removedStamps;
+    final int[] queuedStamps;
+    int round;
+
+    Search(AbstractCsrGraph graph, double delta, int bucketCount, ForkJoinPool pool) {
+      this.graph = graph;
+      this.delta = delta;
+      this.pool = pool;
+      int n = graph.nodeCount();
+      this.distances = new AtomicLongArray(n);
+      for (int v = 0; v < n; v++) {
+        distances.set(v, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+      }
+      this.buckets = new IntList[bucketCount];
+      this.frontierStamps = new int[n];
+      this.removedStamps = new int[n];
+      this.queuedStamps = new int[n];
+    }
+
+    double[] run(int source) {
+      distances.set(source, Double.doubleToRawLongBits(0.0));
+      bucket(0).add(source);
+      long pending = 1;
+      long current = 0;
+      IntList frontier = new IntList();
+      IntList removed = new IntList();
+
+      while (pending > 0) {
+        int slot = (int) (current % buckets.length);
+        while (buckets[slot] == null || buckets[slot].size == 0) {
+          current++;
+          slot = (int) (current % buckets.length);
+        }
+        removed.size = 0;
+        int bucketRound = ++round;
+        while (buckets[slot].size > 0) {
+          IntList entries = buckets[slot];
+          pending -= entries.size;
+          int frontierRound = ++round;
+          frontier.size = 0;
+          for (int i = 0; i < entries.size; i++) {
+            int v = entries.values[i];
+            if (frontierStamps[v] != frontierRound && bucketOf(distance(v)) == current) {
+              frontierStamps[v] = frontierRound;
+              frontier.add(v);
+              if (removedStamps[v] != bucketRound) {
+                removedStamps[v] = bucketRound;
+                removed.add(v);
+              }
+            }
+          }
+          entries.size = 0;
+          pending += distribute(relax(frontier, true));
+        }
+        pending += distribute(relax(removed, false));
+        current++;
+      }
+
+      double[] result = new double[distances.length()];
+      for (int v = 0; v < result.length; v++) {
+        result[v] = distance(v);
+      }
+      return result;
+    }
+
+    /**
+     * Puts every node whose distance dropped into the bucket of its current distance, once.
+     */
+    private int distribute(IntList changed) {
+      int queuedRound = ++round;
+      int added = 0;
+      for (int i = 0; i < changed.size; i++) {
+        int v = changed.values[i];
+        if (queuedStamps[v] != queuedRound) {
+          queuedStamps[v] = queuedRound;
+          bucket((int) (bucketOf(distance(v)) % buckets.length)).add(v);
+          added++;
+        }
+      }
+      return added;
+    }
+
+    /**
+     * Returns the bucket in {@code slot}, allocating it on first use; most slots of a wide bucket
+     * range are never filled.
+     */
+    private IntList bucket(int slot) {
+      IntList bucket = buckets[slot];
+      if (bucket == null) {
+        bucket = new IntList();
+        buckets[slot] = bucket;
+      }
+      return bucket;
+    }
+
+    private IntList relax(IntList nodes, boolean light) {
+      if (nodes.size <= GRAIN) {
+        return relaxRange(nodes.values, 0, nodes.size, light);
+      }
+      return pool.invoke(new RelaxTask(this, nodes.values, 0, nodes.size, light));
+    }
+
+    IntList relaxRange(int[] nodes, int from, int to, boolean light) {
+      IntList changed = new IntList();
+      for (int i = from; i < to; i++) {
+        int u = nodes[i];
+        double base = distance(u);
+        for (long slot = graph.firstSlot(u), end = graph.endSlot(u); slot < end; slot++) {
+          double weight = graph.weight(slot);
+          if ((weight <= delta) != light) {
+            continue;
+          }
+          int v = graph.target(slot);
+          if (lower(v, base + weight)) {
+            changed.add(v);
+          }
+        }
+      }
+      return changed;
+    }
+
+    private boolean lower(int v, double candidate) {
+      long bits = Double.doubleToRawLongBits(candidate);
+      while (true) {
+        long current = distances.get(v);
+        if (bits >= current) {
+          return false;
+        }
+        if (distances.compareAndSet(v, current, bits)) {
+          return true;
+        }
+      }
+    }
+
+    private double distance(int v) {
+      return Double.longBitsToDouble(distances.get(v));
+    }
+
+    private long bucketOf(double distance) {
+      return (long) (distance / delta);
+    }
+  }
+
+  private static final class RelaxTask extends RecursiveTask<IntList> {
+    private final Search search;
+    private final int[] nodes;
+    private final int from;
+    private final int to;
+    private final boolean light;
+
+    RelaxTask(Search search, int[] nodes, int from, int to, boolean light) {
+      this.search = search;
+      this.nodes = nodes;
+      this.from = from;
+      this.to = to;
+      this.light = light;
+    }
+
+    @Override
+    protected IntList compute() {
+      if (to - from <= GRAIN) {
+        return search.relaxRange(nodes, from, to, light);
+      }
+      int mid = (from + to) >>> 1;
+      RelaxTask right = new RelaxTask(search, nodes, mid, to, light);
+      right.fork();
+      IntList left = new RelaxTask(search, nodes, from, mid, light).compute();
+      left.addAll(right.join());
+      return left;
+    }
+  }
+
+  private static final class IntList {
+    int[] values = new int[16];
+    int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    void addAll(IntList other) {
+      if (size + other.size > values.length) {
+        values = Arrays.copyOf(values, Math.max(size + other.size, values.length * 2));
+      }
+      System.arraycopy(other.values, 0, values, size, other.size);
+      size += other.size;
+    }
+  }
+}
@@ -9,6 +9,13 @@ import java.util.PriorityQueue;
 
 /**
  * Utility class providing Dijkstra's single-source shortest path algorithm.
+ *
+ * <p>The priority queue is selected with a {@link QueueStrategy}. The default
+ * {@link QueueStrategy#PRIORITY_QUEUE} uses {@link PriorityQueue} with lazy deletion, which
+ * allocates an entry per relaxation and may hold O(E) entries. {@link QueueStrategy#INDEXED_HEAP}
+ * uses an {@link IndexedDaryHeap} with real decrease-key, so the queue never exceeds O(V) entries
+ * and no per-relaxation objects are created. Both strategies compute the same distances; when two
+ * shortest paths tie, they may pick different parents.
  */
 public final class Dijkstra {
 
@@ -16,7 +23,57 @@ public final class Dijkstra {
     // Utility class
   }
 
+  /**
+   * Arity used by {@link QueueStrategy#INDEXED_HEAP} unless one is passed explicitly.
+   */
+  public static final int DEFAULT_HEAP_ARITY = 4;
+
   public static Result compute(Graph graph, int source) {
+    return compute(graph, source, QueueStrategy.PRIORITY_QUEUE);
+  }
+
+  public static Result compute(Graph graph, int source, QueueStrategy strategy) {
+    return compute(graph, source, strategy, DEFAULT_HEAP_ARITY);
+  }
+
+  /**
+   * Computes single-source shortest paths with the given queue strategy.
+   *
+   * @param graph the graph to search
+   * @param source the source node
+   * @param strategy the priority queue implementation to use
+   * @param heapArity the arity of the indexed heap; ignored by {@link QueueStrategy#PRIORITY_QUEUE}
+   * @return the distance and parent arrays
+   */
+  public static Result compute(Graph graph, int source, QueueStrategy strategy, int heapArity) {
+    return switch (strategy) {
+      case PRIORITY_QUEUE -> computeWithPriorityQueue(graph, source, -1);
+      case INDEXED_HEAP -> computeWithIndexedHeap(graph, source, heapArity);
+    };
+  }
+
+  /**
+   * Runs Dijkstra from {@code source} and stops as soon as {@code target} is settled. The search
+   * order is the same as {@link #compute(Graph, int)}, so the path rebuilt with
+   * {@link #reconstructPath} is identical; only distances of settled nodes are final. Negative
+   * weights are only detected on edges that are scanned before the target is settled; see
+   * {@link #computeForTarget} for a search that rejects them like the full one.
+   */
+  public static Result computeToTarget(Graph graph, int source, int target) {
+    validateNode(target, graph.nodeCount());
+    return computeWithPriorityQueue(graph, source, target);
+  }
+
+  /**
+   * Returns the result {@link Graph#shortestPath} is built from. Graphs without negative weights
+   * stop at the target; otherwise the full search runs, so a negative weight reachable from
+   * {@code source} throws exactly as {@link #compute(Graph, int)} does.
+   */
+  static Result computeForTarget(Graph graph, int source, int target, boolean hasNegativeWeight) {
+    return hasNegativeWeight ? compute(graph, source) : computeToTarget(graph, source, target);
+  }
+
+  private static Result computeWithPriorityQueue(Graph graph, int source, int target) {
     int n = graph.nodeCount();
     validateNode(source, n);
 
@@ -38,10 +95,29 @@ public final class Dijkstra {
         continue;
       }
       settled[u] = true;
+      if (u == target) {
+        break;
+      }
 
+      if (graph instanceof AbstractCsrGraph csr) {
+        for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+          double weight = csr.weight(slot);
+          if (weight < 0) {
+            throw negativeWeight();
+          }
+          int v = csr.target(slot);
+          double candidate = distances[u] + weight;
+          if (candidate < distances[v]) {
+            distances[v] = candidate;
+            parents[v] = u;
+            queue.add(new NodeDistance(v, candidate));
+          }
+        }
+        continue;
+      }
       for (Edge edge : graph.adjacency(u)) {
         if (edge.weight() < 0) {
-          throw new IllegalArgumentException("Negative edge weights are not supported by Dijkstra's algorithm.");
+          throw negativeWeight();
         }
         int v = edge.to();
         double candidate = distances[u] + edge.weight();
@@ -56,6 +132,59 @@ public final class Dijkstra {
     return new Result(distances, parents);
   }
 
+  private static Result computeWithIndexedHeap(Graph graph, int source, int heapArity) {
+    int n = graph.nodeCount();
+    validateNode(source, n);
+
+    double[] distances = new double[n];
+    int[] parents = new int[n];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    Arrays.fill(parents, -1);
+
+    IndexedDaryHeap queue = new IndexedDaryHeap(n, heapArity);
+    distances[source] = 0.0;
+    queue.insert(source, 0.0);
+
+    if (graph instanceof AbstractCsrGraph csr) {
+      while (!queue.isEmpty()) {
+        int u = queue.poll();
+        double base = distances[u];
+        for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+          double weight = csr.weight(slot);
+          if (weight < 0) {
+            throw negativeWeight();
+          }
+          int v = csr.target(slot);
+          double candidate = base + weight;
+          if (candidate < distances[v]) {
+            distances[v] = candidate;
+            parents[v] = u;
+            queue.insertOrDecrease(v, candidate);
+          }
+        }
+      }
+      return new Result(distances, parents);
+    }
+
+    while (!queue.isEmpty()) {
+      int u = queue.poll();
+      double base = distances[u];
+      for (Edge edge : graph.adjacency(u)) {
+        if (edge.weight() < 0) {
+          throw negativeWeight();
+        }
+        int v = edge.to();
+        double candidate = base + edge.weight();
+        if (candidate < distances[v]) {
+          distances[v] = candidate;
+          parents[v] = u;
+          queue.insertOrDecrease(v, candidate);
+        }
+      }
+    }
+    return new Result(distances, parents);
+  }
+
   public static List<Integer> reconstructPath(int source, int target, Result result) {
     int[] parents = result.parents();
     validateNode(target, result.distances().length);
@@ -87,6 +216,20 @@ public final class Dijkstra {
   public record Result(double[] distances, int[] parents) {
   }
 
+  /**
+   * Priority queue implementations available to {@link #compute(Graph, int, QueueStrategy)}.
+   */
+  public enum QueueStrategy {
+    /** {@link PriorityQueue} of (node, distance) entries with lazy deletion of stale entries. */
+    PRIORITY_QUEUE,
+    /** {@link IndexedDaryHeap} over node ids with decrease-key. */
+    INDEXED_HEAP
+  }
+
+  static IllegalArgumentException negativeWeight() {
+    return new IllegalArgumentException("Negative edge weights are not supported by Dijkstra's algorithm.");
+  }
+
   private static void validateNode(int node, int size) {
     if (node < 0 || node >= size) {
       throw new IllegalArgumentException("Node " + node + " is out of bounds.");
@@ -0,0 +1,304 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A single-source shortest-path tree that stays up to date while its graph changes.
+ *
+ * <p>The tree subscribes to the graph as a {@link GraphListener} and repairs itself after every
+ * added or removed arc instead of rerunning Dijkstra, in the spirit of Ramalingam and Reps:
+ * <ul>
+ *   <li>An added arc that shortens the distance to its head starts a Dijkstra search from that
+ *   node which only visits nodes whose distance drops.</li>
+ *   <li>A removed tree arc first looks for another tight arc into its head from a strictly closer
+ *   node. If there is none, the subtree below the head is detached, each detached node takes its
+ *   best distance over arcs from the rest of the tree, and a Dijkstra search over the detached
+ *   nodes settles them.</li>
+ *   <li>Any other change leaves the tree untouched.</li>
+ * </ul>
+ * The work per update is thus proportional to the affected nodes and their arcs. Reverse
+ * adjacency is kept to find the arcs into detached nodes, which costs one {@link Edge} reference
+ * per arc.
+ *
+ * <p>While the graph has a negative edge weight, every query throws; the tree is recomputed once
+ * the last negative edge is gone. Like the graphs themselves, this class is not thread-safe, and
+ * {@link #close()} must be called to stop listening to a graph that outlives it.
+ */
+public final class DynamicShortestPaths implements AutoCloseable {
+
+  private final AbstractGraph graph;
+  private final int source;
+  private final double[] distances;
+  private final int[] parents;
+  private final List<List<Edge>> incoming;
+  private final IndexedDaryHeap queue;
+  private final int[] affected;
+  private final int[] stamps;
+  private final GraphListener listener = new Listener();
+  private int epoch;
+  private int negativeEdges;
+  private boolean stale;
+  private long updates;
+  private long repairedNodes;
+
+  /**
+   * Computes the shortest-path tree of {@code source} and starts following changes to
+   * {@code graph}.
+   *
+   * @throws IllegalArgumentException if {@code source} is out of bounds or the graph has a
+   *     negative edge weight
+   */
+  public DynamicShortestPaths(AbstractGraph graph, int source) {
+    graph.checkNode(source);
+    this.graph = graph;
+    this.source = source;
+    int n = graph.nodeCount();
+    this.distances = new double[n];
+    this.parents = new int[n];
+    this.incoming = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      incoming.add(new ArrayList<>());
+    }
+    for (List<Edge> edges : graph.adjList) {
+      for (Edge edge : edges) {
+        if (edge.weight() < 0) {
+          throw Dijkstra.negativeWeight();
+        }
+        incoming.get(edge.to()).add(edge);
+      }
+    }
+    this.queue = new IndexedDaryHeap(n, Dijkstra.DEFAULT_HEAP_ARITY);
+    this.affected = new int[n];
+    this.stamps = new int[n];
+    recompute();
+    graph.addGraphListener(listener);
+  }
+
+  public int source() {
+    return source;
+  }
+
+  /**
+   * Returns the current shortest distance to {@code node}, or {@link Double#POSITIVE_INFINITY} if
+   * it is unreachable.
+   */
+  public double distance(int node) {
+    graph.checkNode(node);
+    ensureCurrent();
+    return distances[node];
+  }
+
+  /**
+   * Returns the predecessor of {@code node} in the current tree, or -1 for the source and
+   * unreachable nodes.
+   */
+  public int parent(int node) {
+    graph.checkNode(node);
+    ensureCurrent();
+    return parents[node];
+  }
+
+  /**
+   * Returns a copy of the current distances, indexed by node.
+   */
+  public double[] distances() {
+    ensureCurrent();
+    return distances.clone();
+  }
+
+  /**
+   * Returns a copy of the current parents, indexed by node.
+   */
+  public int[] parents() {
+    ensureCurrent();
+    return parents.clone();
+  }
+
+  /**
+   * Returns a snapshot of the current tree in the form {@link Dijkstra#compute} produces.
+   */
+  public Dijkstra.Result result() {
+    ensureCurrent();
+    return new Dijkstra.Result(distances.clone(), parents.clone());
+  }
+
+  /**
+   * Returns a shortest path from the source to {@code target}, or an empty list if there is none.
+   */
+  public List<Integer> pathTo(int target) {
+    graph.checkNode(target);
+    ensureCurrent();
+    return Dijkstra.reconstructPath(source, target, new Dijkstra.Result(distances, parents));
+  }
+
+  /**
+   * Returns the number of arc additions and removals seen so far.
+   */
+  public long updates() {
+    return updates;
+  }
+
+  /**
+   * Returns the number of nodes settled by repairs so far, excluding full recomputations. Compare
+   * with {@code updates() * nodeCount()} for the work a rerun of Dijkstra per update would do.
+   */
+  public long repairedNodes() {
+    return repairedNodes;
+  }
+
+  /**
+   * Stops following the graph. The last tree stays readable but is no longer updated.
+   */
+  @Override
+  public void close() {
+    graph.removeGraphListener(listener);
+  }
+
+  private void ensureCurrent() {
+    if (negativeEdges > 0) {
+      throw Dijkstra.negativeWeight();
+    }
+    if (stale) {
+      recompute();
+    }
+  }
+
+  private void recompute() {
+    Dijkstra.Result result = Dijkstra.compute(graph, source, Dijkstra.QueueStrategy.INDEXED_HEAP);
+    System.arraycopy(result.distances(), 0, distances, 0, distances.length);
+    System.arraycopy(result.parents(), 0, parents, 0, parents.length);
+    stale = false;
+  }
+
+  private void edgeAdded(Edge edge) {
+    int u = edge.from();
+    int v = edge.to();
+    double candidate = distances[u] + edge.weight();
+    if (candidate < distances[v]) {
+      distances[v] = candidate;
+      parents[v] = u;
+      queue.insert(v, candidate);
+      settle();
+    }
+  }
+
+  private void edgeRemoved(Edge edge) {
+    int u = edge.from();
+    int v = edge.to();
+    if (parents[v] != u) {
+      return;
+    }
+    // Another tight arc from a strictly closer node cannot come from v's own subtree.
+    double distance = distances[v];
+    for (Edge in : incoming.get(v)) {
+      int w = in.from();
+      if (distances[w] < distance && distances[w] + in.weight() == distance) {
+        parents[v] = w;
+        return;
+      }
+    }
+
+    int stamp = nextEpoch();
+    int count = 0;
+    affected[count++] = v;
+    stamps[v] = stamp;
+    for (int i = 0; i < count; i++) {
+      int x = affected[i];
+      for (Edge out : graph.adjList.get(x)) {
+        int y = out.to();
+        if (parents[y] == x && stamps[y] != stamp) {
+          stamps[y] = stamp;
+          affected[count++] = y;
+        }
+      }
+    }
+    for (int i = 0; i < count; i++) {
+      distances[affected[i]] = Double.POSITIVE_INFINITY;
+      parents[affected[i]] = -1;
+    }
+    for (int i = 0; i < count; i++) {
+      int x = affected[i];
+      double best = Double.POSITIVE_INFINITY;
+      int bestParent = -1;
+      for (Edge in : incoming.get(x)) {
+        double candidate = distances[in.from()] + in.weight();
+        if (candidate < best) {
+          best = candidate;
+          bestParent = in.from();
+        }
+      }
+      if (bestParent >= 0) {
+        distances[x] = best;
+        parents[x] = bestParent;
+        queue.insert(x, best);
+      }
+    }
+    settle();
+  }
+
+  private void settle() {
+    while (!queue.isEmpty()) {
+      int u = queue.poll();
+      repairedNodes++;
+      double base = distances[u];
+      for (Edge edge : graph.adjList.get(u)) {
+        int v = edge.to();
+        double candidate = base + edge.weight();
+        if (candidate < distances[v]) {
+          distances[v] = candidate;
+          parents[v] = u;
+          queue.insertOrDecrease(v, candidate);
+        }
+      }
+    }
+  }
+
+  private int nextEpoch() {
+    if (++epoch == 0) {
+      Arrays.fill(stamps, 0);
+      epoch = 1;
+    }
+    return epoch;
+  }
+
+  private static void removeIncoming(List<Edge> edges, Edge edge) {
+    for (int i = 0; i < edges.size(); i++) {
+      Edge candidate = edges.get(i);
+      if (candidate.from() == edge.from() && Double.compare(candidate.weight(), edge.weight()) == 0) {
+        Edge last = edges.remove(edges.size() - 1);
+        if (i < edges.size()) {
+          edges.set(i, last);
+        }
+        return;
+      }
+    }
+  }
+
+  private final class Listener implements GraphListener {
+
+    @Override
+    public void edgeAdded(Edge edge) {
+      updates++;
+      incoming.get(edge.to()).add(edge);
+      if (edge.weight() < 0) {
+        negativeEdges++;
+        stale = true;
+      } else if (!stale) {
+        DynamicShortestPaths.this.edgeAdded(edge);
+      }
+    }
+
+    @Override
+    public void edgeRemoved(Edge edge) {
+      updates++;
+      removeIncoming(incoming.get(edge.to()), edge);
+      if (edge.weight() < 0) {
+        negativeEdges--;
+      } else if (!stale) {
+        DynamicShortestPaths.this.edgeRemoved(edge);
+      }
+    }
+  }
+}
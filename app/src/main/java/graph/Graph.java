@@ -1,5 +1,7 @@
 package graph;
 
+import java.util.OptionalDouble;
+
 /**
  * Interface representing a graph data structure.
  */
@@ -14,6 +16,37 @@ public interface Graph {
 
   int degree(int u);
 
+  /**
+   * Returns whether there is an edge {@code u -> v}. Linear in the degree of {@code u} unless the
+   * implementation indexes its adjacency.
+   */
+  default boolean hasEdge(int u, int v) {
+    checkNodes(u, v);
+    for (Edge edge : adjacency(u)) {
+      if (edge.to() == v) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the weight of the edge {@code u -> v}, the smallest one if there are parallel edges,
+   * or an empty optional if there is none.
+   */
+  default OptionalDouble edgeWeight(int u, int v) {
+    checkNodes(u, v);
+    double min = Double.POSITIVE_INFINITY;
+    boolean found = false;
+    for (Edge edge : adjacency(u)) {
+      if (edge.to() == v && (!found || edge.weight() < min)) {
+        min = edge.weight();
+        found = true;
+      }
+    }
+    return found ? OptionalDouble.of(min) : OptionalDouble.empty();
+  }
+
   Iterable<Integer> nodes();
   Iterable<Edge> edges();
   Iterable<Edge> adjacency(int u);
@@ -21,9 +54,32 @@ public interface Graph {
   Iterable<Integer> bfs(int start);
   Iterable<Integer> dfs(int start);
 
+  /**
+   * Allocation-free variant of {@link #bfs(int)}; see {@link Traversals#bfs}.
+   */
+  default int bfs(int start, TraversalContext context, NodeVisitor visitor) {
+    return Traversals.bfs(this, start, context, visitor);
+  }
+
+  /**
+   * Allocation-free variant of {@link #dfs(int)}; see {@link Traversals#dfs}.
+   */
+  default int dfs(int start, TraversalContext context, NodeVisitor visitor) {
+    return Traversals.dfs(this, start, context, visitor);
+  }
+
   boolean hasPath(int source, int target);
   Iterable<Integer> path(int source, int target);
 
   double[] shortestDistances(int source);
   Iterable<Integer> shortestPath(int source, int target);
+
+  private void checkNodes(int u, int v) {
+    if (u < 0 || u >= nodeCount()) {
+      throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+    }
+    if (v < 0 || v >= nodeCount()) {
+      throw new IllegalArgumentException("Node " + v + " is out of bounds.");
+    }
+  }
 }
@@ -0,0 +1,545 @@
+package graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Binary persistence for graphs and parallel importers for text edge lists.
+ *
+ * <p>The binary format is little-endian CSR:
+ * <pre>
+ *   header   int magic "GCSR", int version, int flags (bit 0 = directed), int nodes,
+ *            long edges, long arcs                                    (32 bytes)
+ *   offsets  long[nodes + 1], arcs of node u are [offsets[u], offsets[u + 1])
+ *   targets  int[arcs], padded to a multiple of 8 bytes
+ *   weights  double[arcs]
+ * </pre>
+ * Undirected edges are stored once per direction, like {@link CsrGraph}. {@link #write} streams
+ * any graph through a small buffer, and {@link #map} opens a file as a {@link MappedGraph}
+ * without reading it.
+ */
+public final class GraphFiles {
+
+  private GraphFiles() {
+    // Utility class
+  }
+
+  static final int MAGIC = 0x52534347;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  private static final int FLAG_DIRECTED = 1;
+  private static final int WRITE_BUFFER_BYTES = 1 << 20;
+  private static final long IMPORT_CHUNK_BYTES = 8L << 20;
+  private static final int MAX_LINE_BYTES = 1 << 16;
+
+  /**
+   * Writes {@code graph} to {@code file}, replacing it. Memory use does not depend on the graph
+   * size. A {@link ConcurrentGraph} is written from a snapshot.
+   */
+  public static void write(Graph graph, Path file) throws IOException {
+    Objects.requireNonNull(graph, "graph");
+    if (graph instanceof ConcurrentGraph concurrent) {
+      graph = concurrent.snapshot();
+    }
+    int n = graph.nodeCount();
+    long arcs = 0;
+    for (int u = 0; u < n; u++) {
+      arcs += graph.degree(u);
+    }
+    try (Output out = new Output(file)) {
+      out.putInt(MAGIC);
+      out.putInt(VERSION);
+      out.putInt(graph.isDirected() ? FLAG_DIRECTED : 0);
+      out.putInt(n);
+      out.putLong(graph instanceof AbstractCsrGraph csr ? csr.longEdgeCount() : graph.edgeCount());
+      out.putLong(arcs);
+
+      long offset = 0;
+      out.putLong(offset);
+      for (int u = 0; u < n; u++) {
+        offset += graph.degree(u);
+        out.putLong(offset);
+      }
+      if (graph instanceof AbstractCsrGraph csr) {
+        for (int u = 0; u < n; u++) {
+          for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+            out.putInt(csr.target(slot));
+          }
+        }
+        out.padTo8();
+        for (int u = 0; u < n; u++) {
+          for (long slot = csr.firstSlot(u), end = csr.endSlot(u); slot < end; slot++) {
+            out.putDouble(csr.weight(slot));
+          }
+        }
+      } else {
+        for (int u = 0; u < n; u++) {
+          for (Edge edge : graph.adjacency(u)) {
+            out.putInt(edge.to());
+          }
+        }
+        out.padTo8();
+        for (int u = 0; u < n; u++) {
+          for (Edge edge : graph.adjacency(u)) {
+            out.putDouble(edge.weight());
+          }
+        }
+      }
+      if (out.written() != fileSize(n, arcs)) {
+        throw new IllegalStateException("Graph changed while it was being written.");
+      }
+    }
+  }
+
+  /**
+   * Memory-maps a file written by {@link #write}.
+   */
+  public static MappedGraph map(Path file) throws IOException {
+    return map(file, MappedGraph.DEFAULT_CHUNK_SHIFT);
+  }
+
+  static MappedGraph map(Path file, int chunkShift) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      Header header = readHeader(channel, file);
+      if (header.edges() > Integer.MAX_VALUE) {
+        throw new IOException("Too many edges for MappedGraph in " + file + "; use OffHeapGraph.map");
+      }
+      return new MappedGraph(channel, header.nodes(), (int) header.edges(), header.arcs(), header.directed(),
+          chunkShift);
+    }
+  }
+
+  /**
+   * Reads and validates the header of a graph file, including that the file is long enough.
+   */
+  static Header readHeader(FileChannel channel, Path file) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        throw new IOException("Truncated graph header in " + file);
+      }
+    }
+    header.flip();
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a graph file: " + file);
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported graph file version " + version + " in " + file);
+    }
+    boolean directed = (header.getInt() & FLAG_DIRECTED) != 0;
+    int nodes = header.getInt();
+    long edges = header.getLong();
+    long arcs = header.getLong();
+    if (nodes < 0 || edges < 0 || arcs < 0) {
+      throw new IOException("Corrupt graph header in " + file);
+    }
+    if (channel.size() < fileSize(nodes, arcs)) {
+      throw new IOException("Truncated graph file " + file);
+    }
+    return new Header(directed, nodes, edges, arcs);
+  }
+
+  static long targetsStart(int nodes) {
+    return HEADER_BYTES + (nodes + 1L) * Long.BYTES;
+  }
+
+  static long weightsStart(int nodes, long arcs) {
+    return align8(targetsStart(nodes) + arcs * Integer.BYTES);
+  }
+
+  /**
+   * Imports a SNAP-style edge list: one {@code from to [weight]} line per edge, separated by
+   * spaces or tabs, with {@code #} or {@code %} comment lines. Node ids are non-negative and the
+   * graph gets {@code maxId + 1} nodes. Missing weights default to 1. Undirected self-loops are
+   * skipped. The file is split into chunks that are parsed in parallel; edge order is preserved.
+   */
+  public static CsrGraph importEdgeList(Path file, boolean directed) throws IOException {
+    return importText(file, directed, false, IMPORT_CHUNK_BYTES);
+  }
+
+  static CsrGraph importEdgeList(Path file, boolean directed, long chunkBytes) throws IOException {
+    return importText(file, directed, false, chunkBytes);
+  }
+
+  /**
+   * Imports a DIMACS shortest-path file ({@code .gr}): a {@code p sp <nodes> <arcs>} line and one
+   * {@code a <from> <to> <weight>} line per arc, with 1-based node ids. The result is directed.
+   */
+  public static CsrGraph importDimacs(Path file) throws IOException {
+    return importText(file, true, true, IMPORT_CHUNK_BYTES);
+  }
+
+  static long align8(long position) {
+    return (position + 7) & ~7L;
+  }
+
+  private static long fileSize(int nodes, long arcs) {
+    return weightsStart(nodes, arcs) + arcs * Double.BYTES;
+  }
+
+  /**
+   * The fixed-size header of a graph file.
+   */
+  record Header(boolean directed, int nodes, long edges, long arcs) {
+  }
+
+  private static CsrGraph importText(Path file, boolean directed, boolean dimacs, long chunkBytes)
+      throws IOException {
+    List<EdgeChunk> chunks;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      int count = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+      try {
+        chunks = IntStream.range(0, count).parallel()
+            .mapToObj(i -> parseChunk(channel, size, i * chunkBytes,
+                Math.min(size, (i + 1) * chunkBytes), directed, dimacs))
+            .toList();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+
+    long total = 0;
+    int maxNode = -1;
+    int declaredNodes = -1;
+    for (EdgeChunk chunk : chunks) {
+      total += chunk.size;
+      maxNode = Math.max(maxNode, chunk.maxNode);
+      declaredNodes = Math.max(declaredNodes, chunk.declaredNodes);
+    }
+    int nodes;
+    if (dimacs) {
+      if (declaredNodes < 0) {
+        throw new IOException("Missing 'p sp' line in " + file);
+      }
+      if (maxNode >= declaredNodes) {
+        throw new IOException("Node " + (maxNode + 1) + " exceeds the declared node count in " + file);
+      }
+      nodes = declaredNodes;
+    } else {
+      nodes = maxNode + 1;
+    }
+    if (total > Integer.MAX_VALUE - 8) {
+      throw new IOException("Too many edges to import into a CsrGraph: " + total);
+    }
+    int[] from = new int[(int) total];
+    int[] to = new int[(int) total];
+    double[] weight = new double[(int) total];
+    int at = 0;
+    for (EdgeChunk chunk : chunks) {
+      System.arraycopy(chunk.from, 0, from, at, chunk.size);
+      System.arraycopy(chunk.to, 0, to, at, chunk.size);
+      System.arraycopy(chunk.weight, 0, weight, at, chunk.size);
+      at += chunk.size;
+    }
+    return CsrGraph.build(nodes, directed, from, to, weight, at);
+  }
+
+  /**
+   * Parses the lines that start in {@code [start, end)}; the last one may run past {@code end}.
+   */
+  private static EdgeChunk parseChunk(FileChannel channel, long fileSize, long start, long end,
+      boolean directed, boolean dimacs) {
+    try {
+      long mapStart = Math.max(0, start - 1);
+      long mapEnd = Math.min(fileSize, end + MAX_LINE_BYTES);
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+      Parser parser = new Parser(buffer, mapStart, (int) (end - mapStart), mapEnd == fileSize);
+      if (start > 0) {
+        parser.skipLine();
+      }
+      EdgeChunk chunk = new EdgeChunk();
+      while (parser.hasLineStart()) {
+        parser.parseLine(chunk, directed, dimacs);
+      }
+      return chunk;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class EdgeChunk {
+    int[] from = new int[1024];
+    int[] to = new int[1024];
+    double[] weight = new double[1024];
+    int size;
+    int maxNode = -1;
+    int declaredNodes = -1;
+
+    void add(int u, int v, double w) {
+      if (size == from.length) {
+        int capacity = Math.addExact(size, size >> 1);
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+      }
+      from[size] = u;
+      to[size] = v;
+      weight[size] = w;
+      size++;
+      maxNode = Math.max(maxNode, Math.max(u, v));
+    }
+  }
+
+  /**
+   * A byte-level line parser over one mapped chunk. Positions are relative to the mapping.
+   */
+  private static final class Parser {
+    private final MappedByteBuffer buffer;
+    private final long base;
+    private final int limit;
+    private final int end;
+    private final boolean reachesEndOfFile;
+    private int position;
+    private int lineStart;
+
+    Parser(MappedByteBuffer buffer, long base, int end, boolean reachesEndOfFile) {
+      this.buffer = buffer;
+      this.base = base;
+      this.limit = buffer.limit();
+      this.end = end;
+      this.reachesEndOfFile = reachesEndOfFile;
+    }
+
+    boolean hasLineStart() {
+      return position < end && position < limit;
+    }
+
+    /**
+     * Moves past the line that contains the first mapped byte, unless that byte ends the
+     * previous chunk's last line.
+     */
+    void skipLine() {
+      if (buffer.get(0) == '\n') {
+        position = 1;
+        return;
+      }
+      while (position < limit && buffer.get(position) != '\n') {
+        position++;
+      }
+      position++;
+    }
+
+    void parseLine(EdgeChunk chunk, boolean directed, boolean dimacs) throws IOException {
+      lineStart = position;
+      skipBlanks();
+      if (atLineEnd()) {
+        finishLine();
+        return;
+      }
+      byte first = buffer.get(position);
+      if (dimacs) {
+        if (first == 'p') {
+          position++;
+          nextToken();
+          long nodes = parseLong();
+          if (nodes < 0 || nodes > Integer.MAX_VALUE) {
+            throw malformed();
+          }
+          chunk.declaredNodes = (int) nodes;
+        } else if (first == 'a') {
+          position++;
+          long u = parseLong() - 1;
+          long v = parseLong() - 1;
+          double w = parseWeight();
+          if (u < 0 || v < 0 || u >= Integer.MAX_VALUE || v >= Integer.MAX_VALUE) {
+            throw malformed();
+          }
+          chunk.add((int) u, (int) v, w);
+        }
+      } else if (first != '#' && first != '%') {
+        long u = parseLong();
+        long v = parseLong();
+        skipBlanks();
+        double w = atLineEnd() ? 1.0 : parseWeight();
+        if (u < 0 || v < 0 || u >= Integer.MAX_VALUE || v >= Integer.MAX_VALUE) {
+          throw malformed();
+        }
+        if (directed || u != v) {
+          chunk.add((int) u, (int) v, w);
+        }
+      }
+      finishLine();
+    }
+
+    private void finishLine() throws IOException {
+      while (position < limit && buffer.get(position) != '\n') {
+        position++;
+      }
+      if (position >= limit && !reachesEndOfFile) {
+        throw new IOException("Line longer than " + MAX_LINE_BYTES + " bytes at byte offset " + (base + lineStart));
+      }
+      position++;
+    }
+
+    private void skipBlanks() {
+      while (position < limit) {
+        byte b = buffer.get(position);
+        if (b != ' ' && b != '\t' && b != ',') {
+          return;
+        }
+        position++;
+      }
+    }
+
+    private boolean atLineEnd() {
+      if (position >= limit) {
+        return true;
+      }
+      byte b = buffer.get(position);
+      return b == '\n' || b == '\r';
+    }
+
+    private void nextToken() {
+      skipBlanks();
+      while (!atLineEnd()) {
+        byte b = buffer.get(position);
+        if (b == ' ' || b == '\t') {
+          return;
+        }
+        position++;
+      }
+    }
+
+    private long parseLong() throws IOException {
+      skipBlanks();
+      boolean negative = false;
+      if (position < limit && buffer.get(position) == '-') {
+        negative = true;
+        position++;
+      }
+      int digits = 0;
+      long value = 0;
+      while (position < limit) {
+        byte b = buffer.get(position);
+        if (b < '0' || b > '9') {
+          break;
+        }
+        value = value * 10 + (b - '0');
+        position++;
+        if (++digits > 18) {
+          throw malformed();
+        }
+      }
+      if (digits == 0) {
+        throw malformed();
+      }
+      return negative ? -value : value;
+    }
+
+    private double parseWeight() throws IOException {
+      skipBlanks();
+      int tokenStart = position;
+      boolean integral = true;
+      while (!atLineEnd()) {
+        byte b = buffer.get(position);
+        if (b == ' ' || b == '\t' || b == ',') {
+          break;
+        }
+        if ((b < '0' || b > '9') && !(b == '-' && position == tokenStart)) {
+          integral = false;
+        }
+        position++;
+      }
+      int length = position - tokenStart;
+      if (length == 0) {
+        throw malformed();
+      }
+      if (integral && length <= 18) {
+        position = tokenStart;
+        return parseLong();
+      }
+      byte[] token = new byte[length];
+      buffer.get(tokenStart, token);
+      try {
+        return Double.parseDouble(new String(token, StandardCharsets.US_ASCII));
+      } catch (NumberFormatException e) {
+        throw malformed();
+      }
+    }
+
+    private IOException malformed() {
+      return new IOException("Malformed edge line at byte offset " + (base + lineStart));
+    }
+  }
+
+  /**
+   * Buffered little-endian writer over a {@link FileChannel}.
+   */
+  private static final class Output implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long written;
+
+    Output(Path file) throws IOException {
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void putInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+      written += Integer.BYTES;
+    }
+
+    void putLong(long value) throws IOException {
+      ensure(Long.BYTES);
+      buffer.putLong(value);
+      written += Long.BYTES;
+    }
+
+    void putDouble(double value) throws IOException {
+      ensure(Double.BYTES);
+      buffer.putDouble(value);
+      written += Double.BYTES;
+    }
+
+    void padTo8() throws IOException {
+      while ((written & 7) != 0) {
+        ensure(1);
+        buffer.put((byte) 0);
+        written++;
+      }
+    }
+
+    long written() {
+      return written;
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package graph;
+
+/**
+ * Receives the adjacency changes of an {@link AbstractGraph}.
+ *
+ * <p>Events are reported per adjacency entry after the entry has been added or removed, so an
+ * undirected edge produces one event per direction and a listener may see the graph between the
+ * two. Listeners run on the mutating thread and must not modify the graph.
+ */
+public interface GraphListener {
+
+  /**
+   * Called after the arc {@code edge.from() -> edge.to()} has been added.
+   */
+  void edgeAdded(Edge edge);
+
+  /**
+   * Called after the arc {@code edge.from() -> edge.to()} with {@code edge.weight()} has been
+   * removed.
+   */
+  void edgeRemoved(Edge edge);
+}
@@ -0,0 +1,74 @@
+package graph;
+
+import java.util.Objects;
+
+/**
+ * Estimates the remaining distance from a node to a target for {@link AStar}.
+ *
+ * <p>An estimate must never exceed the true shortest distance (admissible) for A* to return
+ * shortest paths. The coordinate-based factories below are admissible as long as every edge
+ * weight is at least the straight-line (or great-circle) distance between its endpoints, in the
+ * same unit.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+  /**
+   * Mean Earth radius in meters, used by {@link #haversine}.
+   */
+  double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  double estimate(int node, int target);
+
+  /**
+   * Returns the heuristic that always estimates zero, which turns A* into Dijkstra.
+   */
+  static Heuristic zero() {
+    return (node, target) -> 0.0;
+  }
+
+  /**
+   * Straight-line distance between planar node coordinates {@code (xs[u], ys[u])}.
+   */
+  static Heuristic euclidean(double[] xs, double[] ys) {
+    checkCoordinates(xs, ys);
+    return (node, target) -> Math.hypot(xs[node] - xs[target], ys[node] - ys[target]);
+  }
+
+  /**
+   * Great-circle distance in meters between node coordinates given in degrees.
+   */
+  static Heuristic haversine(double[] latitudes, double[] longitudes) {
+    return haversine(latitudes, longitudes, EARTH_RADIUS_METERS);
+  }
+
+  /**
+   * Great-circle distance between node coordinates given in degrees, on a sphere of the given
+   * radius. Pass a radius in the unit of the edge weights, e.g. kilometers.
+   */
+  static Heuristic haversine(double[] latitudes, double[] longitudes, double radius) {
+    checkCoordinates(latitudes, longitudes);
+    double[] lat = new double[latitudes.length];
+    double[] cosLat = new double[latitudes.length];
+    double[] lon = new double[longitudes.length];
+    for (int i = 0; i < lat.length; i++) {
+      lat[i] = Math.toRadians(latitudes[i]);
+      cosLat[i] = Math.cos(lat[i]);
+      lon[i] = Math.toRadians(longitudes[i]);
+    }
+    return (node, target) -> {
+      double sinLat = Math.sin((lat[target] - lat[node]) / 2);
+      double sinLon = Math.sin((lon[target] - lon[node]) / 2);
+      double a = sinLat * sinLat + cosLat[node] * cosLat[target] * sinLon * sinLon;
+      return 2 * radius * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    };
+  }
+
+  private static void checkCoordinates(double[] first, double[] second) {
+    Objects.requireNonNull(first, "coordinates");
+    Objects.requireNonNull(second, "coordinates");
+    if (first.length != second.length) {
+      throw new IllegalArgumentException("Coordinate arrays must have the same length.");
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed d-ary min-heap over the node ids {@code 0 .. capacity - 1} with {@code double} keys.
+ *
+ * <p>Each node is in the heap at most once, and {@link #decreaseKey} moves it in place, so the
+ * heap never holds more than {@code capacity} entries and allocates nothing after construction.
+ * Sifting moves a hole instead of swapping. Larger arities make the heap shallower, which cheapens
+ * decrease-key at the cost of more comparisons per {@link #poll()}; 4 is a good default for
+ * Dijkstra on sparse graphs.
+ */
+public final class IndexedDaryHeap {
+
+  private final int arity;
+  private final int[] heap;
+  private final int[] positions;
+  private final double[] keys;
+  private int size;
+
+  public IndexedDaryHeap(int capacity, int arity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+    }
+    if (arity < 2) {
+      throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+    }
+    this.arity = arity;
+    this.heap = new int[capacity];
+    this.positions = new int[capacity];
+    this.keys = new double[capacity];
+    Arrays.fill(positions, -1);
+  }
+
+  public int arity() {
+    return arity;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean contains(int node) {
+    checkNode(node);
+    return positions[node] >= 0;
+  }
+
+  /**
+   * Returns the current key of {@code node}, which must be in the heap.
+   */
+  public double key(int node) {
+    if (!contains(node)) {
+      throw new NoSuchElementException("Node " + node + " is not in the heap.");
+    }
+    return keys[node];
+  }
+
+  public void insert(int node, double key) {
+    if (contains(node)) {
+      throw new IllegalArgumentException("Node " + node + " is already in the heap.");
+    }
+    keys[node] = key;
+    siftUp(size++, node);
+  }
+
+  /**
+   * Lowers the key of {@code node}, which must be in the heap, to {@code key}.
+   */
+  public void decreaseKey(int node, double key) {
+    if (!contains(node)) {
+      throw new NoSuchElementException("Node " + node + " is not in the heap.");
+    }
+    if (key > keys[node]) {
+      throw new IllegalArgumentException("New key " + key + " is larger than current key " + keys[node] + ".");
+    }
+    keys[node] = key;
+    siftUp(positions[node], node);
+  }
+
+  /**
+   * Inserts {@code node} or lowers its key, whichever applies. Returns {@code false} if the node
+   * is already queued with a key that is not larger than {@code key}.
+   */
+  public boolean insertOrDecrease(int node, double key) {
+    checkNode(node);
+    int position = positions[node];
+    if (position < 0) {
+      keys[node] = key;
+      siftUp(size++, node);
+      return true;
+    }
+    if (key >= keys[node]) {
+      return false;
+    }
+    keys[node] = key;
+    siftUp(position, node);
+    return true;
+  }
+
+  /**
+   * Sets the key of {@code node}, which must be in the heap, moving it up or down as needed.
+   */
+  public void changeKey(int node, double key) {
+    if (!contains(node)) {
+      throw new NoSuchElementException("Node " + node + " is not in the heap.");
+    }
+    double old = keys[node];
+    keys[node] = key;
+    if (key < old) {
+      siftUp(positions[node], node);
+    } else {
+      siftDown(positions[node], node);
+    }
+  }
+
+  public int peek() {
+    if (size == 0) {
+      throw new NoSuchElementException("Heap is empty.");
+    }
+    return heap[0];
+  }
+
+  /**
+   * Removes and returns the node with the smallest key.
+   */
+  public int poll() {
+    if (size == 0) {
+      throw new NoSuchElementException("Heap is empty.");
+    }
+    int min = heap[0];
+    positions[min] = -1;
+    size--;
+    if (size > 0) {
+      siftDown(0, heap[size]);
+    }
+    return min;
+  }
+
+  /**
+   * Empties the heap. Runs in time proportional to the number of queued nodes.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      positions[heap[i]] = -1;
+    }
+    size = 0;
+  }
+
+  private void siftUp(int hole, int node) {
+    double key = keys[node];
+    while (hole > 0) {
+      int parent = (hole - 1) / arity;
+      int parentNode = heap[parent];
+      if (keys[parentNode] <= key) {
+        break;
+      }
+      heap[hole] = parentNode;
+      positions[parentNode] = hole;
+      hole = parent;
+    }
+    heap[hole] = node;
+    positions[node] = hole;
+  }
+
+  private void siftDown(int hole, int node) {
+    double key = keys[node];
+    while (true) {
+      int first = hole * arity + 1;
+      if (first >= size) {
+        break;
+      }
+      int last = Math.min(first + arity, size);
+      int best = first;
+      double bestKey = keys[heap[first]];
+      for (int child = first + 1; child < last; child++) {
+        double childKey = keys[heap[child]];
+        if (childKey < bestKey) {
+          best = child;
+          bestKey = childKey;
+        }
+      }
+      if (bestKey >= key) {
+        break;
+      }
+      int bestNode = heap[best];
+      heap[hole] = bestNode;
+      positions[bestNode] = hole;
+      hole = best;
+    }
+    heap[hole] = node;
+    positions[node] = hole;
+  }
+
+  private void checkNode(int node) {
+    if (node < 0 || node >= positions.length) {
+      throw new IllegalArgumentException("Node " + node + " is out of bounds.");
+    }
+  }
+}
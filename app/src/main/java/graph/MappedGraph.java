@@ -0,0 +1,117 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An immutable graph served directly from a memory-mapped file in the {@link GraphFiles} format.
+ *
+ * <p>Offsets, targets and weights are read from the page cache on demand, so opening a graph
+ * costs a few {@code mmap} calls regardless of its size and nothing is copied onto the heap.
+ * Each section is mapped in chunks of at most 1 GiB because a single {@link MappedByteBuffer} is
+ * limited to 2 GiB; slots are {@code long}s so graphs with more than 2^31 arcs can be addressed.
+ * Instances are safe for concurrent reads. The mapping stays valid until the graph is garbage
+ * collected.
+ */
+public final class MappedGraph extends AbstractCsrGraph {
+
+  static final int DEFAULT_CHUNK_SHIFT = 30;
+
+  private final long arcs;
+  private final LongBuffer[] offsets;
+  private final IntBuffer[] targets;
+  private final DoubleBuffer[] weights;
+  private final int longShift;
+  private final int intShift;
+
+  MappedGraph(FileChannel channel, int nodes, int edges, long arcs, boolean directed, int chunkShift)
+      throws IOException {
+    super(nodes, edges, directed);
+    this.arcs = arcs;
+    this.longShift = chunkShift - 3;
+    this.intShift = chunkShift - 2;
+    this.offsets = mapLongs(channel, GraphFiles.HEADER_BYTES, nodes + 1L, chunkShift);
+    this.targets = mapInts(channel, GraphFiles.targetsStart(nodes), arcs, chunkShift);
+    this.weights = mapDoubles(channel, GraphFiles.weightsStart(nodes, arcs), arcs, chunkShift);
+  }
+
+  /**
+   * Returns the number of stored arcs; undirected edges count twice.
+   */
+  public long arcCount() {
+    return arcs;
+  }
+
+  @Override
+  protected long firstSlot(int u) {
+    return offset(u);
+  }
+
+  @Override
+  protected long endSlot(int u) {
+    return offset(u + 1);
+  }
+
+  @Override
+  protected int target(long slot) {
+    return targets[(int) (slot >>> intShift)].get((int) (slot & ((1L << intShift) - 1)));
+  }
+
+  @Override
+  protected double weight(long slot) {
+    return weights[(int) (slot >>> longShift)].get((int) (slot & ((1L << longShift) - 1)));
+  }
+
+  private long offset(int u) {
+    return offsets[u >>> longShift].get(u & ((1 << longShift) - 1));
+  }
+
+  private static MappedByteBuffer[] mapBytes(FileChannel channel, long start, long bytes, int chunkShift)
+      throws IOException {
+    long chunkBytes = 1L << chunkShift;
+    int chunks = (int) Math.max(1, (bytes + chunkBytes - 1) >>> chunkShift);
+    MappedByteBuffer[] buffers = new MappedByteBuffer[chunks];
+    for (int i = 0; i < chunks; i++) {
+      long position = start + i * chunkBytes;
+      long size = Math.max(0, Math.min(chunkBytes, bytes - i * chunkBytes));
+      buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+      buffers[i].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return buffers;
+  }
+
+  private static LongBuffer[] mapLongs(FileChannel channel, long start, long count, int chunkShift)
+      throws IOException {
+    MappedByteBuffer[] bytes = mapBytes(channel, start, count * Long.BYTES, chunkShift);
+    LongBuffer[] result = new LongBuffer[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      result[i] = bytes[i].asLongBuffer();
+    }
+    return result;
+  }
+
+  private static IntBuffer[] mapInts(FileChannel channel, long start, long count, int chunkShift)
+      throws IOException {
+    MappedByteBuffer[] bytes = mapBytes(channel, start, count * Integer.BYTES, chunkShift);
+    IntBuffer[] result = new IntBuffer[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      result[i] = bytes[i].asIntBuffer();
+    }
+    return result;
+  }
+
+  private static DoubleBuffer[] mapDoubles(FileChannel channel, long start, long count, int chunkShift)
+      throws IOException {
+    MappedByteBuffer[] bytes = mapBytes(channel, start, count * Double.BYTES, chunkShift);
+    DoubleBuffer[] result = new DoubleBuffer[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      result[i] = bytes[i].asDoubleBuffer();
+    }
+    return result;
+  }
+}
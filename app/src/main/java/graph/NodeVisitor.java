@@ -0,0 +1,15 @@
+package graph;
+
+/**
+ * Callback for the allocation-free traversals in {@link Traversals}.
+ */
+@FunctionalInterface
+public interface NodeVisitor {
+
+  /**
+   * Called once per reached node, in traversal order.
+   *
+   * @return {@code true} to continue, {@code false} to stop the traversal after this node
+   */
+  boolean visit(int node);
+}
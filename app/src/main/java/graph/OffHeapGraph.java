@@ -0,0 +1,302 @@
+package graph;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * An immutable CSR graph whose offsets, targets and weights live outside the Java heap in
+ * {@link MemorySegment}s, for graphs that are too large for {@code int}-indexed arrays or for
+ * the heap itself.
+ *
+ * <p>Offsets are {@code long}s, so the number of arcs is only bounded by memory; {@link #edgeCount()}
+ * saturates at {@link Integer#MAX_VALUE} and {@link #longEdgeCount()} gives the exact count.
+ * Traversals and {@link Dijkstra} run over the segments through the {@link AbstractCsrGraph}
+ * slots without creating {@link Edge} objects.
+ *
+ * <p>The memory belongs to a shared {@link Arena}: the graph can be read from any thread and is
+ * released by {@link #close()}, after which every access throws {@link IllegalStateException}.
+ * Instances are created with {@link #copyOf}, {@link #builder} or, without reading the file, by
+ * mapping a {@link GraphFiles} file with {@link #map}.
+ */
+public final class OffHeapGraph extends AbstractCsrGraph implements AutoCloseable {
+
+  private static final ValueLayout.OfLong FILE_LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfInt FILE_INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfDouble FILE_DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private final Arena arena;
+  private final long edgeCount;
+  private final long arcs;
+  private final MemorySegment offsets;
+  private final MemorySegment targets;
+  private final MemorySegment weights;
+  private final ValueLayout.OfLong longLayout;
+  private final ValueLayout.OfInt intLayout;
+  private final ValueLayout.OfDouble doubleLayout;
+
+  private OffHeapGraph(Arena arena, int nodes, long edges, long arcs, boolean directed, MemorySegment offsets,
+      MemorySegment targets, MemorySegment weights, boolean fileOrder) {
+    super(nodes, (int) Math.min(edges, Integer.MAX_VALUE), directed);
+    this.arena = arena;
+    this.edgeCount = edges;
+    this.arcs = arcs;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.longLayout = fileOrder ? FILE_LONG : ValueLayout.JAVA_LONG;
+    this.intLayout = fileOrder ? FILE_INT : ValueLayout.JAVA_INT;
+    this.doubleLayout = fileOrder ? FILE_DOUBLE : ValueLayout.JAVA_DOUBLE;
+  }
+
+  /**
+   * Copies {@code graph} into off-heap memory, preserving the order of every adjacency list.
+   */
+  public static OffHeapGraph copyOf(Graph graph) {
+    Objects.requireNonNull(graph, "graph");
+    int n = graph.nodeCount();
+    long arcs = 0;
+    for (int u = 0; u < n; u++) {
+      arcs += graph.degree(u);
+    }
+    long edges = graph instanceof AbstractCsrGraph csr ? csr.longEdgeCount() : graph.edgeCount();
+    Arena arena = Arena.ofShared();
+    try {
+      MemorySegment offsets = arena.allocate((n + 1L) * Long.BYTES, Long.BYTES);
+      MemorySegment targets = arena.allocate(Math.max(1, arcs) * Integer.BYTES, Integer.BYTES);
+      MemorySegment weights = arena.allocate(Math.max(1, arcs) * Double.BYTES, Double.BYTES);
+      long slot = 0;
+      offsets.setAtIndex(ValueLayout.JAVA_LONG, 0, 0L);
+      for (int u = 0; u < n; u++) {
+        for (Edge edge : graph.adjacency(u)) {
+          targets.setAtIndex(ValueLayout.JAVA_INT, slot, edge.to());
+          weights.setAtIndex(ValueLayout.JAVA_DOUBLE, slot, edge.weight());
+          slot++;
+        }
+        offsets.setAtIndex(ValueLayout.JAVA_LONG, u + 1, slot);
+      }
+      if (slot != arcs) {
+        throw new IllegalStateException("Graph changed while it was being copied.");
+      }
+      return new OffHeapGraph(arena, n, edges, arcs, graph.isDirected(), offsets, targets, weights, false);
+    } catch (RuntimeException | Error e) {
+      arena.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Maps a file written by {@link GraphFiles#write} as one segment, with no 2 GiB limit per
+   * section. Closing the graph unmaps the file.
+   */
+  public static OffHeapGraph map(Path file) throws IOException {
+    Arena arena = Arena.ofShared();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      GraphFiles.Header header = GraphFiles.readHeader(channel, file);
+      int n = header.nodes();
+      long arcs = header.arcs();
+      MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+      MemorySegment offsets = segment.asSlice(GraphFiles.HEADER_BYTES, (n + 1L) * Long.BYTES);
+      MemorySegment targets = segment.asSlice(GraphFiles.targetsStart(n), arcs * Integer.BYTES);
+      MemorySegment weights = segment.asSlice(GraphFiles.weightsStart(n, arcs), arcs * Double.BYTES);
+      return new OffHeapGraph(arena, n, header.edges(), arcs, header.directed(), offsets, targets, weights, true);
+    } catch (IOException | RuntimeException | Error e) {
+      arena.close();
+      throw e;
+    }
+  }
+
+  public static Builder builder(int nodes, boolean directed) {
+    return new Builder(nodes, directed);
+  }
+
+  /**
+   * Returns the exact number of edges, which may exceed {@link Integer#MAX_VALUE}.
+   */
+  @Override
+  public long longEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the number of stored arcs; undirected edges count twice.
+   */
+  public long arcCount() {
+    return arcs;
+  }
+
+  /**
+   * Frees the off-heap memory or unmaps the file.
+   */
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  @Override
+  protected long firstSlot(int u) {
+    return offsets.getAtIndex(longLayout, u);
+  }
+
+  @Override
+  protected long endSlot(int u) {
+    return offsets.getAtIndex(longLayout, u + 1L);
+  }
+
+  @Override
+  protected int target(long slot) {
+    return targets.getAtIndex(intLayout, slot);
+  }
+
+  @Override
+  protected double weight(long slot) {
+    return weights.getAtIndex(doubleLayout, slot);
+  }
+
+  /**
+   * Collects edges in off-heap staging memory and lays them out as CSR in {@link #build()}, so
+   * neither the edge list nor the result has to fit on the heap. Arcs keep their insertion order
+   * within each node. A builder is confined to the thread that created it; {@link #close()}
+   * releases the staging memory of a builder that is abandoned before {@code build()}.
+   */
+  public static final class Builder implements AutoCloseable {
+    private static final long INITIAL_CAPACITY = 1024;
+
+    private final int nodes;
+    private final boolean directed;
+    private Arena staging;
+    private MemorySegment from;
+    private MemorySegment to;
+    private MemorySegment weight;
+    private long capacity;
+    private long size;
+
+    private Builder(int nodes, boolean directed) {
+      if (nodes < 0) {
+        throw new IllegalArgumentException("Node count must not be negative: " + nodes);
+      }
+      this.nodes = nodes;
+      this.directed = directed;
+      allocate(INITIAL_CAPACITY);
+    }
+
+    public Builder addEdge(int u, int v) {
+      return addEdge(u, v, 1.0);
+    }
+
+    public Builder addEdge(int u, int v, double w) {
+      checkNode(u);
+      checkNode(v);
+      if (!directed && u == v) {
+        throw new IllegalArgumentException("Self-loops are not supported in undirected graphs.");
+      }
+      if (staging == null) {
+        throw new IllegalStateException("Builder has already been built or closed.");
+      }
+      if (size == capacity) {
+        allocate(capacity + (capacity >> 1));
+      }
+      from.setAtIndex(ValueLayout.JAVA_INT, size, u);
+      to.setAtIndex(ValueLayout.JAVA_INT, size, v);
+      weight.setAtIndex(ValueLayout.JAVA_DOUBLE, size, w);
+      size++;
+      return this;
+    }
+
+    /**
+     * Builds the graph and releases the staging memory; the builder cannot be reused.
+     */
+    public OffHeapGraph build() {
+      if (staging == null) {
+        throw new IllegalStateException("Builder has already been built or closed.");
+      }
+      long arcs = directed ? size : Math.multiplyExact(size, 2L);
+      Arena arena = Arena.ofShared();
+      try (Arena scratch = Arena.ofConfined()) {
+        MemorySegment offsets = arena.allocate((nodes + 1L) * Long.BYTES, Long.BYTES);
+        MemorySegment targets = arena.allocate(Math.max(1, arcs) * Integer.BYTES, Integer.BYTES);
+        MemorySegment weights = arena.allocate(Math.max(1, arcs) * Double.BYTES, Double.BYTES);
+        offsets.fill((byte) 0);
+        for (long i = 0; i < size; i++) {
+          increment(offsets, from.getAtIndex(ValueLayout.JAVA_INT, i) + 1L);
+          if (!directed) {
+            increment(offsets, to.getAtIndex(ValueLayout.JAVA_INT, i) + 1L);
+          }
+        }
+        for (long u = 0; u < nodes; u++) {
+          long next = offsets.getAtIndex(ValueLayout.JAVA_LONG, u + 1) + offsets.getAtIndex(ValueLayout.JAVA_LONG, u);
+          offsets.setAtIndex(ValueLayout.JAVA_LONG, u + 1, next);
+        }
+        MemorySegment cursor = scratch.allocate(Math.max(1, nodes) * (long) Long.BYTES, Long.BYTES);
+        MemorySegment.copy(offsets, 0, cursor, 0, nodes * (long) Long.BYTES);
+        for (long i = 0; i < size; i++) {
+          int u = from.getAtIndex(ValueLayout.JAVA_INT, i);
+          int v = to.getAtIndex(ValueLayout.JAVA_INT, i);
+          double w = weight.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+          place(cursor, targets, weights, u, v, w);
+          if (!directed) {
+            place(cursor, targets, weights, v, u, w);
+          }
+        }
+        OffHeapGraph graph = new OffHeapGraph(arena, nodes, size, arcs, directed, offsets, targets, weights, false);
+        close();
+        return graph;
+      } catch (RuntimeException | Error e) {
+        arena.close();
+        throw e;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (staging != null) {
+        staging.close();
+        staging = null;
+      }
+    }
+
+    private static void increment(MemorySegment counts, long index) {
+      counts.setAtIndex(ValueLayout.JAVA_LONG, index, counts.getAtIndex(ValueLayout.JAVA_LONG, index) + 1);
+    }
+
+    private static void place(MemorySegment cursor, MemorySegment targets, MemorySegment weights, int u, int v,
+        double w) {
+      long slot = cursor.getAtIndex(ValueLayout.JAVA_LONG, u);
+      cursor.setAtIndex(ValueLayout.JAVA_LONG, u, slot + 1);
+      targets.setAtIndex(ValueLayout.JAVA_INT, slot, v);
+      weights.setAtIndex(ValueLayout.JAVA_DOUBLE, slot, w);
+    }
+
+    private void allocate(long newCapacity) {
+      Arena next = Arena.ofConfined();
+      MemorySegment newFrom = next.allocate(newCapacity * Integer.BYTES, Integer.BYTES);
+      MemorySegment newTo = next.allocate(newCapacity * Integer.BYTES, Integer.BYTES);
+      MemorySegment newWeight = next.allocate(newCapacity * Double.BYTES, Double.BYTES);
+      if (size > 0) {
+        MemorySegment.copy(from, 0, newFrom, 0, size * Integer.BYTES);
+        MemorySegment.copy(to, 0, newTo, 0, size * Integer.BYTES);
+        MemorySegment.copy(weight, 0, newWeight, 0, size * Double.BYTES);
+      }
+      if (staging != null) {
+        staging.close();
+      }
+      staging = next;
+      from = newFrom;
+      to = newTo;
+      weight = newWeight;
+      capacity = newCapacity;
+    }
+
+    private void checkNode(int u) {
+      if (u < 0 || u >= nodes) {
+        throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+      }
+    }
+  }
+}
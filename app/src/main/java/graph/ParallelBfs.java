@@ -0,0 +1,261 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Level-synchronous parallel breadth-first search with direction optimization.
+ *
+ * <p>Each level is expanded either top-down, where frontier nodes claim their unvisited
+ * neighbours through a {@link ConcurrentBitSet}, or bottom-up, where every unvisited node looks
+ * for a parent among its incoming neighbours in the frontier and stops at the first one. The
+ * search switches to bottom-up when the arcs leaving the frontier exceed
+ * {@code 1/ALPHA} of the arcs not yet explored, and back to top-down once the frontier is small
+ * and shrinking. Bottom-up wins on the wide middle levels of low-diameter graphs because most of
+ * its scans end after a few arcs.
+ *
+ * <p>Any {@link Graph} is accepted. Graphs that are not {@link AbstractCsrGraph} are copied into
+ * a {@link CsrGraph} first, and directed graphs also need a transpose for the bottom-up steps. A
+ * directed graph with more arcs than a heap transpose can index is searched top-down only.
+ * Levels are deterministic; when a node has several parents on the previous level, which one is
+ * reported depends on thread timing.
+ */
+public final class ParallelBfs {
+
+  private ParallelBfs() {
+    // Utility class
+  }
+
+  private static final int ALPHA = 14;
+  private static final int BETA = 24;
+  private static final int GRAIN = 1024;
+  private static final long MAX_TRANSPOSE_ARCS = Integer.MAX_VALUE - 8;
+
+  public static Result compute(Graph graph, int source) {
+    return compute(graph, source, Direction.OPTIMIZING, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Runs the search on {@code pool}, expanding levels as selected by {@code direction}.
+   */
+  public static Result compute(Graph graph, int source, Direction direction, ForkJoinPool pool) {
+    Objects.requireNonNull(graph, "graph");
+    Objects.requireNonNull(direction, "direction");
+    Objects.requireNonNull(pool, "pool");
+    int n = graph.nodeCount();
+    if (source < 0 || source >= n) {
+      throw new IllegalArgumentException("Node " + source + " is out of bounds.");
+    }
+    AbstractCsrGraph forward = graph instanceof AbstractCsrGraph csr ? csr : CsrGraph.copyOf(graph);
+    if (!forward.isDirected()) {
+      return new Search(forward, forward, pool).run(source, direction);
+    }
+    if (forward.longEdgeCount() > MAX_TRANSPOSE_ARCS) {
+      return new Search(forward, null, pool).run(source, Direction.TOP_DOWN);
+    }
+    return new Search(forward, CsrGraph.transposeOf(forward), pool).run(source, direction);
+  }
+
+  /**
+   * How each level is expanded.
+   */
+  public enum Direction {
+    /** Always expand from the frontier. */
+    TOP_DOWN,
+    /** Always search for parents from the unvisited nodes, starting with the first level. */
+    BOTTOM_UP,
+    /** Switch between the two by frontier size. */
+    OPTIMIZING
+  }
+
+  /**
+   * BFS levels and parents.
+   *
+   * @param levels the hop distance from the source, or -1 if unreachable
+   * @param parents the BFS-tree parent, or -1 for the source and unreachable nodes
+   */
+  public record Result(int[] levels, int[] parents) {
+  }
+
+  private static final class Search {
+    final AbstractCsrGraph forward;
+    final AbstractCsrGraph backward;
+    final ForkJoinPool pool;
+    final int n;
+    final int[] levels;
+    final int[] parents;
+    final ConcurrentBitSet visited;
+    int[] frontier;
+    int[] next;
+    final AtomicInteger nextSize = new AtomicInteger();
+    final AtomicLong nextArcs = new AtomicLong();
+
+    Search(AbstractCsrGraph forward, AbstractCsrGraph backward, ForkJoinPool pool) {
+      this.forward = forward;
+      this.backward = backward;
+      this.pool = pool;
+      this.n = forward.nodeCount();
+      this.levels = new int[n];
+      this.parents = new int[n];
+      this.visited = new ConcurrentBitSet(n);
+      this.frontier = new int[n];
+      this.next = new int[n];
+      Arrays.fill(levels, -1);
+      Arrays.fill(parents, -1);
+    }
+
+    Result run(int source, Direction direction) {
+      visited.set(source);
+      levels[source] = 0;
+      frontier[0] = source;
+      int frontierSize = 1;
+      long frontierArcs = forward.endSlot(source) - forward.firstSlot(source);
+      long unexploredArcs = -frontierArcs;
+      for (int u = 0; u < n; u++) {
+        unexploredArcs += forward.endSlot(u) - forward.firstSlot(u);
+      }
+      int previousSize = 0;
+      boolean bottomUp = false;
+      int level = 0;
+
+      while (frontierSize > 0) {
+        if (direction == Direction.OPTIMIZING) {
+          if (!bottomUp && frontierArcs > unexploredArcs / ALPHA) {
+            bottomUp = true;
+          } else if (bottomUp && frontierSize < n / BETA && frontierSize < previousSize) {
+            bottomUp = false;
+          }
+        } else {
+          bottomUp = direction == Direction.BOTTOM_UP;
+        }
+        nextSize.set(0);
+        nextArcs.set(0);
+        if (bottomUp) {
+          pool.invoke(new BottomUpTask(this, level, 0, n));
+        } else {
+          pool.invoke(new TopDownTask(this, level, 0, frontierSize));
+        }
+        int nextCount = nextSize.get();
+        frontierArcs = nextArcs.get();
+        unexploredArcs -= frontierArcs;
+        int[] swap = frontier;
+        frontier = next;
+        next = swap;
+        previousSize = frontierSize;
+        frontierSize = nextCount;
+        level++;
+      }
+      return new Result(levels, parents);
+    }
+
+    /**
+     * Appends a leaf's newly discovered nodes to the next frontier in one reserved block.
+     */
+    void publish(int[] found, int count, long arcs) {
+      if (count > 0) {
+        int at = nextSize.getAndAdd(count);
+        System.arraycopy(found, 0, next, at, count);
+        nextArcs.addAndGet(arcs);
+      }
+    }
+  }
+
+  private static final class TopDownTask extends RecursiveAction {
+    private final Search search;
+    private final int level;
+    private final int from;
+    private final int to;
+
+    TopDownTask(Search search, int level, int from, int to) {
+      this.search = search;
+      this.level = level;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > GRAIN) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new TopDownTask(search, level, from, mid), new TopDownTask(search, level, mid, to));
+        return;
+      }
+      AbstractCsrGraph graph = search.forward;
+      ConcurrentBitSet visited = search.visited;
+      int[] found = new int[64];
+      int count = 0;
+      long arcs = 0;
+      for (int i = from; i < to; i++) {
+        int u = search.frontier[i];
+        for (long slot = graph.firstSlot(u), end = graph.endSlot(u); slot < end; slot++) {
+          int v = graph.target(slot);
+          if (!visited.get(v) && visited.set(v)) {
+            search.levels[v] = level + 1;
+            search.parents[v] = u;
+            if (count == found.length) {
+              found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = v;
+            arcs += graph.endSlot(v) - graph.firstSlot(v);
+          }
+        }
+      }
+      search.publish(found, count, arcs);
+    }
+  }
+
+  private static final class BottomUpTask extends RecursiveAction {
+    private final Search search;
+    private final int level;
+    private final int from;
+    private final int to;
+
+    BottomUpTask(Search search, int level, int from, int to) {
+      this.search = search;
+      this.level = level;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > GRAIN) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new BottomUpTask(search, level, from, mid), new BottomUpTask(search, level, mid, to));
+        return;
+      }
+      AbstractCsrGraph incoming = search.backward;
+      AbstractCsrGraph outgoing = search.forward;
+      ConcurrentBitSet visited = search.visited;
+      int[] levels = search.levels;
+      int[] found = new int[64];
+      int count = 0;
+      long arcs = 0;
+      for (int v = from; v < to; v++) {
+        if (visited.get(v)) {
+          continue;
+        }
+        for (long slot = incoming.firstSlot(v), end = incoming.endSlot(v); slot < end; slot++) {
+          int u = incoming.target(slot);
+          // Nodes found during this step get level + 1, so this only matches the frontier.
+          if (levels[u] == level) {
+            visited.set(v);
+            levels[v] = level + 1;
+            search.parents[v] = u;
+            if (count == found.length) {
+              found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = v;
+            arcs += outgoing.endSlot(v) - outgoing.firstSlot(v);
+            break;
+          }
+        }
+      }
+      search.publish(found, count, arcs);
+    }
+  }
+}
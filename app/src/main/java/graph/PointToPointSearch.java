@@ -0,0 +1,197 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Point-to-point shortest path engine over a frozen snapshot of a graph.
+ *
+ * <p>The constructor copies the graph into a {@link CsrGraph} and, for directed graphs, builds
+ * its {@link CsrGraph#transpose() reverse adjacency}; later mutations of the original graph are
+ * not seen. Two search modes are offered:
+ * <ul>
+ *   <li>{@link Mode#UNIDIRECTIONAL} runs Dijkstra from the source and stops once the target is
+ *   settled. It explores nodes in the same order as {@link Graph#shortestPath}, so it returns
+ *   exactly the same path.</li>
+ *   <li>{@link Mode#BIDIRECTIONAL} searches forward from the source and backward from the target
+ *   at the same time and stops when the two frontiers prove the best meeting point. It returns
+ *   the same distance and a shortest path; when several shortest paths tie it may pick a
+ *   different one than {@link Graph#shortestPath}.</li>
+ * </ul>
+ *
+ * <p>The bidirectional mode reuses its heaps and epoch-stamped scratch arrays between queries, so
+ * an instance is not thread-safe; use one per thread.
+ */
+public final class PointToPointSearch {
+
+  private final CsrGraph forward;
+  private final CsrGraph backward;
+
+  private final IndexedDaryHeap forwardQueue;
+  private final IndexedDaryHeap backwardQueue;
+  private final double[] forwardDistances;
+  private final double[] backwardDistances;
+  private final int[] forwardParents;
+  private final int[] backwardParents;
+  private final int[] forwardStamps;
+  private final int[] backwardStamps;
+  private int epoch;
+  private int lastSettled;
+
+  public PointToPointSearch(Graph graph) {
+    Objects.requireNonNull(graph, "graph");
+    this.forward = CsrGraph.copyOf(graph);
+    this.backward = forward.transpose();
+    int n = forward.nodeCount();
+    this.forwardQueue = new IndexedDaryHeap(n, Dijkstra.DEFAULT_HEAP_ARITY);
+    this.backwardQueue = new IndexedDaryHeap(n, Dijkstra.DEFAULT_HEAP_ARITY);
+    this.forwardDistances = new double[n];
+    this.backwardDistances = new double[n];
+    this.forwardParents = new int[n];
+    this.backwardParents = new int[n];
+    this.forwardStamps = new int[n];
+    this.backwardStamps = new int[n];
+  }
+
+  /**
+   * Returns the shortest route from {@code source} to {@code target}; the route has an infinite
+   * distance and an empty path if the target is unreachable.
+   */
+  public Route shortestPath(int source, int target, Mode mode) {
+    checkNode(source);
+    checkNode(target);
+    return switch (mode) {
+      case UNIDIRECTIONAL -> unidirectional(source, target);
+      case BIDIRECTIONAL -> bidirectional(source, target);
+    };
+  }
+
+  public double distance(int source, int target, Mode mode) {
+    return shortestPath(source, target, mode).distance();
+  }
+
+  /**
+   * Returns the number of nodes settled by the most recent bidirectional query, for tuning.
+   */
+  public int lastSettledCount() {
+    return lastSettled;
+  }
+
+  private Route unidirectional(int source, int target) {
+    Dijkstra.Result result = Dijkstra.computeForTarget(forward, source, target, forward.hasNegativeWeight());
+    List<Integer> path = Dijkstra.reconstructPath(source, target, result);
+    return new Route(result.distances()[target], path.isEmpty() ? List.of() : Collections.unmodifiableList(path));
+  }
+
+  private Route bidirectional(int source, int target) {
+    if (source == target) {
+      lastSettled = 0;
+      return new Route(0.0, List.of(source));
+    }
+    nextEpoch();
+    forwardQueue.clear();
+    backwardQueue.clear();
+    label(forwardStamps, forwardDistances, forwardParents, source, 0.0, -1);
+    label(backwardStamps, backwardDistances, backwardParents, target, 0.0, -1);
+    forwardQueue.insert(source, 0.0);
+    backwardQueue.insert(target, 0.0);
+
+    double best = Double.POSITIVE_INFINITY;
+    int meeting = -1;
+    int settled = 0;
+
+    while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+      double forwardTop = forwardQueue.key(forwardQueue.peek());
+      double backwardTop = backwardQueue.key(backwardQueue.peek());
+      if (forwardTop + backwardTop >= best) {
+        break;
+      }
+      boolean forwardStep = forwardTop <= backwardTop;
+      CsrGraph graph = forwardStep ? forward : backward;
+      IndexedDaryHeap queue = forwardStep ? forwardQueue : backwardQueue;
+      int[] stamps = forwardStep ? forwardStamps : backwardStamps;
+      double[] distances = forwardStep ? forwardDistances : backwardDistances;
+      int[] parents = forwardStep ? forwardParents : backwardParents;
+      int[] otherStamps = forwardStep ? backwardStamps : forwardStamps;
+      double[] otherDistances = forwardStep ? backwardDistances : forwardDistances;
+
+      int u = queue.poll();
+      settled++;
+      double base = distances[u];
+      for (long slot = graph.firstSlot(u), end = graph.endSlot(u); slot < end; slot++) {
+        double weight = graph.weight(slot);
+        if (weight < 0) {
+          throw Dijkstra.negativeWeight();
+        }
+        int v = graph.target(slot);
+        double candidate = base + weight;
+        if (stamps[v] != epoch || candidate < distances[v]) {
+          label(stamps, distances, parents, v, candidate, u);
+          queue.insertOrDecrease(v, candidate);
+        }
+        if (otherStamps[v] == epoch) {
+          double total = distances[v] + otherDistances[v];
+          if (total < best) {
+            best = total;
+            meeting = v;
+          }
+        }
+      }
+    }
+
+    lastSettled = settled;
+    if (meeting < 0) {
+      return new Route(Double.POSITIVE_INFINITY, List.of());
+    }
+    List<Integer> path = new ArrayList<>();
+    for (int node = meeting; node != -1; node = forwardParents[node]) {
+      path.add(node);
+    }
+    Collections.reverse(path);
+    for (int node = backwardParents[meeting]; node != -1; node = backwardParents[node]) {
+      path.add(node);
+    }
+    return new Route(best, Collections.unmodifiableList(path));
+  }
+
+  private void label(int[] stamps, double[] distances, int[] parents, int node, double distance, int parent) {
+    stamps[node] = epoch;
+    distances[node] = distance;
+    parents[node] = parent;
+  }
+
+  private void nextEpoch() {
+    epoch++;
+    if (epoch == 0) {
+      Arrays.fill(forwardStamps, 0);
+      Arrays.fill(backwardStamps, 0);
+      epoch = 1;
+    }
+  }
+
+  private void checkNode(int u) {
+    if (u < 0 || u >= forward.nodeCount()) {
+      throw new IllegalArgumentException("Node " + u + " is out of bounds.");
+    }
+  }
+
+  /**
+   * Search direction used by {@link #shortestPath(int, int, Mode)}.
+   */
+  public enum Mode {
+    UNIDIRECTIONAL,
+    BIDIRECTIONAL
+  }
+
+  /**
+   * A shortest route: its total weight and the nodes from source to target.
+   *
+   * @param distance the total weight, or {@link Double#POSITIVE_INFINITY} if unreachable
+   * @param path the nodes on the route, empty if unreachable
+   */
+  public record Route(double distance, List<Integer> path) {
+  }
+}
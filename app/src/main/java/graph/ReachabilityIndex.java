@@ -0,0 +1,46 @@
+package graph;
+
+/**
+ * Answers most reachability queries in constant time from precomputed component labels.
+ *
+ * <p>In an undirected graph two nodes are connected exactly when they share a connected component.
+ * In a directed graph a node reaches everything in its strong component, and cannot reach a node
+ * in another weak component or in a strong component that Tarjan's algorithm completed later.
+ * The remaining pairs need a search.
+ */
+final class ReachabilityIndex {
+
+  static final int UNREACHABLE = 0;
+  static final int REACHABLE = 1;
+  static final int UNKNOWN = -1;
+
+  private final int[] strong;
+  private final int[] weak;
+
+  private ReachabilityIndex(int[] strong, int[] weak) {
+    this.strong = strong;
+    this.weak = weak;
+  }
+
+  static ReachabilityIndex build(Graph graph) {
+    if (!graph.isDirected()) {
+      int[] labels = ConnectedComponents.compute(graph).labels();
+      return new ReachabilityIndex(labels, labels);
+    }
+    return new ReachabilityIndex(StronglyConnectedComponents.compute(graph).labels(),
+        ConnectedComponents.compute(graph).labels());
+  }
+
+  /**
+   * Returns {@link #REACHABLE}, {@link #UNREACHABLE} or {@link #UNKNOWN}.
+   */
+  int query(int source, int target) {
+    if (strong[source] == strong[target]) {
+      return REACHABLE;
+    }
+    if (weak[source] != weak[target] || strong[source] < strong[target]) {
+      return UNREACHABLE;
+    }
+    return UNKNOWN;
+  }
+}
@@ -0,0 +1,69 @@
+package graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded LRU cache of shortest-path trees keyed by source node.
+ *
+ * <p>Each entry holds one {@link Dijkstra.Result}, i.e. two arrays of {@code nodeCount} elements,
+ * so bounding the number of entries bounds the memory. Access order is tracked by a
+ * {@link LinkedHashMap}, which mutates on every lookup; all methods are therefore synchronized.
+ */
+final class ShortestPathCache {
+
+  private final int maxEntries;
+  private final Map<Integer, Dijkstra.Result> entries;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+
+  ShortestPathCache(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Cache size must be at least 1: " + maxEntries);
+    }
+    this.maxEntries = maxEntries;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Dijkstra.Result> eldest) {
+        if (size() > ShortestPathCache.this.maxEntries) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached tree for {@code source}, or {@code null} on a miss.
+   */
+  synchronized Dijkstra.Result get(int source) {
+    Dijkstra.Result result = entries.get(source);
+    if (result == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return result;
+  }
+
+  synchronized void put(int source, Dijkstra.Result result) {
+    entries.put(source, result);
+  }
+
+  /**
+   * Drops every entry; called whenever the graph changes.
+   */
+  synchronized void invalidate() {
+    if (!entries.isEmpty()) {
+      entries.clear();
+      invalidations++;
+    }
+  }
+
+  synchronized AbstractGraph.CacheStats stats() {
+    return new AbstractGraph.CacheStats(hits, misses, evictions, invalidations, entries.size(), maxEntries);
+  }
+}
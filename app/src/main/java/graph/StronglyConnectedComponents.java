@@ -0,0 +1,131 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Utility class computing strongly connected components with an iterative version of Tarjan's
+ * algorithm, so deep graphs cannot overflow the call stack.
+ *
+ * <p>Components are numbered in the order Tarjan's algorithm completes them, which is a reverse
+ * topological order of the condensation: every arc between two different components goes from
+ * the higher label to the lower one. In an undirected graph the strong components are the
+ * connected components.
+ */
+public final class StronglyConnectedComponents {
+
+  private StronglyConnectedComponents() {
+    // Utility class
+  }
+
+  public static ConnectedComponents.Result compute(Graph graph) {
+    Objects.requireNonNull(graph, "graph");
+    Arcs arcs;
+    if (graph instanceof AbstractCsrGraph csr) {
+      arcs = new CsrArcs(csr);
+    } else if (graph instanceof AbstractGraph list) {
+      arcs = new ListArcs(list.adjList);
+    } else {
+      arcs = new CsrArcs(CsrGraph.copyOf(graph));
+    }
+    return compute(graph.nodeCount(), arcs);
+  }
+
+  private static ConnectedComponents.Result compute(int n, Arcs arcs) {
+    int[] index = new int[n];
+    int[] low = new int[n];
+    int[] labels = new int[n];
+    int[] stack = new int[n];
+    int[] calls = new int[n];
+    long[] next = new long[n];
+    Arrays.fill(index, -1);
+    Arrays.fill(labels, -1);
+    int counter = 0;
+    int count = 0;
+    int top = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] >= 0) {
+        continue;
+      }
+      index[root] = low[root] = counter++;
+      stack[top++] = root;
+      next[root] = arcs.first(root);
+      int depth = 0;
+      calls[depth++] = root;
+      while (depth > 0) {
+        int u = calls[depth - 1];
+        if (next[u] < arcs.end(u)) {
+          int v = arcs.target(u, next[u]++);
+          if (index[v] < 0) {
+            index[v] = low[v] = counter++;
+            stack[top++] = v;
+            next[v] = arcs.first(v);
+            calls[depth++] = v;
+          } else if (labels[v] < 0 && index[v] < low[u]) {
+            // Visited but unassigned means v is still on the Tarjan stack.
+            low[u] = index[v];
+          }
+          continue;
+        }
+        depth--;
+        if (low[u] == index[u]) {
+          int w;
+          do {
+            w = stack[--top];
+            labels[w] = count;
+          } while (w != u);
+          count++;
+        }
+        if (depth > 0) {
+          int parent = calls[depth - 1];
+          low[parent] = Math.min(low[parent], low[u]);
+        }
+      }
+    }
+    return new ConnectedComponents.Result(labels, count);
+  }
+
+  private interface Arcs {
+    long first(int u);
+
+    long end(int u);
+
+    int target(int u, long slot);
+  }
+
+  private record CsrArcs(AbstractCsrGraph graph) implements Arcs {
+    @Override
+    public long first(int u) {
+      return graph.firstSlot(u);
+    }
+
+    @Override
+    public long end(int u) {
+      return graph.endSlot(u);
+    }
+
+    @Override
+    public int target(int u, long slot) {
+      return graph.target(slot);
+    }
+  }
+
+  private record ListArcs(List<List<Edge>> adjList) implements Arcs {
+    @Override
+    public long first(int u) {
+      return 0;
+    }
+
+    @Override
+    public long end(int u) {
+      return adjList.get(u).size();
+    }
+
+    @Override
+    public int target(int u, long slot) {
+      return adjList.get(u).get((int) slot).to();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch space for {@link Traversals}: an epoch-stamped visited array and an
+ * {@code int[]} work buffer used as queue or stack.
+ *
+ * <p>Starting a traversal only bumps the epoch, so a context does not have to be cleared between
+ * runs and allocates nothing unless it meets a graph with more nodes than before. After a
+ * traversal, {@link #isVisited(int)} reports the nodes it reached. A context is not thread-safe;
+ * use one per thread.
+ */
+public final class TraversalContext {
+
+  private int[] stamps;
+  private int[] buffer;
+  private int epoch;
+
+  public TraversalContext() {
+    this(0);
+  }
+
+  public TraversalContext(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+    }
+    this.stamps = new int[capacity];
+    this.buffer = new int[capacity];
+  }
+
+  public int capacity() {
+    return stamps.length;
+  }
+
+  /**
+   * Returns whether the most recent traversal reached {@code node}.
+   */
+  public boolean isVisited(int node) {
+    if (node < 0 || node >= stamps.length) {
+      throw new IllegalArgumentException("Node " + node + " is out of bounds.");
+    }
+    return epoch != 0 && stamps[node] == epoch;
+  }
+
+  /**
+   * Starts a new traversal over {@code nodes} nodes, growing the arrays if needed.
+   */
+  void begin(int nodes) {
+    if (nodes > stamps.length) {
+      stamps = new int[nodes];
+      buffer = new int[nodes];
+      epoch = 0;
+    }
+    epoch++;
+    if (epoch == 0) {
+      Arrays.fill(stamps, 0);
+      epoch = 1;
+    }
+  }
+
+  /**
+   * Marks {@code node} as visited and returns {@code true} if it was not visited yet.
+   */
+  boolean mark(int node) {
+    if (stamps[node] == epoch) {
+      return false;
+    }
+    stamps[node] = epoch;
+    return true;
+  }
+
+  int[] buffer() {
+    return buffer;
+  }
+}
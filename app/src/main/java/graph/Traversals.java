@@ -0,0 +1,159 @@
+package graph;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Breadth- and depth-first traversals that report nodes to a {@link NodeVisitor} instead of
+ * collecting boxed integers.
+ *
+ * <p>The visit order is the same as {@link Graph#bfs(int)} and {@link Graph#dfs(int)}. Visited
+ * marks and the queue or stack live in a caller-supplied {@link TraversalContext}, and
+ * {@link AbstractGraph} and {@link AbstractCsrGraph} are scanned directly, so a traversal over
+ * those graphs allocates nothing. Other graphs go through {@link Graph#adjacency(int)}.
+ */
+public final class Traversals {
+
+  private Traversals() {
+    // Utility class
+  }
+
+  /**
+   * Visits the nodes reachable from {@code start} in breadth-first order until the visitor
+   * returns {@code false}.
+   *
+   * @return the number of nodes passed to the visitor
+   */
+  public static int bfs(Graph graph, int start, TraversalContext context, NodeVisitor visitor) {
+    begin(graph, start, context, visitor);
+    int[] queue = context.buffer();
+    int head = 0;
+    int tail = 0;
+    context.mark(start);
+    queue[tail++] = start;
+
+    if (graph instanceof AbstractCsrGraph csr) {
+      while (head < tail) {
+        int current = queue[head++];
+        if (!visitor.visit(current)) {
+          return head;
+        }
+        for (long slot = csr.firstSlot(current), end = csr.endSlot(current); slot < end; slot++) {
+          int neighbor = csr.target(slot);
+          if (context.mark(neighbor)) {
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+    } else if (graph instanceof AbstractGraph list) {
+      while (head < tail) {
+        int current = queue[head++];
+        if (!visitor.visit(current)) {
+          return head;
+        }
+        List<Edge> neighbors = list.adjList.get(current);
+        for (int i = 0, size = neighbors.size(); i < size; i++) {
+          int neighbor = neighbors.get(i).to();
+          if (context.mark(neighbor)) {
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+    } else {
+      while (head < tail) {
+        int current = queue[head++];
+        if (!visitor.visit(current)) {
+          return head;
+        }
+        for (Edge edge : graph.adjacency(current)) {
+          int neighbor = edge.to();
+          if (context.mark(neighbor)) {
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+    }
+    return head;
+  }
+
+  /**
+   * Visits the nodes reachable from {@code start} in depth-first order until the visitor returns
+   * {@code false}. Like {@link Graph#dfs(int)}, nodes are marked when pushed and neighbours are
+   * pushed in reverse so that the first neighbour is visited first.
+   *
+   * @return the number of nodes passed to the visitor
+   */
+  public static int dfs(Graph graph, int start, TraversalContext context, NodeVisitor visitor) {
+    begin(graph, start, context, visitor);
+    int[] stack = context.buffer();
+    int top = 0;
+    int visited = 0;
+    context.mark(start);
+    stack[top++] = start;
+
+    if (graph instanceof AbstractCsrGraph csr) {
+      while (top > 0) {
+        int current = stack[--top];
+        visited++;
+        if (!visitor.visit(current)) {
+          return visited;
+        }
+        for (long slot = csr.endSlot(current) - 1, first = csr.firstSlot(current); slot >= first; slot--) {
+          int neighbor = csr.target(slot);
+          if (context.mark(neighbor)) {
+            stack[top++] = neighbor;
+          }
+        }
+      }
+    } else if (graph instanceof AbstractGraph list) {
+      while (top > 0) {
+        int current = stack[--top];
+        visited++;
+        if (!visitor.visit(current)) {
+          return visited;
+        }
+        List<Edge> neighbors = list.adjList.get(current);
+        for (int i = neighbors.size() - 1; i >= 0; i--) {
+          int neighbor = neighbors.get(i).to();
+          if (context.mark(neighbor)) {
+            stack[top++] = neighbor;
+          }
+        }
+      }
+    } else {
+      int[] scratch = new int[0];
+      while (top > 0) {
+        int current = stack[--top];
+        visited++;
+        if (!visitor.visit(current)) {
+          return visited;
+        }
+        int degree = graph.degree(current);
+        if (scratch.length < degree) {
+          scratch = new int[degree];
+        }
+        int count = 0;
+        for (Edge edge : graph.adjacency(current)) {
+          scratch[count++] = edge.to();
+        }
+        for (int i = count - 1; i >= 0; i--) {
+          if (context.mark(scratch[i])) {
+            stack[top++] = scratch[i];
+          }
+        }
+      }
+    }
+    return visited;
+  }
+
+  private static void begin(Graph graph, int start, TraversalContext context, NodeVisitor visitor) {
+    Objects.requireNonNull(graph, "graph");
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(visitor, "visitor");
+    int n = graph.nodeCount();
+    if (start < 0 || start >= n) {
+      throw new IllegalArgumentException("Node " + start + " is out of bounds.");
+    }
+    context.begin(n);
+  }
+}
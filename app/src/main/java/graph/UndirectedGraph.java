@@ -31,8 +31,9 @@ public class UndirectedGraph extends AbstractGraph {
 
   @Override
   public void removeEdge(int u, int v) {
-    boolean removedUV = removeAdjEdge(u, v);
-    boolean removedVU = removeAdjEdge(v, u);
+    Edge removed = detachAdjEdge(u, v);
+    boolean removedUV = removed != null;
+    boolean removedVU = removedUV ? removeAdjEdge(v, u, removed.weight()) : removeAdjEdge(v, u);
     if (removedUV || removedVU) {
       if (removedUV != removedVU) {
         throw new IllegalStateException("Undirected edge is missing its symmetric counterpart.");
@@ -0,0 +1,86 @@
+package graph;
+
+/**
+ * A disjoint-set forest over the elements {@code 0 .. size - 1} with union by size and path
+ * halving, so any sequence of operations runs in near-constant amortized time per operation.
+ */
+public final class UnionFind {
+
+  private final int[] parent;
+  private final int[] size;
+  private int count;
+
+  public UnionFind(int elements) {
+    if (elements < 0) {
+      throw new IllegalArgumentException("Element count must not be negative: " + elements);
+    }
+    this.parent = new int[elements];
+    this.size = new int[elements];
+    for (int i = 0; i < elements; i++) {
+      parent[i] = i;
+      size[i] = 1;
+    }
+    this.count = elements;
+  }
+
+  /**
+   * Returns the representative of the set containing {@code x}.
+   */
+  public int find(int x) {
+    checkElement(x);
+    while (parent[x] != x) {
+      parent[x] = parent[parent[x]];
+      x = parent[x];
+    }
+    return x;
+  }
+
+  /**
+   * Merges the sets containing {@code a} and {@code b}. Returns {@code false} if they were
+   * already the same set.
+   */
+  public boolean union(int a, int b) {
+    int rootA = find(a);
+    int rootB = find(b);
+    if (rootA == rootB) {
+      return false;
+    }
+    if (size[rootA] < size[rootB]) {
+      int swap = rootA;
+      rootA = rootB;
+      rootB = swap;
+    }
+    parent[rootB] = rootA;
+    size[rootA] += size[rootB];
+    count--;
+    return true;
+  }
+
+  public boolean connected(int a, int b) {
+    return find(a) == find(b);
+  }
+
+  /**
+   * Returns the number of elements in the set containing {@code x}.
+   */
+  public int setSize(int x) {
+    return size[find(x)];
+  }
+
+  /**
+   * Returns the number of disjoint sets.
+   */
+  public int count() {
+    return count;
+  }
+
+  public int elementCount() {
+    return parent.length;
+  }
+
+  private void checkElement(int x) {
+    if (x < 0 || x >= parent.length) {
+      throw new IllegalArgumentException("Element " + x + " is out of bounds.");
+    }
+  }
+}
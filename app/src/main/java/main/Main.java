@@ -46,10 +46,11 @@ public class Main {
         double k = kScaled / 100.0;
         int lg = 31 - Integer.numberOfLeadingZeros(n);
         int depth = Math.max(1, (int) Math.floor(k * lg));
-        Integer[] arr = base.clone();
-        Benchmark.Timing timing = Benchmark
-            .timeWithNanos(() -> HybridQuickHeapSort.sort(arr, 0, arr.length - 1, depth), warmups, reps);
-        boolean ok = SortUtils.isSorted(arr);
+        Benchmark.Timing timing = Benchmark.timeWithNanos(base::clone,
+            arr -> HybridQuickHeapSort.sort(arr, 0, arr.length - 1, depth), warmups, reps);
+        Integer[] check = base.clone();
+        HybridQuickHeapSort.sort(check, 0, check.length - 1, depth);
+        boolean ok = SortUtils.isSorted(check);
         long bestMillis = timing.bestMillis();
         long bestNanos = timing.bestNanos();
         System.out.printf(Locale.US, "n=%d, k=%.2f (depth=%d) => %d ms (%d ns), ok=%s%n", n, k, depth, bestMillis,
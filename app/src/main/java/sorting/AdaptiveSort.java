@@ -0,0 +1,61 @@
+package sorting;
+
+/**
+ * Picks between {@link PowerSort} and {@link HybridQuickHeapSort} by sampling the input.
+ *
+ * <p>{@value #SAMPLES} evenly spaced windows of {@value #WINDOW} adjacent pairs are compared. If
+ * at least {@value #PRESORTED_PERCENT}% of the sampled pairs ascend, or that many strictly
+ * descend, the input probably consists of long runs and the run-adaptive merge sort is used;
+ * otherwise the introsort is faster. The sample costs about 500 comparisons regardless of size.
+ * Like the introsort, the result is not guaranteed to be stable; use {@link PowerSort} directly
+ * when stability matters.
+ */
+public class AdaptiveSort {
+  private AdaptiveSort() {
+  }
+
+  private static final int SAMPLES = 64;
+  private static final int WINDOW = 8;
+  private static final int PRESORTED_PERCENT = 85;
+
+  public static <T extends Comparable<T>> void sort(T[] a) {
+    sort(a, 0, a.length - 1);
+  }
+
+  public static <T extends Comparable<T>> void sort(T[] a, int left, int right) {
+    if (right - left < 1)
+      return;
+    if (looksPresorted(a, left, right))
+      PowerSort.sort(a, left, right, Comparable::compareTo);
+    else
+      HybridQuickHeapSort.sort(a, left, right, HybridQuickHeapSort.defaultDepthLimit(right - left + 1));
+  }
+
+  /**
+   * Returns whether the sampled adjacent pairs of {@code [left, right]} are mostly ordered in one
+   * direction. Ranges of at most {@code SAMPLES * WINDOW} pairs are scanned completely.
+   */
+  static <T extends Comparable<T>> boolean looksPresorted(T[] a, int left, int right) {
+    int pairs = right - left;
+    boolean complete = pairs <= SAMPLES * WINDOW;
+    int windows = complete ? 1 : SAMPLES;
+    int width = complete ? pairs : WINDOW;
+    long stride = (long) pairs / windows;
+    int ascending = 0;
+    int descending = 0;
+    int sampled = 0;
+    for (int w = 0; w < windows; w++) {
+      int start = left + (int) (w * stride);
+      int end = Math.min(right, start + width);
+      for (int i = start; i < end; i++) {
+        if (a[i].compareTo(a[i + 1]) <= 0)
+          ascending++;
+        else
+          descending++;
+        sampled++;
+      }
+    }
+    int needed = (sampled * PRESORTED_PERCENT + 99) / 100;
+    return ascending >= needed || descending >= needed;
+  }
+}
@@ -0,0 +1,367 @@
+package sorting;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts files of fixed-size records that do not fit in memory.
+ *
+ * <p>The input is read in runs of {@code runRecords} records. Each run is sorted with
+ * {@link HybridQuickHeapSort} and spilled to a temporary file by a task on the fork-join pool
+ * while the next run is read, with at most {@code parallelism} runs in flight. The runs are then
+ * merged {@code fanIn} at a time through a {@link LoserTree}: intermediate passes merge up to
+ * {@code parallelism} groups concurrently, and the final pass writes the output file. All I/O
+ * goes through {@link java.nio.channels.FileChannel}s with direct buffers of {@code bufferBytes}.
+ *
+ * <p>Memory is bounded by {@code (parallelism + 1) * runRecords} records while runs are formed
+ * and by {@code parallelism * (fanIn + 1) * bufferBytes} while merging. Temporary files are deleted when the
+ * sort ends, successfully or not. An input that fits in one run is sorted in memory and written
+ * straight to the output. The sort is not stable.
+ *
+ * @param <T> the record type
+ */
+public final class ExternalSort<T extends Comparable<T>> {
+
+  public static final int DEFAULT_RUN_RECORDS = 1 << 20;
+  public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+  public static final int DEFAULT_FAN_IN = 64;
+
+  private final RecordCodec<T> codec;
+  private final int runRecords;
+  private final int bufferBytes;
+  private final int fanIn;
+  private final Path tempDirectory;
+  private final ForkJoinPool pool;
+  private final int parallelism;
+
+  private ExternalSort(Builder<T> builder) {
+    this.codec = builder.codec;
+    this.runRecords = builder.runRecords;
+    this.bufferBytes = builder.bufferBytes;
+    this.fanIn = builder.fanIn;
+    this.tempDirectory = builder.tempDirectory;
+    this.pool = builder.pool;
+    this.parallelism = builder.parallelism > 0 ? builder.parallelism : builder.pool.getParallelism();
+  }
+
+  public static <T extends Comparable<T>> Builder<T> builder(RecordCodec<T> codec) {
+    return new Builder<>(codec);
+  }
+
+  /**
+   * Sorts the records of {@code input} into {@code output}, replacing it if it exists. The two
+   * paths must differ.
+   *
+   * @throws IOException if a file cannot be read or written, or the input size is not a multiple
+   *     of the record size
+   */
+  public Result sort(Path input, Path output) throws IOException {
+    long bytes = Files.size(input);
+    if (bytes % codec.recordBytes() != 0) {
+      throw new IOException("Size of " + input + " is not a multiple of " + codec.recordBytes() + " bytes.");
+    }
+    long records = bytes / codec.recordBytes();
+    if (records <= runRecords) {
+      sortInMemory(input, output, (int) records);
+      return new Result(records, records == 0 ? 0 : 1, 0);
+    }
+
+    List<Path> temporary = new ArrayList<>();
+    try {
+      List<Path> runs = spillRuns(input, temporary);
+      int initialRuns = runs.size();
+      int passes = 0;
+      while (runs.size() > fanIn) {
+        runs = mergePass(runs, temporary);
+        passes++;
+      }
+      merge(runs, output);
+      return new Result(records, initialRuns, passes + 1);
+    } finally {
+      for (Path file : temporary) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /**
+   * Merges each group of {@code fanIn} runs into a new run, up to {@code parallelism} groups at a
+   * time, and deletes the inputs.
+   */
+  private List<Path> mergePass(List<Path> runs, List<Path> temporary) throws IOException {
+    List<Path> merged = new ArrayList<>();
+    ArrayDeque<Future<?>> inFlight = new ArrayDeque<>();
+    try {
+      for (int i = 0; i < runs.size(); i += fanIn) {
+        if (inFlight.size() >= parallelism) {
+          await(inFlight.poll());
+        }
+        List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+        Path target = createTempFile(temporary);
+        merged.add(target);
+        inFlight.add(pool.submit(() -> {
+          try {
+            merge(group, target);
+            for (Path run : group) {
+              Files.deleteIfExists(run);
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          return null;
+        }));
+      }
+      while (!inFlight.isEmpty()) {
+        await(inFlight.poll());
+      }
+    } finally {
+      drain(inFlight);
+    }
+    return merged;
+  }
+
+  private void sortInMemory(Path input, Path output, int count) throws IOException {
+    T[] run = newRun(count);
+    try (RecordChannels.Reader<T> reader = new RecordChannels.Reader<>(input, codec, bufferBytes)) {
+      for (int i = 0; i < count; i++) {
+        run[i] = reader.next();
+      }
+    }
+    spill(run, count, output);
+  }
+
+  private List<Path> spillRuns(Path input, List<Path> temporary) throws IOException {
+    List<Path> runs = new ArrayList<>();
+    ArrayDeque<Future<T[]>> inFlight = new ArrayDeque<>();
+    ArrayDeque<T[]> free = new ArrayDeque<>();
+    try (RecordChannels.Reader<T> reader = new RecordChannels.Reader<>(input, codec, bufferBytes)) {
+      while (true) {
+        if (inFlight.size() >= parallelism) {
+          free.push(await(inFlight.poll()));
+        }
+        T[] run = free.isEmpty() ? newRun(runRecords) : free.pop();
+        int count = 0;
+        T record;
+        while (count < runRecords && (record = reader.next()) != null) {
+          run[count++] = record;
+        }
+        if (count == 0) {
+          break;
+        }
+        Path file = createTempFile(temporary);
+        runs.add(file);
+        int size = count;
+        inFlight.add(pool.submit(() -> {
+          try {
+            spill(run, size, file);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          return run;
+        }));
+        if (count < runRecords) {
+          break;
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        await(inFlight.poll());
+      }
+    } finally {
+      drain(inFlight);
+    }
+    return runs;
+  }
+
+  /**
+   * Sorts the first {@code count} records of {@code run} and writes them to {@code file}.
+   */
+  private void spill(T[] run, int count, Path file) throws IOException {
+    HybridQuickHeapSort.sort(run, 0, count - 1, HybridQuickHeapSort.defaultDepthLimit(count));
+    try (RecordChannels.Writer<T> writer = new RecordChannels.Writer<>(file, codec, bufferBytes)) {
+      for (int i = 0; i < count; i++) {
+        writer.write(run[i]);
+      }
+    }
+  }
+
+  private void merge(List<Path> runs, Path output) throws IOException {
+    List<RecordChannels.Reader<T>> readers = new ArrayList<>(runs.size());
+    try {
+      for (Path run : runs) {
+        readers.add(new RecordChannels.Reader<>(run, codec, bufferBytes));
+      }
+      LoserTree<T> tree = new LoserTree<>(readers);
+      try (RecordChannels.Writer<T> writer = new RecordChannels.Writer<>(output, codec, bufferBytes)) {
+        T record;
+        while ((record = tree.next()) != null) {
+          writer.write(record);
+        }
+      }
+    } finally {
+      IOException failure = null;
+      for (RecordChannels.Reader<T> reader : readers) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  /**
+   * Waits for abandoned tasks after a failure so they do not write into deleted files.
+   */
+  private static void drain(ArrayDeque<? extends Future<?>> tasks) {
+    for (Future<?> task : tasks) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | RuntimeException e) {
+        // The failure that got us here is already propagating.
+      }
+    }
+  }
+
+  private static <R> R await(Future<R> task) throws IOException {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a run.");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException unchecked) {
+        throw unchecked.getCause();
+      }
+      if (cause instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private Path createTempFile(List<Path> temporary) throws IOException {
+    Path file = tempDirectory == null
+        ? Files.createTempFile("sort-run-", ".bin")
+        : Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+    temporary.add(file);
+    return file;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T[] newRun(int size) {
+    return (T[]) new Comparable<?>[size];
+  }
+
+  /**
+   * Summary of a finished sort.
+   *
+   * @param records the number of records sorted
+   * @param runs the number of sorted runs formed from the input
+   * @param mergePasses the number of passes over the data after run formation
+   */
+  public record Result(long records, int runs, int mergePasses) {
+  }
+
+  /**
+   * Configures an {@link ExternalSort}; every setting has a default.
+   */
+  public static final class Builder<T extends Comparable<T>> {
+    private final RecordCodec<T> codec;
+    private int runRecords = DEFAULT_RUN_RECORDS;
+    private int bufferBytes = DEFAULT_BUFFER_BYTES;
+    private int fanIn = DEFAULT_FAN_IN;
+    private Path tempDirectory;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int parallelism;
+
+    private Builder(RecordCodec<T> codec) {
+      this.codec = Objects.requireNonNull(codec, "codec");
+      if (codec.recordBytes() < 1) {
+        throw new IllegalArgumentException("Record size must be positive: " + codec.recordBytes());
+      }
+    }
+
+    /**
+     * Sets the number of records sorted in memory per run.
+     */
+    public Builder<T> runRecords(int runRecords) {
+      if (runRecords < 1) {
+        throw new IllegalArgumentException("Run size must be positive: " + runRecords);
+      }
+      this.runRecords = runRecords;
+      return this;
+    }
+
+    /**
+     * Sets the size of each read and write buffer, rounded down to whole records (at least one).
+     */
+    public Builder<T> bufferBytes(int bufferBytes) {
+      if (bufferBytes < 1) {
+        throw new IllegalArgumentException("Buffer size must be positive: " + bufferBytes);
+      }
+      this.bufferBytes = bufferBytes;
+      return this;
+    }
+
+    /**
+     * Sets the number of runs merged at once.
+     */
+    public Builder<T> fanIn(int fanIn) {
+      if (fanIn < 2) {
+        throw new IllegalArgumentException("Merge fan-in must be at least 2: " + fanIn);
+      }
+      this.fanIn = fanIn;
+      return this;
+    }
+
+    /**
+     * Sets the directory for spilled runs; the default temporary-file directory is used otherwise.
+     */
+    public Builder<T> tempDirectory(Path tempDirectory) {
+      this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory");
+      return this;
+    }
+
+    /**
+     * Sets the pool that sorts and spills runs, and by default the number of runs in flight.
+     */
+    public Builder<T> pool(ForkJoinPool pool) {
+      this.pool = Objects.requireNonNull(pool, "pool");
+      return this;
+    }
+
+    /**
+     * Sets the number of runs sorted and spilled concurrently; defaults to the pool's parallelism.
+     */
+    public Builder<T> parallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    public ExternalSort<T> build() {
+      return new ExternalSort<>(this);
+    }
+  }
+}
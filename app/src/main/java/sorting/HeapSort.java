@@ -1,7 +1,20 @@
 package sorting;
 
+import java.util.Comparator;
+
 /**
  * Utility class that exposes a heap sort implementation for array segments.
+ *
+ * <p>Sifting follows Floyd's bottom-up method: the hole left at the root moves down along the
+ * larger child to a leaf, one comparison per level, and the displaced element then climbs back up
+ * from that leaf. Elements move through the hole instead of being swapped. Because the displaced
+ * element is usually small it climbs only a level or two, so the sort makes close to
+ * {@code n log2 n} comparisons instead of about {@code 2 n log2 n}.
+ *
+ * <p>The {@code sortQuaternary} overloads use a 4-ary heap, where the children of the node at
+ * offset {@code i} are at {@code 4i + 1 .. 4i + 4}. It has half the levels, and siblings share a
+ * cache line, but it needs three comparisons per level instead of one. It suits memory systems
+ * where cache misses dominate; {@link HybridQuickHeapSort} falls back to the binary heap.
  */
 public class HeapSort {
   private HeapSort() {
@@ -19,57 +32,433 @@ public class HeapSort {
   public static <AnyType extends Comparable<? super AnyType>> void sort(AnyType[] a, int left, int right) {
     if (right - left + 1 <= 1)
       return;
-    buildMaxHeap(a, left, right);
+    for (int i = left + (right - left + 1) / 2 - 1; i >= left; i--) {
+      siftDown(a, left, i, a[i], right);
+    }
     for (int end = right; end > left; end--) {
-      SortUtils.swap(a, left, end);
-      siftDown(a, left, left, end - 1);
+      AnyType x = a[end];
+      a[end] = a[left];
+      siftDown(a, left, left, x, end - 1);
     }
   }
 
   /**
-   * Builds a max-heap spanning the inclusive range {@code [left, right]} of the array so the
-   * largest element resides at {@code left}.
+   * Sorts the inclusive range {@code [left, right]} like {@link #sort(Comparable[], int, int)}
+   * using a 4-ary heap.
+   */
+  public static <AnyType extends Comparable<? super AnyType>> void sortQuaternary(AnyType[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left - 1) / 4; i >= left; i--) {
+      siftDownQuaternary(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      AnyType x = a[end];
+      a[end] = a[left];
+      siftDownQuaternary(a, left, left, x, end - 1);
+    }
+  }
+
+  /**
+   * Places {@code x} into the hole at {@code root} of the binary heap occupying the inclusive
+   * range {@code [left, right]}, whose root is at {@code left}.
    *
    * @param <AnyType> the element type, which must be comparable to itself or a super type
    * @param a the array containing the heap elements
    * @param left the inclusive lower bound of the heap
+   * @param root the index of the hole
+   * @param x the element to place
    * @param right the inclusive upper bound of the heap
    */
-  private static <AnyType extends Comparable<? super AnyType>> void buildMaxHeap(AnyType[] a, int left, int right) {
-    int lastParent = left + ((right - left + 1) / 2) - 1;
-    for (int i = lastParent; i >= left; i--) {
-      siftDown(a, i, left, right);
+  private static <AnyType extends Comparable<? super AnyType>> void siftDown(AnyType[] a, int left, int root,
+      AnyType x, int right) {
+    int half = (right - left) >>> 1;
+    int hole = root;
+    while (hole - left < half) {
+      int child = 2 * hole - left + 1;
+      if (a[child + 1].compareTo(a[child]) > 0)
+        child++;
+      a[hole] = a[child];
+      hole = child;
+    }
+    if (hole - left == half && ((right - left) & 1) != 0) {
+      a[hole] = a[right];
+      hole = right;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 1) + left;
+      if (a[parent].compareTo(x) >= 0)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  private static <AnyType extends Comparable<? super AnyType>> void siftDownQuaternary(AnyType[] a, int left,
+      int root, AnyType x, int right) {
+    int parents = (right - left - 1) >> 2;
+    int hole = root;
+    while (hole - left <= parents) {
+      int child = 4 * hole - 3 * left + 1;
+      int max;
+      if (right - child >= 3) {
+        int m1 = a[child + 1].compareTo(a[child]) > 0 ? child + 1 : child;
+        int m2 = a[child + 3].compareTo(a[child + 2]) > 0 ? child + 3 : child + 2;
+        max = a[m2].compareTo(a[m1]) > 0 ? m2 : m1;
+      } else {
+        max = child;
+        for (int c = child + 1; c <= right; c++) {
+          if (a[c].compareTo(a[max]) > 0)
+            max = c;
+        }
+      }
+      a[hole] = a[max];
+      hole = max;
     }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 2) + left;
+      if (a[parent].compareTo(x) >= 0)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
   }
 
   /**
-   * Restores the max-heap property for a node at {@code i} within the inclusive range
-   * {@code [left, right]} by moving it downward until both children are less than or equal.
+   * Sorts the inclusive range {@code [left, right]} of the supplied array in the order imposed by
+   * {@code c} using the heap sort algorithm.
    *
-   * @param <AnyType> the element type, which must be comparable to itself or a super type
-   * @param a the array containing the heap elements
-   * @param i the index of the node to sift
-   * @param left the inclusive lower bound of the heap
-   * @param right the inclusive upper bound of the heap
+   * @param <T> the element type
+   * @param a the array containing the elements to sort
+   * @param left the inclusive lower bound of the range to sort
+   * @param right the inclusive upper bound of the range to sort
+   * @param c the comparator that orders the elements
    */
-  private static <AnyType extends Comparable<? super AnyType>> void siftDown(AnyType[] a, int i, int left, int right) {
-    while (true) {
-      int l = leftChild(i, left);
-      int r = l + 1;
-      int largest = i;
-      if (l <= right && a[l].compareTo(a[largest]) > 0)
-        largest = l;
-      if (r <= right && a[r].compareTo(a[largest]) > 0)
-        largest = r;
-      if (largest == i)
+  public static <T> void sort(T[] a, int left, int right, Comparator<? super T> c) {
+    sort(a, left, right, c, null);
+  }
+
+  /**
+   * Counts each move of the maximum to the end of the range as a swap.
+   */
+  static <T> void sort(T[] a, int left, int right, Comparator<? super T> c, SortCounters counters) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left + 1) / 2 - 1; i >= left; i--) {
+      siftDown(a, left, i, a[i], right, c);
+    }
+    for (int end = right; end > left; end--) {
+      if (counters != null)
+        counters.swaps++;
+      T x = a[end];
+      a[end] = a[left];
+      siftDown(a, left, left, x, end - 1, c);
+    }
+  }
+
+  private static <T> void siftDown(T[] a, int left, int root, T x, int right, Comparator<? super T> c) {
+    int half = (right - left) >>> 1;
+    int hole = root;
+    while (hole - left < half) {
+      int child = 2 * hole - left + 1;
+      if (c.compare(a[child + 1], a[child]) > 0)
+        child++;
+      a[hole] = a[child];
+      hole = child;
+    }
+    if (hole - left == half && ((right - left) & 1) != 0) {
+      a[hole] = a[right];
+      hole = right;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 1) + left;
+      if (c.compare(a[parent], x) >= 0)
         break;
-      SortUtils.swap(a, i, largest);
-      i = largest;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  /**
+   * Sorts the inclusive range {@code [left, right]} of the supplied {@code int} array in
+   * ascending order using the heap sort algorithm.
+   *
+   * @param a the array containing the elements to sort
+   * @param left the inclusive lower bound of the range to sort
+   * @param right the inclusive upper bound of the range to sort
+   */
+  public static void sort(int[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left + 1) / 2 - 1; i >= left; i--) {
+      siftDown(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      int x = a[end];
+      a[end] = a[left];
+      siftDown(a, left, left, x, end - 1);
     }
   }
 
-  private static int leftChild(int i, int left) {
-    return (i - left) * 2 + 1 + left;
+  /**
+   * Sorts the inclusive range {@code [left, right]} like {@link #sort(int[], int, int)} using a
+   * 4-ary heap.
+   */
+  public static void sortQuaternary(int[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left - 1) / 4; i >= left; i--) {
+      siftDownQuaternary(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      int x = a[end];
+      a[end] = a[left];
+      siftDownQuaternary(a, left, left, x, end - 1);
+    }
   }
 
+  private static void siftDown(int[] a, int left, int root, int x, int right) {
+    int half = (right - left) >>> 1;
+    int hole = root;
+    while (hole - left < half) {
+      int child = 2 * hole - left + 1;
+      if (a[child + 1] > a[child])
+        child++;
+      a[hole] = a[child];
+      hole = child;
+    }
+    if (hole - left == half && ((right - left) & 1) != 0) {
+      a[hole] = a[right];
+      hole = right;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 1) + left;
+      if (a[parent] >= x)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  private static void siftDownQuaternary(int[] a, int left, int root, int x, int right) {
+    int parents = (right - left - 1) >> 2;
+    int hole = root;
+    while (hole - left <= parents) {
+      int child = 4 * hole - 3 * left + 1;
+      int max;
+      if (right - child >= 3) {
+        // A tournament keeps the two pairwise comparisons independent of each other.
+        int m1 = a[child + 1] > a[child] ? child + 1 : child;
+        int m2 = a[child + 3] > a[child + 2] ? child + 3 : child + 2;
+        max = a[m2] > a[m1] ? m2 : m1;
+      } else {
+        max = child;
+        for (int c = child + 1; c <= right; c++) {
+          if (a[c] > a[max])
+            max = c;
+        }
+      }
+      a[hole] = a[max];
+      hole = max;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 2) + left;
+      if (a[parent] >= x)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  /**
+   * Sorts the inclusive range {@code [left, right]} of the supplied {@code long} array in
+   * ascending order using the heap sort algorithm.
+   *
+   * @param a the array containing the elements to sort
+   * @param left the inclusive lower bound of the range to sort
+   * @param right the inclusive upper bound of the range to sort
+   */
+  public static void sort(long[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left + 1) / 2 - 1; i >= left; i--) {
+      siftDown(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      long x = a[end];
+      a[end] = a[left];
+      siftDown(a, left, left, x, end - 1);
+    }
+  }
+
+  /**
+   * Sorts the inclusive range {@code [left, right]} like {@link #sort(long[], int, int)} using a
+   * 4-ary heap.
+   */
+  public static void sortQuaternary(long[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left - 1) / 4; i >= left; i--) {
+      siftDownQuaternary(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      long x = a[end];
+      a[end] = a[left];
+      siftDownQuaternary(a, left, left, x, end - 1);
+    }
+  }
+
+  private static void siftDown(long[] a, int left, int root, long x, int right) {
+    int half = (right - left) >>> 1;
+    int hole = root;
+    while (hole - left < half) {
+      int child = 2 * hole - left + 1;
+      if (a[child + 1] > a[child])
+        child++;
+      a[hole] = a[child];
+      hole = child;
+    }
+    if (hole - left == half && ((right - left) & 1) != 0) {
+      a[hole] = a[right];
+      hole = right;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 1) + left;
+      if (a[parent] >= x)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  private static void siftDownQuaternary(long[] a, int left, int root, long x, int right) {
+    int parents = (right - left - 1) >> 2;
+    int hole = root;
+    while (hole - left <= parents) {
+      int child = 4 * hole - 3 * left + 1;
+      int max;
+      if (right - child >= 3) {
+        // A tournament keeps the two pairwise comparisons independent of each other.
+        int m1 = a[child + 1] > a[child] ? child + 1 : child;
+        int m2 = a[child + 3] > a[child + 2] ? child + 3 : child + 2;
+        max = a[m2] > a[m1] ? m2 : m1;
+      } else {
+        max = child;
+        for (int c = child + 1; c <= right; c++) {
+          if (a[c] > a[max])
+            max = c;
+        }
+      }
+      a[hole] = a[max];
+      hole = max;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 2) + left;
+      if (a[parent] >= x)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  /**
+   * Sorts the inclusive range {@code [left, right]} of the supplied {@code double} array in
+   * ascending order using the heap sort algorithm. The range must not
+   * contain NaN; {@code -0.0} and {@code 0.0} are treated as equal.
+   *
+   * @param a the array containing the elements to sort
+   * @param left the inclusive lower bound of the range to sort
+   * @param right the inclusive upper bound of the range to sort
+   */
+  public static void sort(double[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left + 1) / 2 - 1; i >= left; i--) {
+      siftDown(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      double x = a[end];
+      a[end] = a[left];
+      siftDown(a, left, left, x, end - 1);
+    }
+  }
+
+  /**
+   * Sorts the inclusive range {@code [left, right]} like {@link #sort(double[], int, int)} using a
+   * 4-ary heap.
+   */
+  public static void sortQuaternary(double[] a, int left, int right) {
+    if (right - left + 1 <= 1)
+      return;
+    for (int i = left + (right - left - 1) / 4; i >= left; i--) {
+      siftDownQuaternary(a, left, i, a[i], right);
+    }
+    for (int end = right; end > left; end--) {
+      double x = a[end];
+      a[end] = a[left];
+      siftDownQuaternary(a, left, left, x, end - 1);
+    }
+  }
+
+  private static void siftDown(double[] a, int left, int root, double x, int right) {
+    int half = (right - left) >>> 1;
+    int hole = root;
+    while (hole - left < half) {
+      int child = 2 * hole - left + 1;
+      if (a[child + 1] > a[child])
+        child++;
+      a[hole] = a[child];
+      hole = child;
+    }
+    if (hole - left == half && ((right - left) & 1) != 0) {
+      a[hole] = a[right];
+      hole = right;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 1) + left;
+      if (a[parent] >= x)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
+
+  private static void siftDownQuaternary(double[] a, int left, int root, double x, int right) {
+    int parents = (right - left - 1) >> 2;
+    int hole = root;
+    while (hole - left <= parents) {
+      int child = 4 * hole - 3 * left + 1;
+      int max;
+      if (right - child >= 3) {
+        // A tournament keeps the two pairwise comparisons independent of each other.
+        int m1 = a[child + 1] > a[child] ? child + 1 : child;
+        int m2 = a[child + 3] > a[child + 2] ? child + 3 : child + 2;
+        max = a[m2] > a[m1] ? m2 : m1;
+      } else {
+        max = child;
+        for (int c = child + 1; c <= right; c++) {
+          if (a[c] > a[max])
+            max = c;
+        }
+      }
+      a[hole] = a[max];
+      hole = max;
+    }
+    while (hole > root) {
+      int parent = ((hole - left - 1) >>> 2) + left;
+      if (a[parent] >= x)
+        break;
+      a[hole] = a[parent];
+      hole = parent;
+    }
+    a[hole] = x;
+  }
 }
@@ -1,12 +1,42 @@
 package sorting;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Hybrid sorting algorithm combining QuickSort and HeapSort.
+ *
+ * <p>The {@code int[]}, {@code long[]} and {@code double[]} overloads run the same pipeline
+ * (heap sort fallback, insertion sort cutoff) on primitive arrays without boxing, but partition
+ * with {@link PdqPartition}: ninther pivots, branchless block partitioning, a skip over keys equal
+ * to the previous pivot, and pattern breaking after unbalanced partitions. Each level still uses
+ * one unit of the depth limit. The only allocation is a small offset buffer per sort or parallel
+ * task. The {@code double[]} overloads order values like
+ * {@link java.util.Arrays#sort(double[])}: {@code -0.0} sorts before {@code 0.0} and NaNs go last.
+ *
+ * <p>The {@code parallelSort} entry points partition on the calling task and fork the two
+ * halves into a {@link ForkJoinPool} while a range is larger than the parallel threshold; smaller
+ * ranges use the sequential {@code sort}. Every subtask inherits the remaining depth limit, so the
+ * heap sort fallback still bounds the work of each branch.
+ *
+ * <p>Object arrays can also be sorted by a {@link Comparator}, optionally collecting
+ * {@link SortCounters}. To sort by a primitive key, use {@link RadixSort#sortByIntKey} or
+ * {@link RadixSort#sortByLongKey}.
  */
 public class HybridQuickHeapSort {
   private HybridQuickHeapSort() {
   }
 
+  private static final int INSERTION_THRESHOLD = 16;
+
+  /**
+   * Default range size below which {@code parallelSort} stops forking and sorts sequentially.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+
   public static <T extends Comparable<T>> void sort(T[] a) {
     sort(a, 0, a.length - 1, defaultDepthLimit(a.length));
   }
@@ -15,9 +45,10 @@ public class HybridQuickHeapSort {
 
     if (depthLimit <= 0) {
       HeapSort.sort(a, left, right);
+      return;
     }
 
-    if (right - left + 1 <= 16) {
+    if (right - left + 1 <= INSERTION_THRESHOLD) {
       SortUtils.insertionSort(a, left, right);
       return;
     }
@@ -27,11 +58,390 @@ public class HybridQuickHeapSort {
     sort(a, p + 1, right, depthLimit - 1);
   }
 
-  private static int defaultDepthLimit(int n) {
+  public static <T> void sort(T[] a, Comparator<? super T> c) {
+    sort(a, 0, a.length - 1, defaultDepthLimit(a.length), c);
+  }
+
+  public static <T> void sort(T[] a, int left, int right, int depthLimit, Comparator<? super T> c) {
+    sortRange(a, left, right, depthLimit, Objects.requireNonNull(c, "comparator"), null);
+  }
+
+  /**
+   * Sorts like {@link #sort(Object[], int, int, int, Comparator)} and adds the comparisons, swaps
+   * and heap fallbacks it makes to {@code counters}.
+   */
+  public static <T> void sort(T[] a, int left, int right, int depthLimit, Comparator<? super T> c,
+      SortCounters counters) {
+    Objects.requireNonNull(c, "comparator");
+    sortRange(a, left, right, depthLimit, counters.counting(c), counters);
+  }
+
+  private static <T> void sortRange(T[] a, int left, int right, int depthLimit, Comparator<? super T> c,
+      SortCounters counters) {
+    if (depthLimit <= 0) {
+      if (counters != null && right > left)
+        counters.heapFallbacks++;
+      HeapSort.sort(a, left, right, c, counters);
+      return;
+    }
+
+    if (right - left + 1 <= INSERTION_THRESHOLD) {
+      SortUtils.insertionSort(a, left, right, c);
+      return;
+    }
+
+    int p = QuickSort.hoarePartition(a, left, right, c, counters);
+    sortRange(a, left, p, depthLimit - 1, c, counters);
+    sortRange(a, p + 1, right, depthLimit - 1, c, counters);
+  }
+
+  public static void sort(int[] a) {
+    sort(a, 0, a.length - 1, defaultDepthLimit(a.length));
+  }
+
+  public static void sort(int[] a, int left, int right, int depthLimit) {
+    sort(a, left, right, depthLimit, true, PdqPartition.newOffsets());
+  }
+
+  /**
+   * Sorts {@code [left, right]} with {@link PdqPartition}. Unless the range is {@code leftmost},
+   * {@code a[left - 1]} is a previous pivot that is not above any key in the range.
+   */
+  private static void sort(int[] a, int left, int right, int depthLimit, boolean leftmost, int[] offsets) {
+    while (true) {
+      if (depthLimit <= 0) {
+        HeapSort.sort(a, left, right);
+        return;
+      }
+
+      if (right - left + 1 <= INSERTION_THRESHOLD) {
+        SortUtils.insertionSort(a, left, right);
+        return;
+      }
+
+      PdqPartition.choosePivot(a, left, right);
+      if (!leftmost && a[left - 1] >= a[left]) {
+        left = PdqPartition.partitionLeft(a, left, right) + 1;
+        continue;
+      }
+      long partition = PdqPartition.partitionRight(a, left, right, offsets);
+      int p = (int) (partition >> 1);
+      if (PdqPartition.isUnbalanced(left, p, right)) {
+        PdqPartition.breakPatterns(a, left, p, right);
+      } else if ((partition & 1) != 0 && PdqPartition.partialInsertionSort(a, left, p - 1)
+          && PdqPartition.partialInsertionSort(a, p + 1, right)) {
+        return;
+      }
+      depthLimit--;
+      sort(a, left, p - 1, depthLimit, leftmost, offsets);
+      left = p + 1;
+      leftmost = false;
+    }
+  }
+
+  public static void sort(long[] a) {
+    sort(a, 0, a.length - 1, defaultDepthLimit(a.length));
+  }
+
+  public static void sort(long[] a, int left, int right, int depthLimit) {
+    sort(a, left, right, depthLimit, true, PdqPartition.newOffsets());
+  }
+
+  /**
+   * Sorts {@code [left, right]} with {@link PdqPartition}. Unless the range is {@code leftmost},
+   * {@code a[left - 1]} is a previous pivot that is not above any key in the range.
+   */
+  private static void sort(long[] a, int left, int right, int depthLimit, boolean leftmost, int[] offsets) {
+    while (true) {
+      if (depthLimit <= 0) {
+        HeapSort.sort(a, left, right);
+        return;
+      }
+
+      if (right - left + 1 <= INSERTION_THRESHOLD) {
+        SortUtils.insertionSort(a, left, right);
+        return;
+      }
+
+      PdqPartition.choosePivot(a, left, right);
+      if (!leftmost && a[left - 1] >= a[left]) {
+        left = PdqPartition.partitionLeft(a, left, right) + 1;
+        continue;
+      }
+      long partition = PdqPartition.partitionRight(a, left, right, offsets);
+      int p = (int) (partition >> 1);
+      if (PdqPartition.isUnbalanced(left, p, right)) {
+        PdqPartition.breakPatterns(a, left, p, right);
+      } else if ((partition & 1) != 0 && PdqPartition.partialInsertionSort(a, left, p - 1)
+          && PdqPartition.partialInsertionSort(a, p + 1, right)) {
+        return;
+      }
+      depthLimit--;
+      sort(a, left, p - 1, depthLimit, leftmost, offsets);
+      left = p + 1;
+      leftmost = false;
+    }
+  }
+
+  public static void sort(double[] a) {
+    sort(a, 0, a.length - 1, defaultDepthLimit(a.length));
+  }
+
+  /**
+   * Sorts {@code [left, right]} using the {@link Double#compare} total order. NaNs are moved
+   * behind the sorted values and negative zeros are restored after the primitive sort.
+   */
+  public static void sort(double[] a, int left, int right, int depthLimit) {
+    long prepared = SortUtils.prepareDoubles(a, left, right);
+    int end = (int) prepared;
+    int negativeZeros = (int) (prepared >>> 32);
+    sortNonNaN(a, left, end, depthLimit, true, PdqPartition.newOffsets());
+    SortUtils.restoreNegativeZeros(a, left, end, negativeZeros);
+  }
+
+  /**
+   * Sorts {@code [left, right]}, which holds no NaNs, with {@link PdqPartition}. Unless the range
+   * is {@code leftmost}, {@code a[left - 1]} is a previous pivot that is not above any key in the
+   * range.
+   */
+  private static void sortNonNaN(double[] a, int left, int right, int depthLimit, boolean leftmost, int[] offsets) {
+    while (true) {
+      if (depthLimit <= 0) {
+        HeapSort.sort(a, left, right);
+        return;
+      }
+
+      if (right - left + 1 <= INSERTION_THRESHOLD) {
+        SortUtils.insertionSort(a, left, right);
+        return;
+      }
+
+      PdqPartition.choosePivot(a, left, right);
+      if (!leftmost && a[left - 1] >= a[left]) {
+        left = PdqPartition.partitionLeft(a, left, right) + 1;
+        continue;
+      }
+      long partition = PdqPartition.partitionRight(a, left, right, offsets);
+      int p = (int) (partition >> 1);
+      if (PdqPartition.isUnbalanced(left, p, right)) {
+        PdqPartition.breakPatterns(a, left, p, right);
+      } else if ((partition & 1) != 0 && PdqPartition.partialInsertionSort(a, left, p - 1)
+          && PdqPartition.partialInsertionSort(a, p + 1, right)) {
+        return;
+      }
+      depthLimit--;
+      sortNonNaN(a, left, p - 1, depthLimit, leftmost, offsets);
+      left = p + 1;
+      leftmost = false;
+    }
+  }
+
+  public static <T extends Comparable<T>> void parallelSort(T[] a) {
+    parallelSort(a, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Sorts the array in parallel on {@code pool}; ranges of at most {@code threshold} elements are
+   * sorted sequentially.
+   *
+   * @param <T> the element type
+   * @param a the array to sort
+   * @param pool the pool that runs the fork-join tasks
+   * @param threshold the largest range size that is sorted without forking, at least 1
+   */
+  public static <T extends Comparable<T>> void parallelSort(T[] a, ForkJoinPool pool, int threshold) {
+    checkParallelArguments(pool, threshold);
+    pool.invoke(new ObjectSortTask<>(a, 0, a.length - 1, defaultDepthLimit(a.length), threshold));
+  }
+
+  public static void parallelSort(int[] a) {
+    parallelSort(a, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  public static void parallelSort(int[] a, ForkJoinPool pool, int threshold) {
+    checkParallelArguments(pool, threshold);
+    pool.invoke(new IntSortTask(a, 0, a.length - 1, defaultDepthLimit(a.length), threshold, true));
+  }
+
+  public static void parallelSort(long[] a) {
+    parallelSort(a, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  public static void parallelSort(long[] a, ForkJoinPool pool, int threshold) {
+    checkParallelArguments(pool, threshold);
+    pool.invoke(new LongSortTask(a, 0, a.length - 1, defaultDepthLimit(a.length), threshold, true));
+  }
+
+  public static void parallelSort(double[] a) {
+    parallelSort(a, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  public static void parallelSort(double[] a, ForkJoinPool pool, int threshold) {
+    checkParallelArguments(pool, threshold);
+    long prepared = SortUtils.prepareDoubles(a, 0, a.length - 1);
+    int end = (int) prepared;
+    int negativeZeros = (int) (prepared >>> 32);
+    pool.invoke(new DoubleSortTask(a, 0, end, defaultDepthLimit(end + 1), threshold, true));
+    SortUtils.restoreNegativeZeros(a, 0, end, negativeZeros);
+  }
+
+  private static void checkParallelArguments(ForkJoinPool pool, int threshold) {
+    Objects.requireNonNull(pool, "pool");
+    if (threshold < 1) {
+      throw new IllegalArgumentException("Parallel threshold must be positive: " + threshold);
+    }
+  }
+
+  static int defaultDepthLimit(int n) {
     if (n <= 0)
       return 0;
     int lg = 31 - Integer.numberOfLeadingZeros(n);
-    return Math.max(1, 2 * lg); 
+    return Math.max(1, 2 * lg);
+  }
+
+  private static final class ObjectSortTask<T extends Comparable<T>> extends RecursiveAction {
+    private final T[] a;
+    private final int left;
+    private final int right;
+    private final int depthLimit;
+    private final int threshold;
+
+    ObjectSortTask(T[] a, int left, int right, int depthLimit, int threshold) {
+      this.a = a;
+      this.left = left;
+      this.right = right;
+      this.depthLimit = depthLimit;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected void compute() {
+      if (right - left + 1 <= threshold || depthLimit <= 0) {
+        sort(a, left, right, depthLimit);
+        return;
+      }
+      int p = QuickSort.hoarePartition(a, left, right);
+      invokeAll(new ObjectSortTask<>(a, left, p, depthLimit - 1, threshold),
+          new ObjectSortTask<>(a, p + 1, right, depthLimit - 1, threshold));
+    }
+  }
+
+  private static final class IntSortTask extends RecursiveAction {
+    private final int[] a;
+    private final int left;
+    private final int right;
+    private final int depthLimit;
+    private final int threshold;
+    private final boolean leftmost;
+
+    IntSortTask(int[] a, int left, int right, int depthLimit, int threshold, boolean leftmost) {
+      this.a = a;
+      this.left = left;
+      this.right = right;
+      this.depthLimit = depthLimit;
+      this.threshold = threshold;
+      this.leftmost = leftmost;
+    }
+
+    @Override
+    protected void compute() {
+      int[] offsets = PdqPartition.newOffsets();
+      int lo = left;
+      // Partitioning needs more elements than the insertion sort cutoff for its sentinels.
+      int cutoff = Math.max(threshold, INSERTION_THRESHOLD);
+      while (right - lo + 1 > cutoff && depthLimit > 0) {
+        PdqPartition.choosePivot(a, lo, right);
+        if (!leftmost && a[lo - 1] >= a[lo]) {
+          lo = PdqPartition.partitionLeft(a, lo, right) + 1;
+          continue;
+        }
+        int p = (int) (PdqPartition.partitionRight(a, lo, right, offsets) >> 1);
+        if (PdqPartition.isUnbalanced(lo, p, right))
+          PdqPartition.breakPatterns(a, lo, p, right);
+        invokeAll(new IntSortTask(a, lo, p - 1, depthLimit - 1, threshold, leftmost),
+            new IntSortTask(a, p + 1, right, depthLimit - 1, threshold, false));
+        return;
+      }
+      sort(a, lo, right, depthLimit, leftmost, offsets);
+    }
+  }
+
+  private static final class LongSortTask extends RecursiveAction {
+    private final long[] a;
+    private final int left;
+    private final int right;
+    private final int depthLimit;
+    private final int threshold;
+    private final boolean leftmost;
+
+    LongSortTask(long[] a, int left, int right, int depthLimit, int threshold, boolean leftmost) {
+      this.a = a;
+      this.left = left;
+      this.right = right;
+      this.depthLimit = depthLimit;
+      this.threshold = threshold;
+      this.leftmost = leftmost;
+    }
+
+    @Override
+    protected void compute() {
+      int[] offsets = PdqPartition.newOffsets();
+      int lo = left;
+      int cutoff = Math.max(threshold, INSERTION_THRESHOLD);
+      while (right - lo + 1 > cutoff && depthLimit > 0) {
+        PdqPartition.choosePivot(a, lo, right);
+        if (!leftmost && a[lo - 1] >= a[lo]) {
+          lo = PdqPartition.partitionLeft(a, lo, right) + 1;
+          continue;
+        }
+        int p = (int) (PdqPartition.partitionRight(a, lo, right, offsets) >> 1);
+        if (PdqPartition.isUnbalanced(lo, p, right))
+          PdqPartition.breakPatterns(a, lo, p, right);
+        invokeAll(new LongSortTask(a, lo, p - 1, depthLimit - 1, threshold, leftmost),
+            new LongSortTask(a, p + 1, right, depthLimit - 1, threshold, false));
+        return;
+      }
+      sort(a, lo, right, depthLimit, leftmost, offsets);
+    }
+  }
+
+  private static final class DoubleSortTask extends RecursiveAction {
+    private final double[] a;
+    private final int left;
+    private final int right;
+    private final int depthLimit;
+    private final int threshold;
+    private final boolean leftmost;
+
+    DoubleSortTask(double[] a, int left, int right, int depthLimit, int threshold, boolean leftmost) {
+      this.a = a;
+      this.left = left;
+      this.right = right;
+      this.depthLimit = depthLimit;
+      this.threshold = threshold;
+      this.leftmost = leftmost;
+    }
+
+    @Override
+    protected void compute() {
+      int[] offsets = PdqPartition.newOffsets();
+      int lo = left;
+      int cutoff = Math.max(threshold, INSERTION_THRESHOLD);
+      while (right - lo + 1 > cutoff && depthLimit > 0) {
+        PdqPartition.choosePivot(a, lo, right);
+        if (!leftmost && a[lo - 1] >= a[lo]) {
+          lo = PdqPartition.partitionLeft(a, lo, right) + 1;
+          continue;
+        }
+        int p = (int) (PdqPartition.partitionRight(a, lo, right, offsets) >> 1);
+        if (PdqPartition.isUnbalanced(lo, p, right))
+          PdqPartition.breakPatterns(a, lo, p, right);
+        invokeAll(new DoubleSortTask(a, lo, p - 1, depthLimit - 1, threshold, leftmost),
+            new DoubleSortTask(a, p + 1, right, depthLimit - 1, threshold, false));
+        return;
+      }
+      sortNonNaN(a, lo, right, depthLimit, leftmost, offsets);
+    }
   }
 
 }
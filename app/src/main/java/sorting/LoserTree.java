@@ -0,0 +1,93 @@
+package sorting;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A tournament tree of losers that merges {@code k} sorted record streams.
+ *
+ * <p>Each internal node remembers the stream that lost the match played there, and slot 0 holds
+ * the overall winner. Replacing the winner's record replays only the matches on its path to the
+ * root, i.e. {@code ceil(log2 k)} comparisons per record, one fewer per level than a binary heap's
+ * sift-down. Exhausted streams count as larger than every record, and equal records are taken from
+ * the stream with the lower index first.
+ */
+final class LoserTree<T extends Comparable<T>> {
+
+  private final List<RecordChannels.Reader<T>> sources;
+  private final Object[] heads;
+  private final int[] tree;
+  private final int k;
+
+  LoserTree(List<RecordChannels.Reader<T>> sources) throws IOException {
+    this.sources = sources;
+    this.k = sources.size();
+    this.heads = new Object[k];
+    this.tree = new int[Math.max(1, k)];
+    for (int i = 0; i < k; i++) {
+      heads[i] = sources.get(i).next();
+    }
+    // Index k stands for a record smaller than any other, so the first replay of each leaf fills
+    // the tree bottom-up.
+    for (int t = 1; t < tree.length; t++) {
+      tree[t] = k;
+    }
+    for (int s = k - 1; s >= 0; s--) {
+      replay(s);
+    }
+  }
+
+  boolean isEmpty() {
+    return k == 0 || heads[tree[0]] == null;
+  }
+
+  /**
+   * Removes and returns the smallest record, or returns {@code null} if all streams are exhausted.
+   */
+  T next() throws IOException {
+    if (isEmpty()) {
+      return null;
+    }
+    int winner = tree[0];
+    T record = head(winner);
+    heads[winner] = sources.get(winner).next();
+    replay(winner);
+    return record;
+  }
+
+  private void replay(int source) {
+    int winner = source;
+    for (int t = (source + k) >>> 1; t > 0; t >>>= 1) {
+      if (beats(tree[t], winner)) {
+        int loser = winner;
+        winner = tree[t];
+        tree[t] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean beats(int a, int b) {
+    if (a == k) {
+      return true;
+    }
+    if (b == k) {
+      return false;
+    }
+    T x = head(a);
+    T y = head(b);
+    if (x == null) {
+      return false;
+    }
+    if (y == null) {
+      return true;
+    }
+    int c = x.compareTo(y);
+    return c < 0 || (c == 0 && a < b);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T head(int source) {
+    return (T) heads[source];
+  }
+}
@@ -0,0 +1,559 @@
+package sorting;
+
+/**
+ * Pattern-defeating partition steps (after Orson Peters' pdqsort) for the primitive pipelines of
+ * {@link HybridQuickHeapSort}.
+ *
+ * <p>{@code choosePivot} moves the pivot to {@code a[left]}: a median of three, or Tukey's ninther
+ * above {@value #NINTHER_THRESHOLD} elements. {@code partitionRight} puts keys below the pivot on
+ * its left using the block partitioning of Edelkamp and Weiss: the positions of misplaced
+ * elements are recorded {@value #BLOCK} at a time without branching on the comparison, then
+ * swapped in a tight loop. {@code partitionLeft} puts keys not above the pivot on its left; the
+ * caller uses it when the pivot equals the previous pivot, which makes the left side one block of
+ * equal keys that needs no further work. After an unbalanced partition {@code breakPatterns} swaps
+ * a few elements at fixed offsets, which defeats the inputs that keep median selection unlucky.
+ * {@code partialInsertionSort} finishes ranges that turn out to be almost sorted.
+ *
+ * <p>The partition uses a single pivot. A dual-pivot partition needs two dependent comparisons per
+ * element and three output regions, which does not fit the branchless block scheme.
+ *
+ * <p>Ranges are inclusive. {@code partitionRight} returns the pivot position shifted left by one,
+ * with the low bit set if the range was already partitioned.
+ */
+final class PdqPartition {
+  private PdqPartition() {
+  }
+
+  /**
+   * Number of offsets recorded per block; scratch arrays passed to {@code partitionRight} must hold
+   * {@code 2 * BLOCK} ints.
+   */
+  static final int BLOCK = 64;
+  private static final int NINTHER_THRESHOLD = 128;
+  private static final int PARTIAL_INSERTION_LIMIT = 8;
+  private static final int BREAK_THRESHOLD = 16;
+
+  static int[] newOffsets() {
+    return new int[2 * BLOCK];
+  }
+
+  /**
+   * Returns whether either side of a partition of {@code [left, right]} at {@code p} holds less
+   * than an eighth of the range.
+   */
+  static boolean isUnbalanced(int left, int p, int right) {
+    int size = right - left + 1;
+    return p - left < size / 8 || right - p < size / 8;
+  }
+
+  static void choosePivot(int[] a, int left, int right) {
+    int size = right - left + 1;
+    int mid = left + size / 2;
+    if (size > NINTHER_THRESHOLD) {
+      SortUtils.medianOfThree(a, left, mid, right);
+      SortUtils.medianOfThree(a, left + 1, mid - 1, right - 1);
+      SortUtils.medianOfThree(a, left + 2, mid + 1, right - 2);
+      SortUtils.medianOfThree(a, mid - 1, mid, mid + 1);
+      SortUtils.swap(a, left, mid);
+    } else {
+      SortUtils.medianOfThree(a, mid, left, right);
+    }
+  }
+
+  static long partitionRight(int[] a, int left, int right, int[] offsets) {
+    int pivot = a[left];
+    int first = left;
+    int last = right + 1;
+    while (a[++first] < pivot)
+      ;
+    if (first - 1 == left)
+      while (first < last && a[--last] >= pivot)
+        ;
+    else
+      while (a[--last] >= pivot)
+        ;
+    boolean alreadyPartitioned = first >= last;
+    if (!alreadyPartitioned) {
+      SortUtils.swap(a, first, last);
+      first++;
+      int baseL = first;
+      int baseR = last;
+      int numL = 0;
+      int numR = 0;
+      int startL = 0;
+      int startR = BLOCK;
+      while (first < last) {
+        int unknown = last - first;
+        int splitL = numL == 0 ? (numR == 0 ? unknown / 2 : unknown) : 0;
+        int splitR = numR == 0 ? unknown - splitL : 0;
+        int countL = Math.min(splitL, BLOCK);
+        for (int i = 0; i < countL; i++) {
+          offsets[numL] = i;
+          numL += a[first++] >= pivot ? 1 : 0;
+        }
+        int countR = Math.min(splitR, BLOCK);
+        for (int i = 1; i <= countR; i++) {
+          offsets[BLOCK + numR] = i;
+          numR += a[--last] < pivot ? 1 : 0;
+        }
+
+        int num = Math.min(numL, numR);
+        if (num > 0) {
+          if (numL == numR) {
+            for (int k = 0; k < num; k++) {
+              SortUtils.swap(a, baseL + offsets[startL + k], baseR - offsets[startR + k]);
+            }
+          } else {
+            // A cycle moves each element once instead of three times.
+            int l = baseL + offsets[startL];
+            int r = baseR - offsets[startR];
+            int tmp = a[l];
+            a[l] = a[r];
+            for (int k = 1; k < num; k++) {
+              l = baseL + offsets[startL + k];
+              a[r] = a[l];
+              r = baseR - offsets[startR + k];
+              a[l] = a[r];
+            }
+            a[r] = tmp;
+          }
+        }
+        numL -= num;
+        numR -= num;
+        startL += num;
+        startR += num;
+        if (numL == 0) {
+          startL = 0;
+          baseL = first;
+        }
+        if (numR == 0) {
+          startR = BLOCK;
+          baseR = last;
+        }
+      }
+      if (numL > 0) {
+        while (numL-- > 0)
+          SortUtils.swap(a, baseL + offsets[startL + numL], --last);
+        first = last;
+      }
+      if (numR > 0) {
+        while (numR-- > 0)
+          SortUtils.swap(a, baseR - offsets[startR + numR], first++);
+      }
+    }
+    int p = first - 1;
+    a[left] = a[p];
+    a[p] = pivot;
+    return (long) p << 1 | (alreadyPartitioned ? 1 : 0);
+  }
+
+  static int partitionLeft(int[] a, int left, int right) {
+    int pivot = a[left];
+    int first = left;
+    int last = right + 1;
+    while (pivot < a[--last])
+      ;
+    if (last == right)
+      while (first < last && pivot >= a[++first])
+        ;
+    else
+      while (pivot >= a[++first])
+        ;
+    while (first < last) {
+      SortUtils.swap(a, first, last);
+      while (pivot < a[--last])
+        ;
+      while (pivot >= a[++first])
+        ;
+    }
+    a[left] = a[last];
+    a[last] = pivot;
+    return last;
+  }
+
+  static void breakPatterns(int[] a, int left, int p, int right) {
+    int sizeL = p - left;
+    int sizeR = right - p;
+    if (sizeL >= BREAK_THRESHOLD) {
+      SortUtils.swap(a, left, left + sizeL / 4);
+      SortUtils.swap(a, p - 1, p - sizeL / 4);
+      if (sizeL > NINTHER_THRESHOLD) {
+        SortUtils.swap(a, left + 1, left + sizeL / 4 + 1);
+        SortUtils.swap(a, left + 2, left + sizeL / 4 + 2);
+        SortUtils.swap(a, p - 2, p - sizeL / 4 - 1);
+        SortUtils.swap(a, p - 3, p - sizeL / 4 - 2);
+      }
+    }
+    if (sizeR >= BREAK_THRESHOLD) {
+      SortUtils.swap(a, p + 1, p + 1 + sizeR / 4);
+      SortUtils.swap(a, right, right + 1 - sizeR / 4);
+      if (sizeR > NINTHER_THRESHOLD) {
+        SortUtils.swap(a, p + 2, p + 2 + sizeR / 4);
+        SortUtils.swap(a, p + 3, p + 3 + sizeR / 4);
+        SortUtils.swap(a, right - 1, right - sizeR / 4);
+        SortUtils.swap(a, right - 2, right - 1 - sizeR / 4);
+      }
+    }
+  }
+
+  /**
+   * Insertion sorts {@code [left, right]} but gives up, returning false, once more than
+   * {@value #PARTIAL_INSERTION_LIMIT} elements have been moved.
+   */
+  static boolean partialInsertionSort(int[] a, int left, int right) {
+    int moves = 0;
+    for (int i = left + 1; i <= right; i++) {
+      int x = a[i];
+      int j = i - 1;
+      if (a[j] > x) {
+        do {
+          a[j + 1] = a[j];
+          j--;
+        } while (j >= left && a[j] > x);
+        a[j + 1] = x;
+        moves += i - j - 1;
+        if (moves > PARTIAL_INSERTION_LIMIT)
+          return false;
+      }
+    }
+    return true;
+  }
+
+  static void choosePivot(long[] a, int left, int right) {
+    int size = right - left + 1;
+    int mid = left + size / 2;
+    if (size > NINTHER_THRESHOLD) {
+      SortUtils.medianOfThree(a, left, mid, right);
+      SortUtils.medianOfThree(a, left + 1, mid - 1, right - 1);
+      SortUtils.medianOfThree(a, left + 2, mid + 1, right - 2);
+      SortUtils.medianOfThree(a, mid - 1, mid, mid + 1);
+      SortUtils.swap(a, left, mid);
+    } else {
+      SortUtils.medianOfThree(a, mid, left, right);
+    }
+  }
+
+  static long partitionRight(long[] a, int left, int right, int[] offsets) {
+    long pivot = a[left];
+    int first = left;
+    int last = right + 1;
+    while (a[++first] < pivot)
+      ;
+    if (first - 1 == left)
+      while (first < last && a[--last] >= pivot)
+        ;
+    else
+      while (a[--last] >= pivot)
+        ;
+    boolean alreadyPartitioned = first >= last;
+    if (!alreadyPartitioned) {
+      SortUtils.swap(a, first, last);
+      first++;
+      int baseL = first;
+      int baseR = last;
+      int numL = 0;
+      int numR = 0;
+      int startL = 0;
+      int startR = BLOCK;
+      while (first < last) {
+        int unknown = last - first;
+        int splitL = numL == 0 ? (numR == 0 ? unknown / 2 : unknown) : 0;
+        int splitR = numR == 0 ? unknown - splitL : 0;
+        int countL = Math.min(splitL, BLOCK);
+        for (int i = 0; i < countL; i++) {
+          offsets[numL] = i;
+          numL += a[first++] >= pivot ? 1 : 0;
+        }
+        int countR = Math.min(splitR, BLOCK);
+        for (int i = 1; i <= countR; i++) {
+          offsets[BLOCK + numR] = i;
+          numR += a[--last] < pivot ? 1 : 0;
+        }
+
+        int num = Math.min(numL, numR);
+        if (num > 0) {
+          if (numL == numR) {
+            for (int k = 0; k < num; k++) {
+              SortUtils.swap(a, baseL + offsets[startL + k], baseR - offsets[startR + k]);
+            }
+          } else {
+            // A cycle moves each element once instead of three times.
+            int l = baseL + offsets[startL];
+            int r = baseR - offsets[startR];
+            long tmp = a[l];
+            a[l] = a[r];
+            for (int k = 1; k < num; k++) {
+              l = baseL + offsets[startL + k];
+              a[r] = a[l];
+              r = baseR - offsets[startR + k];
+              a[l] = a[r];
+            }
+            a[r] = tmp;
+          }
+        }
+        numL -= num;
+        numR -= num;
+        startL += num;
+        startR += num;
+        if (numL == 0) {
+          startL = 0;
+          baseL = first;
+        }
+        if (numR == 0) {
+          startR = BLOCK;
+          baseR = last;
+        }
+      }
+      if (numL > 0) {
+        while (numL-- > 0)
+          SortUtils.swap(a, baseL + offsets[startL + numL], --last);
+        first = last;
+      }
+      if (numR > 0) {
+        while (numR-- > 0)
+          SortUtils.swap(a, baseR - offsets[startR + numR], first++);
+      }
+    }
+    int p = first - 1;
+    a[left] = a[p];
+    a[p] = pivot;
+    return (long) p << 1 | (alreadyPartitioned ? 1 : 0);
+  }
+
+  static int partitionLeft(long[] a, int left, int right) {
+    long pivot = a[left];
+    int first = left;
+    int last = right + 1;
+    while (pivot < a[--last])
+      ;
+    if (last == right)
+      while (first < last && pivot >= a[++first])
+        ;
+    else
+      while (pivot >= a[++first])
+        ;
+    while (first < last) {
+      SortUtils.swap(a, first, last);
+      while (pivot < a[--last])
+        ;
+      while (pivot >= a[++first])
+        ;
+    }
+    a[left] = a[last];
+    a[last] = pivot;
+    return last;
+  }
+
+  static void breakPatterns(long[] a, int left, int p, int right) {
+    int sizeL = p - left;
+    int sizeR = right - p;
+    if (sizeL >= BREAK_THRESHOLD) {
+      SortUtils.swap(a, left, left + sizeL / 4);
+      SortUtils.swap(a, p - 1, p - sizeL / 4);
+      if (sizeL > NINTHER_THRESHOLD) {
+        SortUtils.swap(a, left + 1, left + sizeL / 4 + 1);
+        SortUtils.swap(a, left + 2, left + sizeL / 4 + 2);
+        SortUtils.swap(a, p - 2, p - sizeL / 4 - 1);
+        SortUtils.swap(a, p - 3, p - sizeL / 4 - 2);
+      }
+    }
+    if (sizeR >= BREAK_THRESHOLD) {
+      SortUtils.swap(a, p + 1, p + 1 + sizeR / 4);
+      SortUtils.swap(a, right, right + 1 - sizeR / 4);
+      if (sizeR > NINTHER_THRESHOLD) {
+        SortUtils.swap(a, p + 2, p + 2 + sizeR / 4);
+        SortUtils.swap(a, p + 3, p + 3 + sizeR / 4);
+        SortUtils.swap(a, right - 1, right - sizeR / 4);
+        SortUtils.swap(a, right - 2, right - 1 - sizeR / 4);
+      }
+    }
+  }
+
+  static boolean partialInsertionSort(long[] a, int left, int right) {
+    int moves = 0;
+    for (int i = left + 1; i <= right; i++) {
+      long x = a[i];
+      int j = i - 1;
+      if (a[j] > x) {
+        do {
+          a[j + 1] = a[j];
+          j--;
+        } while (j >= left && a[j] > x);
+        a[j + 1] = x;
+        moves += i - j - 1;
+        if (moves > PARTIAL_INSERTION_LIMIT)
+          return false;
+      }
+    }
+    return true;
+  }
+
+  static void choosePivot(double[] a, int left, int right) {
+    int size = right - left + 1;
+    int mid = left + size / 2;
+    if (size > NINTHER_THRESHOLD) {
+      SortUtils.medianOfThree(a, left, mid, right);
+      SortUtils.medianOfThree(a, left + 1, mid - 1, right - 1);
+      SortUtils.medianOfThree(a, left + 2, mid + 1, right - 2);
+      SortUtils.medianOfThree(a, mid - 1, mid, mid + 1);
+      SortUtils.swap(a, left, mid);
+    } else {
+      SortUtils.medianOfThree(a, mid, left, right);
+    }
+  }
+
+  static long partitionRight(double[] a, int left, int right, int[] offsets) {
+    double pivot = a[left];
+    int first = left;
+    int last = right + 1;
+    while (a[++first] < pivot)
+      ;
+    if (first - 1 == left)
+      while (first < last && a[--last] >= pivot)
+        ;
+    else
+      while (a[--last] >= pivot)
+        ;
+    boolean alreadyPartitioned = first >= last;
+    if (!alreadyPartitioned) {
+      SortUtils.swap(a, first, last);
+      first++;
+      int baseL = first;
+      int baseR = last;
+      int numL = 0;
+      int numR = 0;
+      int startL = 0;
+      int startR = BLOCK;
+      while (first < last) {
+        int unknown = last - first;
+        int splitL = numL == 0 ? (numR == 0 ? unknown / 2 : unknown) : 0;
+        int splitR = numR == 0 ? unknown - splitL : 0;
+        int countL = Math.min(splitL, BLOCK);
+        for (int i = 0; i < countL; i++) {
+          offsets[numL] = i;
+          numL += a[first++] >= pivot ? 1 : 0;
+        }
+        int countR = Math.min(splitR, BLOCK);
+        for (int i = 1; i <= countR; i++) {
+          offsets[BLOCK + numR] = i;
+          numR += a[--last] < pivot ? 1 : 0;
+        }
+
+        int num = Math.min(numL, numR);
+        if (num > 0) {
+          if (numL == numR) {
+            for (int k = 0; k < num; k++) {
+              SortUtils.swap(a, baseL + offsets[startL + k], baseR - offsets[startR + k]);
+            }
+          } else {
+            // A cycle moves each element once instead of three times.
+            int l = baseL + offsets[startL];
+            int r = baseR - offsets[startR];
+            double tmp = a[l];
+            a[l] = a[r];
+            for (int k = 1; k < num; k++) {
+              l = baseL + offsets[startL + k];
+              a[r] = a[l];
+              r = baseR - offsets[startR + k];
+              a[l] = a[r];
+            }
+            a[r] = tmp;
+          }
+        }
+        numL -= num;
+        numR -= num;
+        startL += num;
+        startR += num;
+        if (numL == 0) {
+          startL = 0;
+          baseL = first;
+        }
+        if (numR == 0) {
+          startR = BLOCK;
+          baseR = last;
+        }
+      }
+      if (numL > 0) {
+        while (numL-- > 0)
+          SortUtils.swap(a, baseL + offsets[startL + numL], --last);
+        first = last;
+      }
+      if (numR > 0) {
+        while (numR-- > 0)
+          SortUtils.swap(a, baseR - offsets[startR + numR], first++);
+      }
+    }
+    int p = first - 1;
+    a[left] = a[p];
+    a[p] = pivot;
+    return (long) p << 1 | (alreadyPartitioned ? 1 : 0);
+  }
+
+  static int partitionLeft(double[] a, int left, int right) {
+    double pivot = a[left];
+    int first = left;
+    int last = right + 1;
+    while (pivot < a[--last])
+      ;
+    if (last == right)
+      while (first < last && pivot >= a[++first])
+        ;
+    else
+      while (pivot >= a[++first])
+        ;
+    while (first < last) {
+      SortUtils.swap(a, first, last);
+      while (pivot < a[--last])
+        ;
+      while (pivot >= a[++first])
+        ;
+    }
+    a[left] = a[last];
+    a[last] = pivot;
+    return last;
+  }
+
+  static void breakPatterns(double[] a, int left, int p, int right) {
+    int sizeL = p - left;
+    int sizeR = right - p;
+    if (sizeL >= BREAK_THRESHOLD) {
+      SortUtils.swap(a, left, left + sizeL / 4);
+      SortUtils.swap(a, p - 1, p - sizeL / 4);
+      if (sizeL > NINTHER_THRESHOLD) {
+        SortUtils.swap(a, left + 1, left + sizeL / 4 + 1);
+        SortUtils.swap(a, left + 2, left + sizeL / 4 + 2);
+        SortUtils.swap(a, p - 2, p - sizeL / 4 - 1);
+        SortUtils.swap(a, p - 3, p - sizeL / 4 - 2);
+      }
+    }
+    if (sizeR >= BREAK_THRESHOLD) {
+      SortUtils.swap(a, p + 1, p + 1 + sizeR / 4);
+      SortUtils.swap(a, right, right + 1 - sizeR / 4);
+      if (sizeR > NINTHER_THRESHOLD) {
+        SortUtils.swap(a, p + 2, p + 2 + sizeR / 4);
+        SortUtils.swap(a, p + 3, p + 3 + sizeR / 4);
+        SortUtils.swap(a, right - 1, right - sizeR / 4);
+        SortUtils.swap(a, right - 2, right - 1 - sizeR / 4);
+      }
+    }
+  }
+
+  static boolean partialInsertionSort(double[] a, int left, int right) {
+    int moves = 0;
+    for (int i = left + 1; i <= right; i++) {
+      double x = a[i];
+      int j = i - 1;
+      if (a[j] > x) {
+        do {
+          a[j + 1] = a[j];
+          j--;
+        } while (j >= left && a[j] > x);
+        a[j + 1] = x;
+        moves += i - j - 1;
+        if (moves > PARTIAL_INSERTION_LIMIT)
+          return false;
+      }
+    }
+    return true;
+  }
+}
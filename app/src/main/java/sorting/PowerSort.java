@@ -0,0 +1,403 @@
+package sorting;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Stable, run-adaptive merge sort using the Powersort merge policy of Munro and Wild.
+ *
+ * <p>The input is scanned left to right for natural runs; strictly descending runs are reversed
+ * and runs shorter than {@value #MIN_RUN} are extended with binary insertion sort. Each run
+ * boundary gets a <em>power</em>, the depth of the boundary in a balanced split of the range, and
+ * runs on the stack whose power exceeds the new boundary's are merged first. This keeps merges
+ * nearly optimal for the run lengths present, so sorted and reversed input takes {@code n - 1}
+ * comparisons and input made of {@code r} runs takes {@code O(n log r)}.
+ *
+ * <p>Merges work like TimSort's: galloping first trims the prefix and suffix that are already in
+ * place, the shorter run is copied to a buffer, and a merge that keeps taking from one side
+ * switches to exponential search so long stretches are moved with {@link System#arraycopy}.
+ * Equal elements keep their input order.
+ */
+public class PowerSort {
+  private PowerSort() {
+  }
+
+  private static final int MIN_RUN = 24;
+  private static final int MIN_GALLOP = 7;
+
+  public static <T extends Comparable<? super T>> void sort(T[] a) {
+    sort(a, 0, a.length - 1, Comparator.naturalOrder());
+  }
+
+  public static <T> void sort(T[] a, Comparator<? super T> c) {
+    sort(a, 0, a.length - 1, c);
+  }
+
+  /**
+   * Stably sorts the inclusive range {@code [left, right]} by {@code c}.
+   */
+  public static <T> void sort(T[] a, int left, int right, Comparator<? super T> c) {
+    Objects.requireNonNull(c, "comparator");
+    if (right - left < 1)
+      return;
+    new Merger<>(a, c, right - left + 1).sort(left, right + 1);
+  }
+
+  /**
+   * Returns the power of the boundary between the runs {@code [startA, startB)} and
+   * {@code [startB, endB)} inside {@code [begin, end)}: the first bit in which the binary fractions
+   * of the two run midpoints, relative to the range, differ.
+   */
+  static int nodePower(int begin, int end, int startA, int startB, int endB) {
+    long twoN = 2L * (end - begin);
+    long l = (long) startA + startB - 2L * begin;
+    long r = (long) startB + endB - 2L * begin;
+    int power = 0;
+    while (true) {
+      power++;
+      l <<= 1;
+      r <<= 1;
+      boolean bitL = l >= twoN;
+      boolean bitR = r >= twoN;
+      if (bitL != bitR)
+        return power;
+      if (bitL) {
+        l -= twoN;
+        r -= twoN;
+      }
+    }
+  }
+
+  private static final class Merger<T> {
+    private final T[] a;
+    private final Comparator<? super T> c;
+    private final int n;
+    private Object[] tmp = new Object[0];
+    private int minGallop = MIN_GALLOP;
+
+    Merger(T[] a, Comparator<? super T> c, int n) {
+      this.a = a;
+      this.c = c;
+      this.n = n;
+    }
+
+    void sort(int begin, int end) {
+      // Powers are at most ceil(log2 n) + 1, so the stack needs one slot per possible power.
+      int capacity = 34;
+      int[] runStart = new int[capacity];
+      int[] runEnd = new int[capacity];
+      int[] runPower = new int[capacity];
+      int top = 0;
+
+      int startA = begin;
+      int endA = extendRun(startA, end);
+      while (endA < end) {
+        int startB = endA;
+        int endB = extendRun(startB, end);
+        int power = nodePower(begin, end, startA, startB, endB);
+        while (top > 0 && runPower[top - 1] > power) {
+          top--;
+          merge(runStart[top], runEnd[top], endA);
+          startA = runStart[top];
+        }
+        runStart[top] = startA;
+        runEnd[top] = endA;
+        runPower[top] = power;
+        top++;
+        startA = startB;
+        endA = endB;
+      }
+      while (top > 0) {
+        top--;
+        merge(runStart[top], runEnd[top], endA);
+      }
+    }
+
+    /**
+     * Returns the end of the run starting at {@code start}, reversing it if it descends and
+     * extending it to {@value #MIN_RUN} elements (or the end of the range) if it is shorter.
+     */
+    private int extendRun(int start, int end) {
+      if (start + 1 >= end)
+        return end;
+      int i = start + 1;
+      if (c.compare(a[i], a[start]) < 0) {
+        while (i + 1 < end && c.compare(a[i + 1], a[i]) < 0)
+          i++;
+        reverse(start, i);
+      } else {
+        while (i + 1 < end && c.compare(a[i + 1], a[i]) >= 0)
+          i++;
+      }
+      int runEnd = i + 1;
+      int minEnd = Math.min(end, start + MIN_RUN);
+      if (runEnd < minEnd) {
+        binaryInsertionSort(start, runEnd, minEnd);
+        runEnd = minEnd;
+      }
+      return runEnd;
+    }
+
+    private void reverse(int lo, int hi) {
+      while (lo < hi) {
+        T t = a[lo];
+        a[lo++] = a[hi];
+        a[hi--] = t;
+      }
+    }
+
+    /**
+     * Inserts {@code [sorted, end)} into the sorted prefix {@code [start, sorted)}, placing each
+     * element after its equals.
+     */
+    private void binaryInsertionSort(int start, int sorted, int end) {
+      for (int i = sorted; i < end; i++) {
+        T pivot = a[i];
+        int lo = start;
+        int hi = i;
+        while (lo < hi) {
+          int mid = (lo + hi) >>> 1;
+          if (c.compare(pivot, a[mid]) < 0)
+            hi = mid;
+          else
+            lo = mid + 1;
+        }
+        System.arraycopy(a, lo, a, lo + 1, i - lo);
+        a[lo] = pivot;
+      }
+    }
+
+    /**
+     * Merges the adjacent sorted runs {@code [lo, mid)} and {@code [mid, hi)}.
+     */
+    private void merge(int lo, int mid, int hi) {
+      lo += gallopRight(a[mid], a, lo, mid - lo, 0);
+      if (lo == mid)
+        return;
+      hi = mid + gallopLeft(a[mid - 1], a, mid, hi - mid, hi - mid - 1);
+      if (hi == mid)
+        return;
+      if (mid - lo <= hi - mid)
+        mergeLo(lo, mid, hi);
+      else
+        mergeHi(lo, mid, hi);
+    }
+
+    /**
+     * Merges front to back, buffering the left run, which is not longer than the right one.
+     */
+    private void mergeLo(int lo, int mid, int hi) {
+      int len1 = mid - lo;
+      T[] buffer = buffer(len1);
+      System.arraycopy(a, lo, buffer, 0, len1);
+      int c1 = 0;
+      int c2 = mid;
+      int dest = lo;
+      int gallop = minGallop;
+      outer:
+      while (true) {
+        int count1 = 0;
+        int count2 = 0;
+        do {
+          if (c.compare(a[c2], buffer[c1]) < 0) {
+            a[dest++] = a[c2++];
+            count2++;
+            count1 = 0;
+            if (c2 == hi)
+              break outer;
+          } else {
+            a[dest++] = buffer[c1++];
+            count1++;
+            count2 = 0;
+            if (c1 == len1)
+              break outer;
+          }
+        } while ((count1 | count2) < gallop);
+
+        do {
+          count1 = gallopRight(a[c2], buffer, c1, len1 - c1, 0);
+          if (count1 != 0) {
+            System.arraycopy(buffer, c1, a, dest, count1);
+            dest += count1;
+            c1 += count1;
+            if (c1 == len1)
+              break outer;
+          }
+          a[dest++] = a[c2++];
+          if (c2 == hi)
+            break outer;
+          count2 = gallopLeft(buffer[c1], a, c2, hi - c2, 0);
+          if (count2 != 0) {
+            System.arraycopy(a, c2, a, dest, count2);
+            dest += count2;
+            c2 += count2;
+            if (c2 == hi)
+              break outer;
+          }
+          a[dest++] = buffer[c1++];
+          if (c1 == len1)
+            break outer;
+          gallop--;
+        } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+        gallop = Math.max(gallop, 0) + 2;
+      }
+      minGallop = Math.max(1, gallop);
+      if (c1 < len1)
+        System.arraycopy(buffer, c1, a, dest, len1 - c1);
+    }
+
+    /**
+     * Merges back to front, buffering the right run, which is shorter than the left one.
+     */
+    private void mergeHi(int lo, int mid, int hi) {
+      int len2 = hi - mid;
+      T[] buffer = buffer(len2);
+      System.arraycopy(a, mid, buffer, 0, len2);
+      int c1 = mid - 1;
+      int c2 = len2 - 1;
+      int dest = hi - 1;
+      int gallop = minGallop;
+      outer:
+      while (true) {
+        int count1 = 0;
+        int count2 = 0;
+        do {
+          if (c.compare(buffer[c2], a[c1]) < 0) {
+            a[dest--] = a[c1--];
+            count1++;
+            count2 = 0;
+            if (c1 < lo)
+              break outer;
+          } else {
+            a[dest--] = buffer[c2--];
+            count2++;
+            count1 = 0;
+            if (c2 < 0)
+              break outer;
+          }
+        } while ((count1 | count2) < gallop);
+
+        do {
+          count1 = c1 - lo + 1 - gallopRight(buffer[c2], a, lo, c1 - lo + 1, c1 - lo);
+          if (count1 != 0) {
+            dest -= count1;
+            c1 -= count1;
+            System.arraycopy(a, c1 + 1, a, dest + 1, count1);
+            if (c1 < lo)
+              break outer;
+          }
+          a[dest--] = buffer[c2--];
+          if (c2 < 0)
+            break outer;
+          count2 = c2 + 1 - gallopLeft(a[c1], buffer, 0, c2 + 1, c2);
+          if (count2 != 0) {
+            dest -= count2;
+            c2 -= count2;
+            System.arraycopy(buffer, c2 + 1, a, dest + 1, count2);
+            if (c2 < 0)
+              break outer;
+          }
+          a[dest--] = a[c1--];
+          if (c1 < lo)
+            break outer;
+          gallop--;
+        } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+        gallop = Math.max(gallop, 0) + 2;
+      }
+      minGallop = Math.max(1, gallop);
+      if (c2 >= 0)
+        System.arraycopy(buffer, 0, a, dest - c2, c2 + 1);
+    }
+
+    /**
+     * Returns {@code k} in {@code [0, len]} with {@code r[base + k - 1] < key <= r[base + k]},
+     * searching exponentially outwards from {@code base + hint}.
+     */
+    private int gallopLeft(T key, T[] r, int base, int len, int hint) {
+      int lastOfs = 0;
+      int ofs = 1;
+      if (c.compare(key, r[base + hint]) > 0) {
+        int maxOfs = len - hint;
+        while (ofs < maxOfs && c.compare(key, r[base + hint + ofs]) > 0) {
+          lastOfs = ofs;
+          ofs = (ofs << 1) + 1;
+          if (ofs <= 0)
+            ofs = maxOfs;
+        }
+        ofs = Math.min(ofs, maxOfs);
+        lastOfs += hint;
+        ofs += hint;
+      } else {
+        int maxOfs = hint + 1;
+        while (ofs < maxOfs && c.compare(key, r[base + hint - ofs]) <= 0) {
+          lastOfs = ofs;
+          ofs = (ofs << 1) + 1;
+          if (ofs <= 0)
+            ofs = maxOfs;
+        }
+        ofs = Math.min(ofs, maxOfs);
+        int t = lastOfs;
+        lastOfs = hint - ofs;
+        ofs = hint - t;
+      }
+      lastOfs++;
+      while (lastOfs < ofs) {
+        int m = lastOfs + ((ofs - lastOfs) >>> 1);
+        if (c.compare(key, r[base + m]) > 0)
+          lastOfs = m + 1;
+        else
+          ofs = m;
+      }
+      return ofs;
+    }
+
+    /**
+     * Returns {@code k} in {@code [0, len]} with {@code r[base + k - 1] <= key < r[base + k]},
+     * searching exponentially outwards from {@code base + hint}.
+     */
+    private int gallopRight(T key, T[] r, int base, int len, int hint) {
+      int lastOfs = 0;
+      int ofs = 1;
+      if (c.compare(key, r[base + hint]) < 0) {
+        int maxOfs = hint + 1;
+        while (ofs < maxOfs && c.compare(key, r[base + hint - ofs]) < 0) {
+          lastOfs = ofs;
+          ofs = (ofs << 1) + 1;
+          if (ofs <= 0)
+            ofs = maxOfs;
+        }
+        ofs = Math.min(ofs, maxOfs);
+        int t = lastOfs;
+        lastOfs = hint - ofs;
+        ofs = hint - t;
+      } else {
+        int maxOfs = len - hint;
+        while (ofs < maxOfs && c.compare(key, r[base + hint + ofs]) >= 0) {
+          lastOfs = ofs;
+          ofs = (ofs << 1) + 1;
+          if (ofs <= 0)
+            ofs = maxOfs;
+        }
+        ofs = Math.min(ofs, maxOfs);
+        lastOfs += hint;
+        ofs += hint;
+      }
+      lastOfs++;
+      while (lastOfs < ofs) {
+        int m = lastOfs + ((ofs - lastOfs) >>> 1);
+        if (c.compare(key, r[base + m]) < 0)
+          ofs = m;
+        else
+          lastOfs = m + 1;
+      }
+      return ofs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] buffer(int length) {
+      if (tmp.length < length)
+        tmp = new Object[Math.max(length, Math.min(n >>> 1, length * 2))];
+      return (T[]) tmp;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package sorting;
 
+import java.util.Comparator;
+
 /**
  * Quick sort implementation using Hoare's partitioning scheme.
  */
@@ -42,4 +44,40 @@ public class QuickSort {
     }
   }
 
+  public static <T> void sort(T[] a, int left, int right, int depthLimit, Comparator<? super T> c) {
+    if (left >= right)
+      return;
+    if (right - left + 1 <= INSERTION_THRESHOLD) {
+      SortUtils.insertionSort(a, left, right, c);
+      return;
+    }
+
+    int p = hoarePartition(a, left, right, c);
+    sort(a, left, p, depthLimit - 1, c);
+    sort(a, p + 1, right, depthLimit - 1, c);
+  }
+
+  public static <T> int hoarePartition(T[] a, int left, int right, Comparator<? super T> c) {
+    return hoarePartition(a, left, right, c, null);
+  }
+
+  static <T> int hoarePartition(T[] a, int left, int right, Comparator<? super T> c, SortCounters counters) {
+    int median = SortUtils.medianOfThree(a, left, (left + right) >>> 1, right, c, counters);
+    T pivot = a[median];
+
+    int i = left - 1;
+    int j = right + 1;
+    while (true) {
+      do {
+        i++;
+      } while (c.compare(a[i], pivot) < 0);
+      do {
+        j--;
+      } while (c.compare(a[j], pivot) > 0);
+      if (i >= j)
+        return j;
+      SortUtils.swap(a, i, j, counters);
+    }
+  }
+
 }
@@ -0,0 +1,514 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Radix sorts for {@code int} and {@code long} keys.
+ *
+ * <p>{@code lsdSort} makes one stable counting pass per 8-bit digit from the least significant
+ * one, scattering into a buffer as large as the range. All digit histograms are collected in a
+ * single read pass, only the digits spanned by {@code max - min} are sorted, and digits on which
+ * every key agrees are skipped. {@code americanFlagSort} works from the most significant digit
+ * and permutes each bucket in place, so it needs no buffer but is not stable; buckets of at most
+ * {@value #INSERTION_THRESHOLD} keys are finished with insertion sort.
+ *
+ * <p>{@code sort} picks an algorithm from the size and key range: small ranges and keys that
+ * would need too many passes for the input size go to {@link HybridQuickHeapSort}, very large
+ * ranges to the in-place American flag sort, and everything else to the LSD sort.
+ * {@code sortByIntKey} and {@code sortByLongKey} read every key once into a primitive array and
+ * sort an index permutation with it, so they are stable and never call the extractor again. By
+ * the same rule they either LSD-sort the keys together with the indices, or pack each key (or,
+ * for {@code long} keys, its rank) with its index into a {@code long} and sort those with the
+ * introsort.
+ */
+public class RadixSort {
+  private RadixSort() {
+  }
+
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+  private static final int MASK = RADIX - 1;
+  private static final int INSERTION_THRESHOLD = 32;
+
+  /**
+   * Ranges smaller than this are always sorted by {@link HybridQuickHeapSort}.
+   */
+  public static final int MIN_RADIX_SIZE = 1 << 8;
+
+  /**
+   * Ranges at least this large are sorted in place to avoid a buffer of the same size.
+   */
+  public static final int IN_PLACE_THRESHOLD = 1 << 24;
+
+  public static void sort(int[] a) {
+    sort(a, 0, a.length - 1);
+  }
+
+  /**
+   * Sorts {@code [left, right]} with the radix sort or introsort that suits its size and key range
+   * best.
+   */
+  public static void sort(int[] a, int left, int right) {
+    int n = right - left + 1;
+    if (n < MIN_RADIX_SIZE) {
+      HybridQuickHeapSort.sort(a, left, right, HybridQuickHeapSort.defaultDepthLimit(n));
+      return;
+    }
+    int min = a[left];
+    int max = a[left];
+    for (int i = left + 1; i <= right; i++) {
+      min = Math.min(min, a[i]);
+      max = Math.max(max, a[i]);
+    }
+    if (!radixPays(n, (long) max - min))
+      HybridQuickHeapSort.sort(a, left, right, HybridQuickHeapSort.defaultDepthLimit(n));
+    else if (n >= IN_PLACE_THRESHOLD)
+      americanFlagSort(a, left, right);
+    else
+      lsdSort(a, left, right, min, max, new int[n]);
+  }
+
+  public static void sort(long[] a) {
+    sort(a, 0, a.length - 1);
+  }
+
+  /**
+   * Sorts {@code [left, right]} with the radix sort or introsort that suits its size and key range
+   * best.
+   */
+  public static void sort(long[] a, int left, int right) {
+    int n = right - left + 1;
+    if (n < MIN_RADIX_SIZE) {
+      HybridQuickHeapSort.sort(a, left, right, HybridQuickHeapSort.defaultDepthLimit(n));
+      return;
+    }
+    long min = a[left];
+    long max = a[left];
+    for (int i = left + 1; i <= right; i++) {
+      min = Math.min(min, a[i]);
+      max = Math.max(max, a[i]);
+    }
+    if (!radixPays(n, max - min))
+      HybridQuickHeapSort.sort(a, left, right, HybridQuickHeapSort.defaultDepthLimit(n));
+    else if (n >= IN_PLACE_THRESHOLD)
+      americanFlagSort(a, left, right);
+    else
+      lsdSort(a, left, right, min, max, new long[n]);
+  }
+
+  public static void lsdSort(int[] a) {
+    lsdSort(a, 0, a.length - 1);
+  }
+
+  public static void lsdSort(int[] a, int left, int right) {
+    if (right <= left)
+      return;
+    int min = a[left];
+    int max = a[left];
+    for (int i = left + 1; i <= right; i++) {
+      min = Math.min(min, a[i]);
+      max = Math.max(max, a[i]);
+    }
+    lsdSort(a, left, right, min, max, new int[right - left + 1]);
+  }
+
+  public static void lsdSort(long[] a) {
+    lsdSort(a, 0, a.length - 1);
+  }
+
+  public static void lsdSort(long[] a, int left, int right) {
+    if (right <= left)
+      return;
+    long min = a[left];
+    long max = a[left];
+    for (int i = left + 1; i <= right; i++) {
+      min = Math.min(min, a[i]);
+      max = Math.max(max, a[i]);
+    }
+    lsdSort(a, left, right, min, max, new long[right - left + 1]);
+  }
+
+  public static void americanFlagSort(int[] a) {
+    americanFlagSort(a, 0, a.length - 1);
+  }
+
+  public static void americanFlagSort(int[] a, int left, int right) {
+    if (right <= left)
+      return;
+    int levels = Integer.SIZE / RADIX_BITS;
+    americanFlag(a, left, right + 1, Integer.SIZE - RADIX_BITS, new int[levels][RADIX], new int[levels][RADIX]);
+  }
+
+  public static void americanFlagSort(long[] a) {
+    americanFlagSort(a, 0, a.length - 1);
+  }
+
+  public static void americanFlagSort(long[] a, int left, int right) {
+    if (right <= left)
+      return;
+    int levels = Long.SIZE / RADIX_BITS;
+    americanFlag(a, left, right + 1, Long.SIZE - RADIX_BITS, new int[levels][RADIX], new int[levels][RADIX]);
+  }
+
+  /**
+   * Stably sorts {@code a} by the {@code int} key of each element.
+   */
+  public static <T> void sortByIntKey(T[] a, ToIntFunction<? super T> key) {
+    int n = a.length;
+    if (n < 2)
+      return;
+    int[] keys = new int[n];
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (int i = 0; i < n; i++) {
+      int k = key.applyAsInt(a[i]);
+      keys[i] = k;
+      min = Math.min(min, k);
+      max = Math.max(max, k);
+    }
+    boolean radix = n >= MIN_RADIX_SIZE && radixPays(n, (long) max - min);
+    SortUtils.permute(a, radix ? lsdOrder(keys, min, max) : packedOrder(keys));
+  }
+
+  /**
+   * Stably sorts {@code a} by the {@code long} key of each element.
+   */
+  public static <T> void sortByLongKey(T[] a, ToLongFunction<? super T> key) {
+    int n = a.length;
+    if (n < 2)
+      return;
+    long[] keys = new long[n];
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < n; i++) {
+      long k = key.applyAsLong(a[i]);
+      keys[i] = k;
+      min = Math.min(min, k);
+      max = Math.max(max, k);
+    }
+    boolean radix = n >= MIN_RADIX_SIZE && radixPays(n, max - min);
+    SortUtils.permute(a, radix ? lsdOrder(keys, min, max) : packedOrder(keys));
+  }
+
+  /**
+   * Returns the stable sorted order of {@code keys}, LSD-sorting them together with the indices.
+   */
+  private static int[] lsdOrder(int[] keys, int min, int max) {
+    int n = keys.length;
+    int[] order = new int[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    int[] keyBuffer = new int[n];
+    int[] orderBuffer = new int[n];
+    int bits = Long.SIZE - Long.numberOfLeadingZeros((long) max - min);
+    for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+      int[] count = new int[RADIX + 1];
+      for (int i = 0; i < n; i++) {
+        count[(((keys[i] - min) >>> shift) & MASK) + 1]++;
+      }
+      if (count[(((keys[0] - min) >>> shift) & MASK) + 1] == n)
+        continue;
+      for (int d = 0; d < RADIX; d++) {
+        count[d + 1] += count[d];
+      }
+      for (int i = 0; i < n; i++) {
+        int slot = count[((keys[i] - min) >>> shift) & MASK]++;
+        keyBuffer[slot] = keys[i];
+        orderBuffer[slot] = order[i];
+      }
+      int[] swap = keys;
+      keys = keyBuffer;
+      keyBuffer = swap;
+      swap = order;
+      order = orderBuffer;
+      orderBuffer = swap;
+    }
+    return order;
+  }
+
+  private static int[] lsdOrder(long[] keys, long min, long max) {
+    int n = keys.length;
+    int[] order = new int[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    long[] keyBuffer = new long[n];
+    int[] orderBuffer = new int[n];
+    int bits = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+      int[] count = new int[RADIX + 1];
+      for (int i = 0; i < n; i++) {
+        count[(int) (((keys[i] - min) >>> shift) & MASK) + 1]++;
+      }
+      if (count[(int) (((keys[0] - min) >>> shift) & MASK) + 1] == n)
+        continue;
+      for (int d = 0; d < RADIX; d++) {
+        count[d + 1] += count[d];
+      }
+      for (int i = 0; i < n; i++) {
+        int slot = count[(int) (((keys[i] - min) >>> shift) & MASK)]++;
+        keyBuffer[slot] = keys[i];
+        orderBuffer[slot] = order[i];
+      }
+      long[] swapKeys = keys;
+      keys = keyBuffer;
+      keyBuffer = swapKeys;
+      int[] swap = order;
+      order = orderBuffer;
+      orderBuffer = swap;
+    }
+    return order;
+  }
+
+  /**
+   * Returns the stable sorted order of {@code keys} by packing each key with its index into a
+   * {@code long} and sorting those with {@link HybridQuickHeapSort}.
+   */
+  private static int[] packedOrder(int[] keys) {
+    long[] packed = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      packed[i] = (long) keys[i] << 32 | i;
+    }
+    return unpackOrder(packed);
+  }
+
+  /**
+   * Like {@link #packedOrder(int[])}, but first replaces each key by its rank among the distinct
+   * keys so that rank and index fit in one {@code long}.
+   */
+  private static int[] packedOrder(long[] keys) {
+    long[] distinct = keys.clone();
+    HybridQuickHeapSort.sort(distinct);
+    int unique = 0;
+    for (int i = 0; i < distinct.length; i++) {
+      if (i == 0 || distinct[i] != distinct[unique - 1])
+        distinct[unique++] = distinct[i];
+    }
+    long[] packed = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      packed[i] = (long) Arrays.binarySearch(distinct, 0, unique, keys[i]) << 32 | i;
+    }
+    return unpackOrder(packed);
+  }
+
+  private static int[] unpackOrder(long[] packed) {
+    HybridQuickHeapSort.sort(packed);
+    int[] order = new int[packed.length];
+    for (int i = 0; i < packed.length; i++) {
+      order[i] = (int) packed[i];
+    }
+    return order;
+  }
+
+  /**
+   * Introsort makes about {@code log2(n)} sweeps over the range with unpredictable branches, the
+   * LSD sort two streaming sweeps per digit. Measured on random keys, one digit pass costs about
+   * as much as three introsort levels.
+   */
+  private static boolean radixPays(int n, long range) {
+    if (range == 0)
+      return true;
+    int bits = Long.SIZE - Long.numberOfLeadingZeros(range);
+    int passes = (bits + RADIX_BITS - 1) / RADIX_BITS;
+    int lg = 31 - Integer.numberOfLeadingZeros(n);
+    return 3 * passes <= lg;
+  }
+
+  /**
+   * Sorts the keys by their offset from {@code min}, which fits in an unsigned {@code int}.
+   */
+  private static void lsdSort(int[] a, int left, int right, int min, int max, int[] buffer) {
+    int n = right - left + 1;
+    int bits = Long.SIZE - Long.numberOfLeadingZeros((long) max - min);
+    int digits = (bits + RADIX_BITS - 1) / RADIX_BITS;
+    if (digits == 0)
+      return;
+    int[][] counts = new int[digits][RADIX + 1];
+    for (int i = left; i <= right; i++) {
+      int key = a[i] - min;
+      for (int d = 0; d < digits; d++) {
+        counts[d][((key >>> (d * RADIX_BITS)) & MASK) + 1]++;
+      }
+    }
+    int[] from = a;
+    int[] to = buffer;
+    int fromStart = left;
+    int toStart = 0;
+    for (int d = 0; d < digits; d++) {
+      int shift = d * RADIX_BITS;
+      int[] count = counts[d];
+      if (count[(((a[left] - min) >>> shift) & MASK) + 1] == n)
+        continue;
+      for (int b = 0; b < RADIX; b++) {
+        count[b + 1] += count[b];
+      }
+      for (int i = fromStart, end = fromStart + n; i < end; i++) {
+        int value = from[i];
+        to[toStart + count[((value - min) >>> shift) & MASK]++] = value;
+      }
+      int[] swap = from;
+      from = to;
+      to = swap;
+      int swapStart = fromStart;
+      fromStart = toStart;
+      toStart = swapStart;
+    }
+    if (from != a)
+      System.arraycopy(from, fromStart, a, left, n);
+  }
+
+  private static void lsdSort(long[] a, int left, int right, long min, long max, long[] buffer) {
+    int n = right - left + 1;
+    int bits = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    int digits = (bits + RADIX_BITS - 1) / RADIX_BITS;
+    if (digits == 0)
+      return;
+    int[][] counts = new int[digits][RADIX + 1];
+    for (int i = left; i <= right; i++) {
+      long key = a[i] - min;
+      for (int d = 0; d < digits; d++) {
+        counts[d][(int) ((key >>> (d * RADIX_BITS)) & MASK) + 1]++;
+      }
+    }
+    long[] from = a;
+    long[] to = buffer;
+    int fromStart = left;
+    int toStart = 0;
+    for (int d = 0; d < digits; d++) {
+      int shift = d * RADIX_BITS;
+      int[] count = counts[d];
+      if (count[(int) (((a[left] - min) >>> shift) & MASK) + 1] == n)
+        continue;
+      for (int b = 0; b < RADIX; b++) {
+        count[b + 1] += count[b];
+      }
+      for (int i = fromStart, end = fromStart + n; i < end; i++) {
+        long value = from[i];
+        to[toStart + count[(int) (((value - min) >>> shift) & MASK)]++] = value;
+      }
+      long[] swap = from;
+      from = to;
+      to = swap;
+      int swapStart = fromStart;
+      fromStart = toStart;
+      toStart = swapStart;
+    }
+    if (from != a)
+      System.arraycopy(from, fromStart, a, left, n);
+  }
+
+  /**
+   * Sorts {@code [start, end)} on the digit at {@code shift} and recurses into each bucket.
+   * {@code next[level]} and {@code bounds[level]} hold the bucket cursors and ends of one
+   * recursion level, so nothing is allocated per call.
+   */
+  private static void americanFlag(int[] a, int start, int end, int shift, int[][] next, int[][] bounds) {
+    if (end - start <= INSERTION_THRESHOLD) {
+      SortUtils.insertionSort(a, start, end - 1);
+      return;
+    }
+    int level = shift / RADIX_BITS;
+    int[] cursor = next[level];
+    int[] limit = bounds[level];
+    Arrays.fill(cursor, 0);
+    for (int i = start; i < end; i++) {
+      cursor[digit(a[i], shift)]++;
+    }
+    if (cursor[digit(a[start], shift)] == end - start) {
+      if (shift > 0)
+        americanFlag(a, start, end, shift - RADIX_BITS, next, bounds);
+      return;
+    }
+    int position = start;
+    for (int b = 0; b < RADIX; b++) {
+      int size = cursor[b];
+      cursor[b] = position;
+      position += size;
+      limit[b] = position;
+    }
+    for (int b = 0; b < RADIX; b++) {
+      while (cursor[b] < limit[b]) {
+        int value = a[cursor[b]];
+        int d = digit(value, shift);
+        while (d != b) {
+          int displaced = a[cursor[d]];
+          a[cursor[d]++] = value;
+          value = displaced;
+          d = digit(value, shift);
+        }
+        a[cursor[b]++] = value;
+      }
+    }
+    if (shift == 0)
+      return;
+    int bucketStart = start;
+    for (int b = 0; b < RADIX; b++) {
+      int bucketEnd = limit[b];
+      if (bucketEnd - bucketStart > 1)
+        americanFlag(a, bucketStart, bucketEnd, shift - RADIX_BITS, next, bounds);
+      bucketStart = bucketEnd;
+    }
+  }
+
+  private static void americanFlag(long[] a, int start, int end, int shift, int[][] next, int[][] bounds) {
+    if (end - start <= INSERTION_THRESHOLD) {
+      SortUtils.insertionSort(a, start, end - 1);
+      return;
+    }
+    int level = shift / RADIX_BITS;
+    int[] cursor = next[level];
+    int[] limit = bounds[level];
+    Arrays.fill(cursor, 0);
+    for (int i = start; i < end; i++) {
+      cursor[digit(a[i], shift)]++;
+    }
+    if (cursor[digit(a[start], shift)] == end - start) {
+      if (shift > 0)
+        americanFlag(a, start, end, shift - RADIX_BITS, next, bounds);
+      return;
+    }
+    int position = start;
+    for (int b = 0; b < RADIX; b++) {
+      int size = cursor[b];
+      cursor[b] = position;
+      position += size;
+      limit[b] = position;
+    }
+    for (int b = 0; b < RADIX; b++) {
+      while (cursor[b] < limit[b]) {
+        long value = a[cursor[b]];
+        int d = digit(value, shift);
+        while (d != b) {
+          long displaced = a[cursor[d]];
+          a[cursor[d]++] = value;
+          value = displaced;
+          d = digit(value, shift);
+        }
+        a[cursor[b]++] = value;
+      }
+    }
+    if (shift == 0)
+      return;
+    int bucketStart = start;
+    for (int b = 0; b < RADIX; b++) {
+      int bucketEnd = limit[b];
+      if (bucketEnd - bucketStart > 1)
+        americanFlag(a, bucketStart, bucketEnd, shift - RADIX_BITS, next, bounds);
+      bucketStart = bucketEnd;
+    }
+  }
+
+  /**
+   * Returns the digit at {@code shift} with the sign bit flipped, so negative keys sort first.
+   */
+  private static int digit(int value, int shift) {
+    return ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+  }
+
+  private static int digit(long value, int shift) {
+    return (int) (((value ^ Long.MIN_VALUE) >>> shift) & MASK);
+  }
+}
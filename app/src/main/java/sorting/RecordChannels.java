@@ -0,0 +1,111 @@
+package sorting;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered record streams over {@link FileChannel}s, used by {@link ExternalSort}.
+ */
+final class RecordChannels {
+  private RecordChannels() {
+  }
+
+  /**
+   * Returns a direct buffer of at most {@code bufferBytes} holding a whole number of records.
+   */
+  static ByteBuffer allocate(int bufferBytes, int recordBytes) {
+    return ByteBuffer.allocateDirect(Math.max(1, bufferBytes / recordBytes) * recordBytes);
+  }
+
+  /**
+   * Reads records sequentially; {@link #next()} returns {@code null} at the end of the file.
+   */
+  static final class Reader<T> implements Closeable {
+    private final RecordCodec<T> codec;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final Path file;
+
+    Reader(Path file, RecordCodec<T> codec, int bufferBytes) throws IOException {
+      this.codec = codec;
+      this.file = file;
+      this.channel = FileChannel.open(file, StandardOpenOption.READ);
+      this.buffer = allocate(bufferBytes, codec.recordBytes());
+      buffer.limit(0);
+    }
+
+    T next() throws IOException {
+      int recordBytes = codec.recordBytes();
+      if (buffer.remaining() < recordBytes) {
+        buffer.compact();
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer) < 0) {
+            break;
+          }
+        }
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+          return null;
+        }
+        if (buffer.remaining() < recordBytes) {
+          throw new IOException("Truncated record at the end of " + file);
+        }
+      }
+      return codec.decode(buffer);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * Appends records to a new or truncated file.
+   */
+  static final class Writer<T> implements Closeable {
+    private final RecordCodec<T> codec;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    Writer(Path file, RecordCodec<T> codec, int bufferBytes) throws IOException {
+      this.codec = codec;
+      this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      this.buffer = allocate(bufferBytes, codec.recordBytes());
+    }
+
+    void write(T record) throws IOException {
+      if (buffer.remaining() < codec.recordBytes()) {
+        flush();
+      }
+      int start = buffer.position();
+      codec.encode(record, buffer);
+      if (buffer.position() - start != codec.recordBytes()) {
+        throw new IllegalStateException("Codec wrote " + (buffer.position() - start) + " bytes instead of "
+            + codec.recordBytes() + ".");
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package sorting;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts fixed-size records to and from bytes for {@link ExternalSort}.
+ *
+ * @param <T> the record type
+ */
+public interface RecordCodec<T> {
+
+  /**
+   * Returns the encoded size of every record in bytes, at least 1.
+   */
+  int recordBytes();
+
+  /**
+   * Writes exactly {@link #recordBytes()} bytes for {@code record} at the buffer's position.
+   */
+  void encode(T record, ByteBuffer buffer);
+
+  /**
+   * Reads one record of {@link #recordBytes()} bytes from the buffer's position.
+   */
+  T decode(ByteBuffer buffer);
+
+  /**
+   * Big-endian 4-byte {@code int} records.
+   */
+  static RecordCodec<Integer> ints() {
+    return new RecordCodec<>() {
+      @Override
+      public int recordBytes() {
+        return Integer.BYTES;
+      }
+
+      @Override
+      public void encode(Integer record, ByteBuffer buffer) {
+        buffer.putInt(record);
+      }
+
+      @Override
+      public Integer decode(ByteBuffer buffer) {
+        return buffer.getInt();
+      }
+    };
+  }
+
+  /**
+   * Big-endian 8-byte {@code long} records.
+   */
+  static RecordCodec<Long> longs() {
+    return new RecordCodec<>() {
+      @Override
+      public int recordBytes() {
+        return Long.BYTES;
+      }
+
+      @Override
+      public void encode(Long record, ByteBuffer buffer) {
+        buffer.putLong(record);
+      }
+
+      @Override
+      public Long decode(ByteBuffer buffer) {
+        return buffer.getLong();
+      }
+    };
+  }
+}
@@ -0,0 +1,53 @@
+package sorting;
+
+import java.util.Comparator;
+
+/**
+ * Operation counts collected by the instrumented {@code sort} overloads, for tuning the depth
+ * limit of {@link HybridQuickHeapSort}.
+ *
+ * <p>Comparisons include those made by insertion sort. Swaps are the exchanges made by
+ * median-of-three and partitioning, plus one per maximum that heap sort moves to the end of its
+ * range (its sifts move elements through a hole, and insertion sort shifts are not counted). A
+ * heap fallback is counted each time a range exhausts its depth limit. Counts accumulate across
+ * sorts until {@link #reset()}. Instances are not thread-safe.
+ */
+public final class SortCounters {
+  long comparisons;
+  long swaps;
+  long heapFallbacks;
+
+  public long comparisons() {
+    return comparisons;
+  }
+
+  public long swaps() {
+    return swaps;
+  }
+
+  public long heapFallbacks() {
+    return heapFallbacks;
+  }
+
+  public void reset() {
+    comparisons = 0;
+    swaps = 0;
+    heapFallbacks = 0;
+  }
+
+  /**
+   * Wraps {@code c} so every call is counted as a comparison.
+   */
+  <T> Comparator<T> counting(Comparator<? super T> c) {
+    return (x, y) -> {
+      comparisons++;
+      return c.compare(x, y);
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "SortCounters[comparisons=" + comparisons + ", swaps=" + swaps + ", heapFallbacks=" + heapFallbacks
+        + "]";
+  }
+}
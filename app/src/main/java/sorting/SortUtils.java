@@ -1,6 +1,7 @@
 package sorting;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Random;
 
 /**
@@ -16,6 +17,24 @@ public class SortUtils {
     a[j] = temp;
   }
 
+  public static void swap(int[] a, int i, int j) {
+    int temp = a[i];
+    a[i] = a[j];
+    a[j] = temp;
+  }
+
+  public static void swap(long[] a, int i, int j) {
+    long temp = a[i];
+    a[i] = a[j];
+    a[j] = temp;
+  }
+
+  public static void swap(double[] a, int i, int j) {
+    double temp = a[i];
+    a[i] = a[j];
+    a[j] = temp;
+  }
+
   public static <AnyType extends Comparable<AnyType>> boolean isSorted(AnyType[] a) {
     for (int i = 1; i < a.length; i++) {
       if (a[i - 1].compareTo(a[i]) > 0)
@@ -24,6 +43,34 @@ public class SortUtils {
     return true;
   }
 
+  public static boolean isSorted(int[] a) {
+    for (int i = 1; i < a.length; i++) {
+      if (a[i - 1] > a[i])
+        return false;
+    }
+    return true;
+  }
+
+  public static boolean isSorted(long[] a) {
+    for (int i = 1; i < a.length; i++) {
+      if (a[i - 1] > a[i])
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks ordering using {@link Double#compare}, i.e. the same total order as
+   * {@link Arrays#sort(double[])} ({@code -0.0 < 0.0}, NaN last).
+   */
+  public static boolean isSorted(double[] a) {
+    for (int i = 1; i < a.length; i++) {
+      if (Double.compare(a[i - 1], a[i]) > 0)
+        return false;
+    }
+    return true;
+  }
+
   public static Integer[] genRandomIntegers(int n, long seed, int bound) {
     Random rand = new Random(seed);
     Integer[] result = new Integer[n];
@@ -49,6 +96,71 @@ public class SortUtils {
     return result;
   }
 
+  public static int[] genRandomInts(int n, long seed, int bound) {
+    Random rand = new Random(seed);
+    int[] result = new int[n];
+    for (int i = 0; i < n; i++) {
+      result[i] = rand.nextInt(bound);
+    }
+    return result;
+  }
+
+  public static long[] genRandomLongs(int n, long seed) {
+    Random rand = new Random(seed);
+    long[] result = new long[n];
+    for (int i = 0; i < n; i++) {
+      result[i] = rand.nextLong();
+    }
+    return result;
+  }
+
+  public static double[] genRandomDoubles(int n, long seed) {
+    Random rand = new Random(seed);
+    double[] result = new double[n];
+    for (int i = 0; i < n; i++) {
+      result[i] = rand.nextDouble();
+    }
+    return result;
+  }
+
+  /**
+   * Returns a permutation of {@code 0 .. n-1} that drives the median-of-three Hoare partition of
+   * the object pipeline of {@link HybridQuickHeapSort} into unbalanced splits at every level, so
+   * sorting it with the default depth limit ends in the heap sort fallback.
+   *
+   * <p>The permutation is built with McIlroy's adversary ("A Killer Adversary for Quicksort"): the
+   * sort runs on items that all start as equal "gas" values above every real value. When two gas
+   * items are compared, the one that is not the current pivot candidate is frozen to the next
+   * value, so the pivot always ends up near one end. Items still gas at the end get the remaining
+   * values in index order. Replaying the frozen values makes the real sort take the same path.
+   */
+  public static Integer[] genMedianOfThreeKiller(int n) {
+    int[] value = new int[n];
+    Arrays.fill(value, n);
+    int[] next = { 0 };
+    int[] candidate = { -1 };
+    Comparator<Integer> adversary = (x, y) -> {
+      if (value[x] == n && value[y] == n)
+        value[x == candidate[0] ? x : y] = next[0]++;
+      if (value[x] == n)
+        candidate[0] = x;
+      else if (value[y] == n)
+        candidate[0] = y;
+      return Integer.compare(value[x], value[y]);
+    };
+    Integer[] items = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      items[i] = i;
+    }
+    HybridQuickHeapSort.sort(items, 0, n - 1, HybridQuickHeapSort.defaultDepthLimit(n), adversary);
+
+    Integer[] result = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      result[i] = value[i] == n ? next[0]++ : value[i];
+    }
+    return result;
+  }
+
   public static <AnyType> AnyType[] copyOf(AnyType[] a) {
     return Arrays.copyOf(a, a.length);
   }
@@ -65,6 +177,41 @@ public class SortUtils {
     }
   }
 
+  public static <T> void insertionSort(T[] a, int left, int right, Comparator<? super T> c) {
+    for (int i = left + 1; i <= right; i++) {
+      T key = a[i];
+      int j = i - 1;
+      while (j >= left && c.compare(a[j], key) > 0) {
+        a[j + 1] = a[j];
+        j--;
+      }
+      a[j + 1] = key;
+    }
+  }
+
+  public static <T> int medianOfThree(T[] a, int i, int j, int k, Comparator<? super T> c) {
+    return medianOfThree(a, i, j, k, c, null);
+  }
+
+  static <T> int medianOfThree(T[] a, int i, int j, int k, Comparator<? super T> c, SortCounters counters) {
+    if (c.compare(a[i], a[j]) > 0)
+      swap(a, i, j, counters);
+    if (c.compare(a[j], a[k]) > 0)
+      swap(a, j, k, counters);
+    if (c.compare(a[i], a[j]) > 0)
+      swap(a, i, j, counters);
+    return j;
+  }
+
+  /**
+   * Swaps {@code a[i]} and {@code a[j]}, counting the swap if {@code counters} is not null.
+   */
+  static <T> void swap(T[] a, int i, int j, SortCounters counters) {
+    if (counters != null)
+      counters.swaps++;
+    swap(a, i, j);
+  }
+
   public static <T extends Comparable<? super T>> int medianOfThree(T[] a, int i, int j, int k) {
     if (a[i].compareTo(a[j]) > 0)
       SortUtils.swap(a, i, j);
@@ -75,4 +222,128 @@ public class SortUtils {
     return j; // a[j] is the median
   }
 
+  public static void insertionSort(int[] a, int left, int right) {
+    for (int i = left + 1; i <= right; i++) {
+      int key = a[i];
+      int j = i - 1;
+      while (j >= left && a[j] > key) {
+        a[j + 1] = a[j];
+        j--;
+      }
+      a[j + 1] = key;
+    }
+  }
+
+  public static void insertionSort(long[] a, int left, int right) {
+    for (int i = left + 1; i <= right; i++) {
+      long key = a[i];
+      int j = i - 1;
+      while (j >= left && a[j] > key) {
+        a[j + 1] = a[j];
+        j--;
+      }
+      a[j + 1] = key;
+    }
+  }
+
+  /**
+   * Insertion sort for a NaN-free range; {@code -0.0} and {@code 0.0} compare as equal here.
+   */
+  public static void insertionSort(double[] a, int left, int right) {
+    for (int i = left + 1; i <= right; i++) {
+      double key = a[i];
+      int j = i - 1;
+      while (j >= left && a[j] > key) {
+        a[j + 1] = a[j];
+        j--;
+      }
+      a[j + 1] = key;
+    }
+  }
+
+  public static int medianOfThree(int[] a, int i, int j, int k) {
+    if (a[i] > a[j])
+      swap(a, i, j);
+    if (a[j] > a[k])
+      swap(a, j, k);
+    if (a[i] > a[j])
+      swap(a, i, j);
+    return j; // a[j] is the median
+  }
+
+  public static int medianOfThree(long[] a, int i, int j, int k) {
+    if (a[i] > a[j])
+      swap(a, i, j);
+    if (a[j] > a[k])
+      swap(a, j, k);
+    if (a[i] > a[j])
+      swap(a, i, j);
+    return j; // a[j] is the median
+  }
+
+  public static int medianOfThree(double[] a, int i, int j, int k) {
+    if (a[i] > a[j])
+      swap(a, i, j);
+    if (a[j] > a[k])
+      swap(a, j, k);
+    if (a[i] > a[j])
+      swap(a, i, j);
+    return j; // a[j] is the median
+  }
+
+  /**
+   * Reorders {@code a} so that {@code a[i]} becomes the element previously at {@code order[i]}.
+   */
+  static <T> void permute(T[] a, int[] order) {
+    T[] source = a.clone();
+    for (int i = 0; i < a.length; i++) {
+      a[i] = source[order[i]];
+    }
+  }
+
+  /**
+   * Moves every NaN in {@code [left, right]} to the end of the range and rewrites {@code -0.0}
+   * as {@code 0.0}, so the remaining prefix can be sorted with plain primitive comparisons.
+   * Returns the index of the last non-NaN element ({@code left - 1} if the range is all NaN)
+   * in the low 32 bits and the number of rewritten negative zeros in the high 32 bits.
+   */
+  static long prepareDoubles(double[] a, int left, int right) {
+    int end = right;
+    while (end >= left && Double.isNaN(a[end]))
+      end--;
+    int negativeZeros = 0;
+    for (int i = end; i >= left; i--) {
+      double value = a[i];
+      if (value != value) { // NaN
+        a[i] = a[end];
+        a[end--] = value;
+      } else if (value == 0.0 && Double.doubleToRawLongBits(value) < 0) {
+        a[i] = 0.0;
+        negativeZeros++;
+      }
+    }
+    return ((long) negativeZeros << 32) | (end & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Undoes the {@code -0.0} rewrite of {@link #prepareDoubles} on the sorted range
+   * {@code [left, end]} by turning the first {@code negativeZeros} zeros back into {@code -0.0}.
+   */
+  static void restoreNegativeZeros(double[] a, int left, int end, int negativeZeros) {
+    if (negativeZeros == 0)
+      return;
+    int lo = left;
+    int hi = end;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (a[mid] < 0.0)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    for (int i = lo; i < lo + negativeZeros; i++) {
+      a[i] = -0.0;
+    }
+  }
+
 }
@@ -1,5 +1,6 @@
 package util;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -44,6 +45,26 @@ public class Benchmark {
     return new Timing(best);
   }
 
+  /**
+   * Times {@code action} on a fresh input from {@code setup} for every warm-up and timed run.
+   * Only {@code action} is timed, so in-place algorithms such as sorts never see the output of a
+   * previous run. For statistically sound numbers use the JMH benchmarks ({@code ./gradlew jmh}).
+   */
+  public static <T> Timing timeWithNanos(Supplier<T> setup, Consumer<T> action, int warmup, int reps) {
+    for (int i = 0; i < warmup; i++)
+      action.accept(setup.get());
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < reps; i++) {
+      T input = setup.get();
+      long t0 = System.nanoTime();
+      action.accept(input);
+      long ns = System.nanoTime() - t0;
+      if (ns < best)
+        best = ns;
+    }
+    return new Timing(best);
+  }
+
   public static final class Timing {
     private final long bestNanos;
 
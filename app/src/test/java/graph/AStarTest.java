@@ -0,0 +1,93 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AStarTest {
+
+  private static final int SIDE = 30;
+
+  @Test
+  void euclideanHeuristicFindsShortestPathAndSettlesFewerNodes() {
+    double[] xs = new double[SIDE * SIDE];
+    double[] ys = new double[SIDE * SIDE];
+    Graph grid = grid(xs, ys);
+    int source = 0;
+    int target = SIDE * 3 + 5;
+
+    AStar.Result result = AStar.compute(grid, source, target, Heuristic.euclidean(xs, ys));
+    AStar.Result blind = AStar.compute(grid, source, target, Heuristic.zero());
+
+    double[] expected = grid.shortestDistances(source);
+    assertEquals(expected[target], result.distances()[target], 1e-9);
+    assertEquals(expected[target], blind.distances()[target], 1e-9);
+    assertTrue(result.settledCount() < blind.settledCount());
+
+    List<Integer> path = Dijkstra.reconstructPath(source, target, result.toDijkstraResult());
+    assertEquals(source, path.get(0));
+    assertEquals(target, path.get(path.size() - 1));
+    assertEquals(9, path.size());
+  }
+
+  @Test
+  void csrGraphGivesSameDistance() {
+    double[] xs = new double[SIDE * SIDE];
+    double[] ys = new double[SIDE * SIDE];
+    Graph grid = grid(xs, ys);
+    CsrGraph csr = CsrGraph.copyOf(grid);
+    int target = SIDE * SIDE - 1;
+
+    AStar.Result result = AStar.compute(csr, 0, target, Heuristic.euclidean(xs, ys));
+
+    assertEquals(grid.shortestDistances(0)[target], result.distances()[target], 1e-9);
+  }
+
+  @Test
+  void unreachableTargetKeepsInfiniteDistance() {
+    Graph graph = new DirectedGraph(3);
+    graph.addEdge(0, 1, 1.0);
+
+    AStar.Result result = AStar.compute(graph, 0, 2, Heuristic.zero());
+
+    assertEquals(Double.POSITIVE_INFINITY, result.distances()[2]);
+    assertEquals(List.of(), Dijkstra.reconstructPath(0, 2, result.toDijkstraResult()));
+  }
+
+  @Test
+  void haversineHeuristicMatchesKnownDistance() {
+    // Stockholm and Gothenburg, roughly 398 km apart.
+    Heuristic heuristic = Heuristic.haversine(new double[] { 59.3293, 57.7089 }, new double[] { 18.0686, 11.9746 });
+
+    assertEquals(398_000, heuristic.estimate(0, 1), 5_000);
+    assertEquals(0.0, heuristic.estimate(1, 1), 1e-9);
+  }
+
+  @Test
+  void negativeWeightsAreRejected() {
+    Graph graph = new DirectedGraph(2);
+    graph.addEdge(0, 1, -2.0);
+
+    assertThrows(IllegalArgumentException.class, () -> AStar.compute(graph, 0, 1, Heuristic.zero()));
+  }
+
+  private static Graph grid(double[] xs, double[] ys) {
+    Graph graph = new UndirectedGraph(SIDE * SIDE);
+    for (int row = 0; row < SIDE; row++) {
+      for (int col = 0; col < SIDE; col++) {
+        int node = row * SIDE + col;
+        xs[node] = col;
+        ys[node] = row;
+        if (col + 1 < SIDE) {
+          graph.addEdge(node, node + 1, 1.0);
+        }
+        if (row + 1 < SIDE) {
+          graph.addEdge(node, node + SIDE, 1.0);
+        }
+      }
+    }
+    return graph;
+  }
+}
@@ -0,0 +1,108 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AdjacencyIndexTest {
+
+  @Test
+  void hubChurnMatchesReferenceCounts() {
+    DirectedGraph graph = new DirectedGraph(300);
+    graph.setAdjacencyIndexThreshold(8);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(9L);
+    for (int step = 0; step < 20000; step++) {
+      int v = 1 + random.nextInt(299);
+      if (random.nextInt(3) == 0) {
+        graph.removeEdge(0, v);
+        expected.computeIfPresent(v, (key, count) -> count == 1 ? null : count - 1);
+      } else {
+        graph.addEdge(0, v, v);
+        expected.merge(v, 1, Integer::sum);
+      }
+      if (step % 500 == 0) {
+        assertConsistent(graph, expected);
+      }
+    }
+    assertConsistent(graph, expected);
+    assertTrue(graph.isIndexed(0));
+  }
+
+  @Test
+  void undirectedRemovalKeepsParallelEdgesPaired() {
+    UndirectedGraph graph = new UndirectedGraph(3);
+    graph.setAdjacencyIndexThreshold(1);
+    graph.addEdge(0, 1, 5.0);
+    graph.addEdge(0, 2, 1.0);
+    graph.addEdge(0, 1, 2.0);
+    graph.addEdge(0, 1, 7.0);
+
+    assertEquals(OptionalDouble.of(2.0), graph.edgeWeight(0, 1));
+    graph.removeEdge(0, 1);
+    graph.removeEdge(1, 0);
+    List<Double> forward = weights(graph, 0, 1);
+    List<Double> backward = weights(graph, 1, 0);
+    forward.sort(null);
+    backward.sort(null);
+    assertEquals(forward, backward);
+    assertEquals(1, forward.size());
+    assertEquals(2, graph.edgeCount());
+  }
+
+  @Test
+  void lookupsWorkWithAndWithoutIndex() {
+    for (int threshold : new int[] { 1, Integer.MAX_VALUE }) {
+      DirectedGraph graph = new DirectedGraph(4);
+      graph.setAdjacencyIndexThreshold(threshold);
+      graph.addEdge(0, 1, 3.0);
+      graph.addEdge(0, 2, 4.0);
+      assertEquals(threshold == 1, graph.isIndexed(0));
+      assertTrue(graph.hasEdge(0, 2));
+      assertFalse(graph.hasEdge(2, 0));
+      assertEquals(OptionalDouble.of(3.0), graph.edgeWeight(0, 1));
+      assertEquals(OptionalDouble.empty(), graph.edgeWeight(0, 3));
+      assertThrows(IllegalArgumentException.class, () -> graph.hasEdge(0, 4));
+    }
+  }
+
+  @Test
+  void csrGraphUsesDefaultLookup() {
+    DirectedGraph graph = new DirectedGraph(3);
+    graph.addEdge(0, 1, 6.0);
+    graph.addEdge(0, 1, 4.0);
+    Graph csr = CsrGraph.copyOf(graph);
+    assertTrue(csr.hasEdge(0, 1));
+    assertFalse(csr.hasEdge(1, 0));
+    assertEquals(OptionalDouble.of(4.0), csr.edgeWeight(0, 1));
+  }
+
+  private static void assertConsistent(DirectedGraph graph, Map<Integer, Integer> expected) {
+    Map<Integer, Integer> actual = new HashMap<>();
+    for (Edge edge : graph.adjacency(0)) {
+      actual.merge(edge.to(), 1, Integer::sum);
+    }
+    assertEquals(expected, actual);
+    assertEquals(expected.values().stream().mapToInt(Integer::intValue).sum(), graph.degree(0));
+    for (int v = 1; v < graph.nodeCount(); v++) {
+      assertEquals(expected.containsKey(v), graph.hasEdge(0, v));
+    }
+  }
+
+  private static List<Double> weights(Graph graph, int u, int v) {
+    List<Double> result = new ArrayList<>();
+    for (Edge edge : graph.adjacency(u)) {
+      if (edge.to() == v) {
+        result.add(edge.weight());
+      }
+    }
+    return result;
+  }
+}
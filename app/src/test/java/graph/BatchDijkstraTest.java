@@ -0,0 +1,67 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class BatchDijkstraTest {
+
+  @Test
+  void rowsMatchSingleSourceDijkstra() {
+    Graph graph = TestGraphs.randomGraph(200, 4, true, 11L, random -> 1 + random.nextInt(50));
+    int[] sources = new int[60];
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = (i * 7) % graph.nodeCount();
+    }
+    ConcurrentHashMap<Integer, double[]> rows = new ConcurrentHashMap<>();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BatchDijkstra.computeRows(graph, sources, null, pool, (index, source, row) -> {
+        assertEquals(sources[index], source);
+        assertNull(rows.put(index, row.clone()));
+      });
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(sources.length, rows.size());
+    for (int i = 0; i < sources.length; i++) {
+      assertArrayEquals(Dijkstra.compute(graph, sources[i]).distances(), rows.get(i), 1e-9);
+    }
+  }
+
+  @Test
+  void distanceMatrixHonoursTargetOrderAndDuplicates() {
+    Graph graph = TestGraphs.randomGraph(150, 3, false, 5L, random -> 1 + random.nextInt(50));
+    int[] sources = { 0, 5, 149, 5 };
+    int[] targets = { 149, 3, 3, 0, 77 };
+    double[][] matrix = BatchDijkstra.distanceMatrix(graph, sources, targets);
+    for (int i = 0; i < sources.length; i++) {
+      double[] expected = Dijkstra.compute(graph, sources[i]).distances();
+      for (int j = 0; j < targets.length; j++) {
+        assertEquals(expected[targets[j]], matrix[i][j], 1e-9);
+      }
+    }
+  }
+
+  @Test
+  void unreachableTargetsAreInfinite() {
+    Graph graph = new DirectedGraph(3);
+    graph.addEdge(0, 1, 2.0);
+    double[][] matrix = BatchDijkstra.distanceMatrix(graph, new int[] { 0, 2 }, new int[] { 1, 2 });
+    assertArrayEquals(new double[] { 2.0, Double.POSITIVE_INFINITY }, matrix[0]);
+    assertArrayEquals(new double[] { Double.POSITIVE_INFINITY, 0.0 }, matrix[1]);
+  }
+
+  @Test
+  void rejectsBadInput() {
+    Graph graph = new DirectedGraph(2);
+    graph.addEdge(0, 1, -1.0);
+    assertThrows(IllegalArgumentException.class,
+        () -> BatchDijkstra.computeRows(graph, new int[] { 2 }, (index, source, row) -> { }));
+    assertThrows(IllegalArgumentException.class,
+        () -> BatchDijkstra.computeRows(graph, new int[] { 0 }, (index, source, row) -> { }));
+  }
+}
@@ -0,0 +1,183 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentGraphTest {
+
+  @Test
+  void behavesLikeSequentialGraphs() {
+    for (boolean directed : new boolean[] { true, false }) {
+      Graph reference = directed ? new DirectedGraph(6) : new UndirectedGraph(6);
+      ConcurrentGraph graph = new ConcurrentGraph(6, directed);
+      int[][] arcs = { { 0, 1, 4 }, { 0, 2, 1 }, { 2, 1, 1 }, { 1, 3, 2 }, { 3, 4, 7 }, { 2, 4, 9 } };
+      for (int[] arc : arcs) {
+        reference.addEdge(arc[0], arc[1], arc[2]);
+        graph.addEdge(arc[0], arc[1], arc[2]);
+      }
+      reference.removeEdge(3, 4);
+      graph.removeEdge(3, 4);
+      graph.removeEdge(5, 0);
+
+      assertEquals(reference.edgeCount(), graph.edgeCount());
+      assertEquals(collect(reference.bfs(0)), collect(graph.bfs(0)));
+      assertEquals(collect(reference.dfs(0)), collect(graph.dfs(0)));
+      assertEquals(collect(reference.shortestPath(0, 4)), collect(graph.shortestPath(0, 4)));
+      assertArrayEquals(reference.shortestDistances(0), graph.shortestDistances(0), 1e-9);
+      assertEquals(reference.hasPath(4, 0), graph.hasPath(4, 0));
+      assertEquals(edgeList(reference), edgeList(graph));
+    }
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentGraph(2, false).addEdge(1, 1));
+  }
+
+  @Test
+  void crossStripeWritersDoNotDeadlock() throws Exception {
+    // Nodes 1 and 64 fall into stripes 1 and 0, nodes 0 and 65 into stripes 0 and 1.
+    ConcurrentGraph graph = new ConcurrentGraph(200, false);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<?>> writes = new ArrayList<>();
+      for (int[] edge : new int[][] { { 1, 64 }, { 0, 65 } }) {
+        writes.add(executor.submit(() -> {
+          for (int i = 0; i < 50000; i++) {
+            graph.addEdge(edge[0], edge[1]);
+            graph.removeEdge(edge[1], edge[0]);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> write : writes) {
+        write.get(60, TimeUnit.SECONDS);
+      }
+      assertEquals(0, graph.edgeCount());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void readsAreLinearizableUnderConcurrentWrites() throws Exception {
+    for (boolean directed : new boolean[] { true, false }) {
+      stress(directed);
+    }
+  }
+
+  /**
+   * Writer {@code w} only adds edges from nodes {@code u} with {@code u % writers == w}, so on a
+   * directed graph it knows the exact degree of those nodes after each of its writes. Readers
+   * bound the live edge count by counters updated before and after every write, and check that
+   * degrees and edge count agree within each snapshot.
+   */
+  private static void stress(boolean directed) throws Exception {
+    int nodes = 200;
+    int writers = 4;
+    int operations = 20000;
+    int arcsPerEdge = directed ? 1 : 2;
+    ConcurrentGraph graph = new ConcurrentGraph(nodes, directed);
+    AtomicInteger addsStarted = new AtomicInteger();
+    AtomicInteger addsDone = new AtomicInteger();
+    AtomicInteger removesStarted = new AtomicInteger();
+    AtomicInteger removesDone = new AtomicInteger();
+    AtomicBoolean done = new AtomicBoolean();
+    ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+    try {
+      List<Future<Integer>> writes = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        int owner = w;
+        writes.add(executor.submit(() -> {
+          Random random = new Random(owner);
+          int[] degrees = new int[nodes];
+          List<int[]> added = new ArrayList<>();
+          for (int i = 0; i < operations; i++) {
+            int u;
+            if (!added.isEmpty() && random.nextInt(3) == 0) {
+              int[] edge = added.remove(added.size() - 1);
+              u = edge[0];
+              removesStarted.incrementAndGet();
+              graph.removeEdge(u, edge[1]);
+              removesDone.incrementAndGet();
+              degrees[u]--;
+            } else {
+              u = owner + writers * random.nextInt((nodes - owner + writers - 1) / writers);
+              int v = (u + 1 + random.nextInt(nodes - 1)) % nodes;
+              addsStarted.incrementAndGet();
+              graph.addEdge(u, v, 1.0);
+              addsDone.incrementAndGet();
+              degrees[u]++;
+              added.add(new int[] { u, v });
+            }
+            if (directed) {
+              assertEquals(degrees[u], graph.degree(u));
+            }
+          }
+          return added.size();
+        }));
+      }
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 2; r++) {
+        readers.add(executor.submit(() -> {
+          while (!done.get()) {
+            int lower = addsDone.get();
+            int upperRemoved = removesDone.get();
+            int count = graph.edgeCount();
+            int upper = addsStarted.get();
+            int lowerRemoved = removesStarted.get();
+            assertTrue(lower - lowerRemoved <= count && count <= upper - upperRemoved);
+
+            Graph snapshot = graph.snapshot();
+            int arcs = 0;
+            for (int u = 0; u < nodes; u++) {
+              arcs += snapshot.degree(u);
+            }
+            assertEquals(arcsPerEdge * snapshot.edgeCount(), arcs);
+            snapshot.bfs(0);
+          }
+          return null;
+        }));
+      }
+      int expected = 0;
+      for (Future<Integer> write : writes) {
+        expected += write.get(60, TimeUnit.SECONDS);
+      }
+      done.set(true);
+      for (Future<?> reader : readers) {
+        reader.get(60, TimeUnit.SECONDS);
+      }
+
+      assertEquals(expected, graph.edgeCount());
+      int arcs = 0;
+      for (int u = 0; u < nodes; u++) {
+        arcs += graph.degree(u);
+      }
+      assertEquals(arcsPerEdge * expected, arcs);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<String> edgeList(Graph graph) {
+    List<String> result = new ArrayList<>();
+    for (Edge edge : graph.edges()) {
+      result.add(edge.from() + "-" + edge.to() + ":" + edge.weight());
+    }
+    result.sort(null);
+    return result;
+  }
+
+  private static List<Integer> collect(Iterable<Integer> iterable) {
+    List<Integer> result = new ArrayList<>();
+    iterable.forEach(result::add);
+    return result;
+  }
+}
@@ -0,0 +1,122 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class ConnectedComponentsTest {
+
+  @Test
+  void unionFindTracksSetsAndSizes() {
+    UnionFind sets = new UnionFind(6);
+    assertTrue(sets.union(0, 1));
+    assertTrue(sets.union(2, 3));
+    assertTrue(sets.union(1, 3));
+    assertFalse(sets.union(0, 2));
+    assertTrue(sets.connected(0, 3));
+    assertFalse(sets.connected(0, 4));
+    assertEquals(4, sets.setSize(2));
+    assertEquals(3, sets.count());
+    assertThrows(IllegalArgumentException.class, () -> sets.find(6));
+  }
+
+  @Test
+  void parallelLabelsMatchUnionFind() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (boolean directed : new boolean[] { true, false }) {
+        for (int degree : new int[] { 1, 3 }) {
+          Graph graph = TestGraphs.randomGraph(20_000, degree, directed, 11L + degree);
+          ConnectedComponents.Result expected = ConnectedComponents.compute(graph);
+          ConnectedComponents.Result actual = ConnectedComponents.computeParallel(graph, pool);
+          assertEquals(expected.count(), actual.count());
+          assertArrayEquals(expected.labels(), actual.labels());
+          assertEquals(graph.nodeCount(), Arrays.stream(actual.sizes()).sum());
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void strongComponentsMatchMutualReachability() {
+    Graph graph = TestGraphs.randomGraph(300, 1, true, 3L);
+    ConnectedComponents.Result result = StronglyConnectedComponents.compute(graph);
+    boolean[][] reach = TestGraphs.reachability(graph);
+    for (int u = 0; u < graph.nodeCount(); u++) {
+      for (int v = 0; v < graph.nodeCount(); v++) {
+        assertEquals(reach[u][v] && reach[v][u], result.connected(u, v), u + " " + v);
+      }
+    }
+    for (Edge edge : graph.edges()) {
+      assertTrue(result.labels()[edge.from()] >= result.labels()[edge.to()]);
+    }
+  }
+
+  @Test
+  void deepGraphsDoNotOverflowTheStack() {
+    int n = 200_000;
+    DirectedGraph graph = new DirectedGraph(n);
+    for (int u = 0; u + 1 < n; u++) {
+      graph.addEdge(u, u + 1);
+    }
+    assertEquals(n, StronglyConnectedComponents.compute(graph).count());
+    graph.addEdge(n - 1, 0);
+    assertEquals(1, StronglyConnectedComponents.compute(graph).count());
+  }
+
+  @Test
+  void hasPathFollowsMutations() {
+    for (boolean directed : new boolean[] { true, false }) {
+      Random random = new Random(17L);
+      Graph graph = TestGraphs.randomGraph(120, 1, directed, 23L);
+      for (int step = 0; step < 20; step++) {
+        boolean[][] reach = TestGraphs.reachability(graph);
+        for (int u = 0; u < graph.nodeCount(); u++) {
+          for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(reach[u][v], graph.hasPath(u, v), u + " " + v);
+          }
+        }
+        int u = random.nextInt(graph.nodeCount());
+        int v = random.nextInt(graph.nodeCount());
+        if (u != v) {
+          if (graph.hasEdge(u, v)) {
+            graph.removeEdge(u, v);
+          } else {
+            graph.addEdge(u, v);
+          }
+        }
+      }
+      CsrGraph csr = CsrGraph.copyOf(graph);
+      boolean[][] reach = TestGraphs.reachability(graph);
+      for (int u = 0; u < graph.nodeCount(); u++) {
+        for (int v = 0; v < graph.nodeCount(); v++) {
+          assertEquals(reach[u][v], csr.hasPath(u, v));
+        }
+      }
+    }
+  }
+
+  @Test
+  void hasPathLabelsComponentsOnlyAfterRepeatedQueries() {
+    DirectedGraph graph = new DirectedGraph(50);
+    for (int u = 0; u + 1 < 50; u++) {
+      graph.addEdge(u, u + 1);
+      assertTrue(graph.hasPath(0, u + 1));
+      assertFalse(graph.hasPath(u + 1, 0));
+      assertFalse(graph.hasReachabilityIndex());
+    }
+    for (int i = 0; i < 10; i++) {
+      assertTrue(graph.hasPath(i, 49));
+    }
+    assertTrue(graph.hasReachabilityIndex());
+    graph.removeEdge(48, 49);
+    assertFalse(graph.hasReachabilityIndex());
+    assertFalse(graph.hasPath(0, 49));
+  }
+}
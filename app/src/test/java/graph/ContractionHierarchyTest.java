@@ -0,0 +1,110 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class ContractionHierarchyTest {
+
+  @Test
+  void distancesAndUnpackedPathsMatchDijkstra() {
+    for (boolean directed : new boolean[] { true, false }) {
+      Graph graph = TestGraphs.randomEdges(200, 900, directed, 21, random -> 1 + random.nextInt(30));
+      ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+      ContractionHierarchy.Query query = hierarchy.newQuery();
+
+      for (int source = 0; source < graph.nodeCount(); source += 9) {
+        double[] expected = graph.shortestDistances(source);
+        for (int target = 0; target < graph.nodeCount(); target++) {
+          assertEquals(expected[target], hierarchy.distance(source, target), 1e-9);
+          assertEquals(expected[target], query.distance(source, target), 1e-9);
+          List<Integer> path = hierarchy.shortestPath(source, target);
+          if (expected[target] == Double.POSITIVE_INFINITY) {
+            assertTrue(path.isEmpty());
+          } else {
+            assertEquals(source, path.get(0));
+            assertEquals(target, path.get(path.size() - 1));
+            assertEquals(expected[target], pathWeight(graph, path), 1e-9);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void sharedHierarchyAnswersConcurrentQueries() {
+    Graph graph = TestGraphs.randomEdges(300, 1500, true, 8, random -> 1 + random.nextInt(30));
+    ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+
+    double[][] expected = new double[graph.nodeCount()][];
+    for (int source = 0; source < graph.nodeCount(); source++) {
+      expected[source] = graph.shortestDistances(source);
+    }
+
+    IntStream.range(0, graph.nodeCount()).parallel().forEach(source -> {
+      for (int target = 0; target < graph.nodeCount(); target += 7) {
+        assertEquals(expected[source][target], hierarchy.distance(source, target), 1e-9);
+      }
+    });
+  }
+
+  @Test
+  void pathGraphNeedsShortcutsAndKeepsOriginalNodes() {
+    Graph graph = new UndirectedGraph(8);
+    for (int u = 0; u + 1 < 8; u++) {
+      graph.addEdge(u, u + 1, 1.0);
+    }
+
+    ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+
+    assertEquals(7.0, hierarchy.distance(0, 7), 1e-9);
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), hierarchy.shortestPath(0, 7));
+    assertEquals(List.of(5, 4, 3), hierarchy.shortestPath(5, 3));
+    assertEquals(List.of(2), hierarchy.shortestPath(2, 2));
+  }
+
+  @Test
+  void serializedHierarchyAnswersSameQueries() throws IOException {
+    Graph graph = TestGraphs.randomEdges(120, 500, true, 8, random -> 1 + random.nextInt(30));
+    ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    hierarchy.writeTo(bytes);
+
+    ContractionHierarchy loaded = ContractionHierarchy.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+
+    assertEquals(hierarchy.shortcutCount(), loaded.shortcutCount());
+    for (int target = 0; target < graph.nodeCount(); target++) {
+      assertEquals(hierarchy.distance(3, target), loaded.distance(3, target), 1e-9);
+      assertEquals(hierarchy.shortestPath(3, target), loaded.shortestPath(3, target));
+    }
+    assertThrows(IOException.class, () -> ContractionHierarchy.readFrom(new ByteArrayInputStream(new byte[8])));
+  }
+
+  @Test
+  void negativeWeightsAreRejected() {
+    Graph graph = new DirectedGraph(2);
+    graph.addEdge(0, 1, -1.0);
+
+    assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.build(graph));
+  }
+
+  private static double pathWeight(Graph graph, List<Integer> path) {
+    double total = 0.0;
+    for (int i = 0; i + 1 < path.size(); i++) {
+      double best = Double.POSITIVE_INFINITY;
+      for (Edge edge : graph.adjacency(path.get(i))) {
+        if (edge.to() == path.get(i + 1)) {
+          best = Math.min(best, edge.weight());
+        }
+      }
+      total += best;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,100 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class CsrGraphTest {
+
+  @Test
+  void copyOfDirectedGraphKeepsAdjacencyOrderAndQueries() {
+    Graph graph = new DirectedGraph(5);
+    graph.addEdge(0, 2, 4.0);
+    graph.addEdge(0, 1, 1.0);
+    graph.addEdge(1, 2, 2.0);
+    graph.addEdge(2, 3, 1.0);
+    graph.addEdge(3, 1, 7.0);
+
+    CsrGraph csr = CsrGraph.copyOf(graph);
+
+    assertTrue(csr.isDirected());
+    assertEquals(5, csr.nodeCount());
+    assertEquals(5, csr.edgeCount());
+    assertEquals(2, csr.degree(0));
+    assertEquals(0, csr.degree(4));
+    assertEquals(collect(graph.adjacency(0)), collect(csr.adjacency(0)));
+    assertEquals(collect(graph.edges()), collect(csr.edges()));
+    assertEquals(collect(graph.bfs(0)), collect(csr.bfs(0)));
+    assertEquals(collect(graph.dfs(0)), collect(csr.dfs(0)));
+    assertEquals(collect(graph.path(0, 3)), collect(csr.path(0, 3)));
+    assertFalse(csr.hasPath(0, 4));
+    assertArrayEquals(graph.shortestDistances(0), csr.shortestDistances(0), 1e-9);
+    assertEquals(List.of(0, 1, 2, 3), collect(csr.shortestPath(0, 3)));
+  }
+
+  @Test
+  void copyOfUndirectedGraphReportsEachEdgeOnce() {
+    Graph graph = new UndirectedGraph(4);
+    graph.addEdge(0, 1, 2.0);
+    graph.addEdge(2, 1, 3.0);
+    graph.addEdge(0, 3, 1.0);
+
+    CsrGraph csr = CsrGraph.copyOf(graph);
+
+    assertFalse(csr.isDirected());
+    assertEquals(3, csr.edgeCount());
+    assertEquals(2, csr.degree(1));
+    assertEquals(collect(graph.edges()), collect(csr.edges()));
+    assertEquals(collect(graph.adjacency(1)), collect(csr.adjacency(1)));
+    assertEquals(collect(graph.bfs(3)), collect(csr.bfs(3)));
+  }
+
+  @Test
+  void builderMatchesGraphBuiltWithSameCalls() {
+    Graph graph = new UndirectedGraph(6);
+    CsrGraph.Builder builder = CsrGraph.builder(6, false);
+    int[][] pairs = { { 0, 1 }, { 4, 0 }, { 1, 5 }, { 2, 3 }, { 5, 3 }, { 0, 2 } };
+    for (int[] pair : pairs) {
+      graph.addEdge(pair[0], pair[1], pair[0] + pair[1]);
+      builder.addEdge(pair[0], pair[1], pair[0] + pair[1]);
+    }
+
+    CsrGraph csr = builder.build();
+
+    for (int u = 0; u < 6; u++) {
+      assertEquals(collect(graph.adjacency(u)), collect(csr.adjacency(u)));
+      assertEquals(collect(graph.dfs(u)), collect(csr.dfs(u)));
+    }
+    assertEquals(collect(graph.shortestPath(4, 3)), collect(csr.shortestPath(4, 3)));
+  }
+
+  @Test
+  void fromEdgeStreamBuildsDirectedGraph() {
+    CsrGraph csr = CsrGraph.fromEdges(3, true, Stream.of(new Edge(0, 1, 1.5), new Edge(1, 2, 2.5)));
+
+    assertEquals(2, csr.edgeCount());
+    assertArrayEquals(new double[] { 0.0, 1.5, 4.0 }, csr.shortestDistances(0), 1e-9);
+  }
+
+  @Test
+  void csrGraphIsImmutableAndValidatesNodes() {
+    CsrGraph csr = CsrGraph.builder(2, true).addEdge(0, 1).build();
+
+    assertThrows(UnsupportedOperationException.class, () -> csr.addEdge(1, 0));
+    assertThrows(UnsupportedOperationException.class, () -> csr.removeEdge(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> csr.bfs(2));
+    assertThrows(IllegalArgumentException.class, () -> CsrGraph.builder(2, false).addEdge(1, 1));
+  }
+
+  private static <T> List<T> collect(Iterable<T> values) {
+    List<T> list = new ArrayList<>();
+    for (T value : values) {
+      list.add(value);
+    }
+    return list;
+  }
+}
@@ -0,0 +1,65 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaSteppingTest {
+
+  @Test
+  void distancesMatchDijkstraForAnyDelta() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (boolean directed : new boolean[] { true, false }) {
+        Graph graph = TestGraphs.randomGraph(3000, 5, directed, 31L, random -> random.nextInt(50) * 0.5);
+        double[] expected = Dijkstra.compute(graph, 0).distances();
+        for (double delta : new double[] { 0.5, 3.0, DeltaStepping.defaultDelta(graph), 1000.0 }) {
+          Dijkstra.Result result = DeltaStepping.compute(graph, 0, delta, pool);
+          assertArrayEquals(expected, result.distances(), 1e-9, "delta=" + delta);
+          assertShortestPathTree(graph, 0, result);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void zeroWeightCyclesYieldATree() {
+    Graph graph = new UndirectedGraph(5);
+    graph.addEdge(0, 1, 0.0);
+    graph.addEdge(1, 2, 0.0);
+    graph.addEdge(2, 0, 0.0);
+    graph.addEdge(2, 3, 4.0);
+    Dijkstra.Result result = DeltaStepping.compute(graph, 0);
+    assertArrayEquals(new double[] { 0, 0, 0, 4, Double.POSITIVE_INFINITY }, result.distances());
+    assertShortestPathTree(graph, 0, result);
+    assertEquals(-1, result.parents()[4]);
+  }
+
+  @Test
+  void rejectsNegativeWeightsAndBadDelta() {
+    Graph graph = new DirectedGraph(2);
+    graph.addEdge(0, 1, -1.0);
+    assertThrows(IllegalArgumentException.class, () -> DeltaStepping.compute(graph, 0));
+    Graph positive = new DirectedGraph(2);
+    positive.addEdge(0, 1, 1e9);
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    assertThrows(IllegalArgumentException.class, () -> DeltaStepping.compute(positive, 0, 0.0, pool));
+    assertThrows(IllegalArgumentException.class, () -> DeltaStepping.compute(positive, 0, 1.0, pool));
+  }
+
+  private static void assertShortestPathTree(Graph graph, int source, Dijkstra.Result result) {
+    double[] distances = result.distances();
+    int[] parents = result.parents();
+    for (int v = 0; v < graph.nodeCount(); v++) {
+      if (v == source || distances[v] == Double.POSITIVE_INFINITY) {
+        continue;
+      }
+      assertEquals(distances[v], distances[parents[v]] + graph.edgeWeight(parents[v], v).orElseThrow(), 1e-9);
+      assertFalse(Dijkstra.reconstructPath(source, v, result).isEmpty());
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DynamicShortestPathsTest {
+
+  @Test
+  void randomUpdatesMatchDijkstra() {
+    for (boolean directed : new boolean[] { true, false }) {
+      Random random = new Random(directed ? 5L : 6L);
+      AbstractGraph graph = directed ? new DirectedGraph(300) : new UndirectedGraph(300);
+      List<int[]> added = new ArrayList<>();
+      for (int i = 0; i < 900; i++) {
+        addEdge(graph, random, added);
+      }
+      try (DynamicShortestPaths paths = new DynamicShortestPaths(graph, 0)) {
+        for (int step = 0; step < 600; step++) {
+          if (random.nextBoolean() && !added.isEmpty()) {
+            int[] edge = added.remove(random.nextInt(added.size()));
+            graph.removeEdge(edge[0], edge[1]);
+          } else {
+            addEdge(graph, random, added);
+          }
+          if (step % 20 == 0) {
+            assertMatchesDijkstra(graph, paths);
+          }
+        }
+        assertMatchesDijkstra(graph, paths);
+        assertTrue(paths.repairedNodes() < paths.updates() * graph.nodeCount() / 4);
+      }
+    }
+  }
+
+  @Test
+  void removingATreeEdgeReroutesItsSubtree() {
+    DirectedGraph graph = new DirectedGraph(5);
+    graph.addEdge(0, 1, 1.0);
+    graph.addEdge(1, 2, 1.0);
+    graph.addEdge(2, 3, 1.0);
+    graph.addEdge(0, 3, 10.0);
+    try (DynamicShortestPaths paths = new DynamicShortestPaths(graph, 0)) {
+      assertEquals(3.0, paths.distance(3), 1e-9);
+
+      graph.removeEdge(1, 2);
+      assertEquals(Double.POSITIVE_INFINITY, paths.distance(2));
+      assertEquals(-1, paths.parent(2));
+      assertEquals(10.0, paths.distance(3), 1e-9);
+      assertEquals(List.of(0, 3), paths.pathTo(3));
+
+      graph.addEdge(4, 2, 0.0);
+      assertEquals(Double.POSITIVE_INFINITY, paths.distance(2));
+      graph.addEdge(1, 4, 0.5);
+      assertEquals(List.of(0, 1, 4, 2, 3), paths.pathTo(3));
+      assertEquals(2.5, paths.distance(3), 1e-9);
+    }
+  }
+
+  @Test
+  void unrelatedChangesDoNoWork() {
+    UndirectedGraph graph = new UndirectedGraph(4);
+    graph.addEdge(0, 1, 1.0);
+    graph.addEdge(1, 2, 1.0);
+    try (DynamicShortestPaths paths = new DynamicShortestPaths(graph, 0)) {
+      graph.addEdge(0, 2, 5.0);
+      graph.removeEdge(0, 2);
+      assertEquals(4, paths.updates());
+      assertEquals(0, paths.repairedNodes());
+      assertArrayEquals(new double[] { 0.0, 1.0, 2.0, Double.POSITIVE_INFINITY }, paths.distances(), 1e-9);
+    }
+  }
+
+  @Test
+  void negativeEdgesSuspendQueriesUntilRemoved() {
+    DirectedGraph graph = new DirectedGraph(3);
+    graph.addEdge(0, 1, 2.0);
+    DynamicShortestPaths paths = new DynamicShortestPaths(graph, 0);
+    graph.addEdge(1, 2, -1.0);
+    assertThrows(IllegalArgumentException.class, () -> paths.distance(2));
+    graph.removeEdge(1, 2);
+    graph.addEdge(1, 2, 3.0);
+    assertEquals(5.0, paths.distance(2), 1e-9);
+
+    graph.addEdge(0, 2, -4.0);
+    assertThrows(IllegalArgumentException.class, () -> new DynamicShortestPaths(graph, 0));
+  }
+
+  @Test
+  void closedTreeStopsFollowingTheGraph() {
+    DirectedGraph graph = new DirectedGraph(2);
+    DynamicShortestPaths paths = new DynamicShortestPaths(graph, 0);
+    paths.close();
+    graph.addEdge(0, 1, 1.0);
+    assertEquals(Double.POSITIVE_INFINITY, paths.distance(1));
+    assertEquals(0, paths.updates());
+    assertFalse(graph.removeGraphListener(new GraphListener() {
+      @Override
+      public void edgeAdded(Edge edge) {
+      }
+
+      @Override
+      public void edgeRemoved(Edge edge) {
+      }
+    }));
+  }
+
+  private static void addEdge(AbstractGraph graph, Random random, List<int[]> added) {
+    int[] edge = TestGraphs.addRandomEdge(graph, random, r -> r.nextInt(10) * 0.5);
+    if (edge != null) {
+      added.add(edge);
+    }
+  }
+
+  private static void assertMatchesDijkstra(Graph graph, DynamicShortestPaths paths) {
+    double[] expected = Dijkstra.compute(graph, paths.source()).distances();
+    Dijkstra.Result result = paths.result();
+    assertArrayEquals(expected, result.distances(), 1e-9);
+    for (int v = 0; v < graph.nodeCount(); v++) {
+      if (v == paths.source() || expected[v] == Double.POSITIVE_INFINITY) {
+        assertEquals(-1, result.parents()[v]);
+        continue;
+      }
+      int parent = result.parents()[v];
+      assertEquals(expected[v], expected[parent] + graph.edgeWeight(parent, v).orElseThrow(), 1e-9);
+      assertFalse(Dijkstra.reconstructPath(paths.source(), v, result).isEmpty());
+    }
+  }
+}
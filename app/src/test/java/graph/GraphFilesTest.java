@@ -0,0 +1,120 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GraphFilesTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void writeThenMapRoundTrips() throws IOException {
+    for (boolean directed : new boolean[] { true, false }) {
+      Graph graph = TestGraphs.randomGraph(300, 4, directed, 13L, random -> 1 + random.nextInt(20));
+      Path file = dir.resolve("graph-" + directed + ".bin");
+      GraphFiles.write(graph, file);
+
+      for (int chunkShift : new int[] { MappedGraph.DEFAULT_CHUNK_SHIFT, 6 }) {
+        MappedGraph mapped = GraphFiles.map(file, chunkShift);
+        assertEquals(graph.nodeCount(), mapped.nodeCount());
+        assertEquals(graph.edgeCount(), mapped.edgeCount());
+        assertEquals(directed, mapped.isDirected());
+        for (int u = 0; u < graph.nodeCount(); u++) {
+          assertEquals(edges(graph.adjacency(u)), edges(mapped.adjacency(u)));
+        }
+        assertEquals(collect(graph.bfs(0)), collect(mapped.bfs(0)));
+        assertArrayEquals(graph.shortestDistances(0), mapped.shortestDistances(0), 1e-9);
+      }
+      MappedGraph csrRoundTrip = GraphFiles.map(writeAgain(CsrGraph.copyOf(graph)));
+      assertEquals(collect(graph.dfs(0)), collect(csrRoundTrip.dfs(0)));
+    }
+  }
+
+  @Test
+  void mapRejectsForeignAndTruncatedFiles() throws IOException {
+    Path foreign = Files.write(dir.resolve("foreign.bin"), new byte[64]);
+    assertThrows(IOException.class, () -> GraphFiles.map(foreign));
+
+    Path file = writeAgain(TestGraphs.randomGraph(20, 2, true, 1L, random -> 1 + random.nextInt(20)));
+    byte[] bytes = Files.readAllBytes(file);
+    Path truncated = Files.write(dir.resolve("truncated.bin"), Arrays.copyOf(bytes, bytes.length - 8));
+    assertThrows(IOException.class, () -> GraphFiles.map(truncated));
+  }
+
+  @Test
+  void importsSnapEdgeListAcrossChunks() throws IOException {
+    StringBuilder text = new StringBuilder("# comment line\n");
+    Graph expected = new DirectedGraph(500);
+    Random random = new Random(3L);
+    for (int i = 0; i < 2000; i++) {
+      int u = random.nextInt(500);
+      int v = random.nextInt(500);
+      if (i % 2 == 0) {
+        text.append(u).append('\t').append(v).append('\n');
+        expected.addEdge(u, v, 1.0);
+      } else {
+        text.append(u).append(' ').append(v).append(' ').append(i / 4.0).append("\r\n");
+        expected.addEdge(u, v, i / 4.0);
+      }
+    }
+    text.append("499 0");
+    expected.addEdge(499, 0, 1.0);
+    Path file = Files.writeString(dir.resolve("edges.txt"), text, StandardCharsets.US_ASCII);
+
+    for (long chunkBytes : new long[] { 1 << 20, 97 }) {
+      CsrGraph graph = GraphFiles.importEdgeList(file, true, chunkBytes);
+      assertEquals(500, graph.nodeCount());
+      assertEquals(expected.edgeCount(), graph.edgeCount());
+      for (int u = 0; u < 500; u++) {
+        assertEquals(edges(expected.adjacency(u)), edges(graph.adjacency(u)));
+      }
+    }
+  }
+
+  @Test
+  void importsDimacsAndRejectsMalformedLines() throws IOException {
+    Path file = Files.writeString(dir.resolve("graph.gr"),
+        "c sample\np sp 4 3\na 1 2 5\na 2 3 7\na 1 4 2\n", StandardCharsets.US_ASCII);
+    CsrGraph graph = GraphFiles.importDimacs(file);
+    assertEquals(4, graph.nodeCount());
+    assertEquals(3, graph.edgeCount());
+    assertArrayEquals(new double[] { 0.0, 5.0, 12.0, 2.0 }, graph.shortestDistances(0), 1e-9);
+
+    Path missingHeader = Files.writeString(dir.resolve("bad.gr"), "a 1 2 5\n");
+    assertThrows(IOException.class, () -> GraphFiles.importDimacs(missingHeader));
+    Path malformed = Files.writeString(dir.resolve("bad.txt"), "1 x\n");
+    assertThrows(IOException.class, () -> GraphFiles.importEdgeList(malformed, false));
+  }
+
+  private Path writeAgain(Graph graph) throws IOException {
+    Path file = Files.createTempFile(dir, "graph", ".bin");
+    GraphFiles.write(graph, file);
+    return file;
+  }
+
+  private static List<String> edges(Iterable<Edge> adjacency) {
+    List<String> result = new ArrayList<>();
+    for (Edge edge : adjacency) {
+      result.add(edge.from() + "-" + edge.to() + ":" + edge.weight());
+    }
+    return result;
+  }
+
+  private static List<Integer> collect(Iterable<Integer> iterable) {
+    List<Integer> result = new ArrayList<>();
+    iterable.forEach(result::add);
+    return result;
+  }
+}
@@ -58,6 +58,30 @@ class GraphTask4Test {
     assertThrows(IllegalArgumentException.class, () -> graph.shortestDistances(0));
   }
 
+  @Test
+  void shortestPathRejectsNegativeWeightsBehindTheTarget() {
+    for (boolean directed : new boolean[] { true, false }) {
+      AbstractGraph graph = directed ? new DirectedGraph(4) : new UndirectedGraph(4);
+      graph.addEdge(0, 1, 1.0);
+      graph.addEdge(1, 2, -1.0);
+      ConcurrentGraph concurrent = new ConcurrentGraph(4, directed);
+      concurrent.addEdge(0, 1, 1.0);
+      concurrent.addEdge(1, 2, -1.0);
+
+      for (Graph g : List.of(graph, CsrGraph.copyOf(graph), concurrent)) {
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath(0, 1));
+        // A negative edge that the source cannot reach is ignored, as by the full search.
+        assertEquals(List.of(3), collect(g.shortestPath(3, 3)));
+      }
+      assertThrows(IllegalArgumentException.class, () -> graph.shortestDistance(0, 1));
+
+      graph.removeEdge(1, 2);
+      concurrent.removeEdge(1, 2);
+      assertEquals(List.of(0, 1), collect(graph.shortestPath(0, 1)));
+      assertEquals(List.of(0, 1), collect(concurrent.shortestPath(0, 1)));
+    }
+  }
+
   private static <T> List<T> collect(Iterable<T> values) {
     List<T> list = new ArrayList<>();
     for (T value : values) {
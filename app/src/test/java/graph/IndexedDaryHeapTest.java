@@ -0,0 +1,71 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IndexedDaryHeapTest {
+
+  @Test
+  void pollReturnsNodesInKeyOrderAfterDecreaseKey() {
+    IndexedDaryHeap heap = new IndexedDaryHeap(6, 3);
+    heap.insert(0, 5.0);
+    heap.insert(1, 3.0);
+    heap.insert(2, 8.0);
+    heap.insert(3, 1.0);
+    heap.insert(4, 9.0);
+
+    heap.decreaseKey(4, 0.5);
+    assertFalse(heap.insertOrDecrease(2, 10.0));
+    assertTrue(heap.insertOrDecrease(5, 2.0));
+
+    assertEquals(6, heap.size());
+    int[] expected = { 4, 3, 5, 1, 0, 2 };
+    for (int node : expected) {
+      assertEquals(node, heap.poll());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  void heapRejectsInvalidOperations() {
+    IndexedDaryHeap heap = new IndexedDaryHeap(2, 2);
+    heap.insert(0, 1.0);
+
+    assertThrows(IllegalArgumentException.class, () -> heap.insert(0, 2.0));
+    assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(0, 3.0));
+    assertThrows(IllegalArgumentException.class, () -> heap.insert(2, 1.0));
+    assertThrows(IllegalArgumentException.class, () -> new IndexedDaryHeap(4, 1));
+    heap.clear();
+    assertFalse(heap.contains(0));
+  }
+
+  @Test
+  void indexedHeapStrategyMatchesPriorityQueueDistances() {
+    Random rand = new Random(3);
+    Graph graph = new DirectedGraph(300);
+    for (int i = 0; i < 3_000; i++) {
+      graph.addEdge(rand.nextInt(300), rand.nextInt(300), 1 + rand.nextInt(50));
+    }
+    CsrGraph csr = CsrGraph.copyOf(graph);
+
+    double[] expected = Dijkstra.compute(graph, 0).distances();
+    for (int arity : new int[] { 2, 4, 8 }) {
+      Dijkstra.Result heap = Dijkstra.compute(graph, 0, Dijkstra.QueueStrategy.INDEXED_HEAP, arity);
+      Dijkstra.Result csrHeap = Dijkstra.compute(csr, 0, Dijkstra.QueueStrategy.INDEXED_HEAP, arity);
+      assertArrayEquals(expected, heap.distances(), 1e-9);
+      assertArrayEquals(expected, csrHeap.distances(), 1e-9);
+    }
+  }
+
+  @Test
+  void indexedHeapStrategyRejectsNegativeWeights() {
+    Graph graph = new DirectedGraph(2);
+    graph.addEdge(0, 1, -1.0);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> Dijkstra.compute(graph, 0, Dijkstra.QueueStrategy.INDEXED_HEAP));
+  }
+}
@@ -0,0 +1,82 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapGraphTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void copyMatchesSourceGraph() {
+    for (boolean directed : new boolean[] { true, false }) {
+      Graph graph = TestGraphs.randomGraph(400, 4, directed, 17L, random -> 1 + random.nextInt(30));
+      try (OffHeapGraph offHeap = OffHeapGraph.copyOf(graph)) {
+        assertEquals(graph.edgeCount(), offHeap.edgeCount());
+        assertEquals(graph.edgeCount(), offHeap.longEdgeCount());
+        assertEquals(collect(graph.bfs(0)), collect(offHeap.bfs(0)));
+        assertEquals(collect(graph.dfs(3)), collect(offHeap.dfs(3)));
+        assertArrayEquals(graph.shortestDistances(0), offHeap.shortestDistances(0), 1e-9);
+        assertEquals(collect(graph.shortestPath(0, 399)), collect(offHeap.shortestPath(0, 399)));
+      }
+    }
+  }
+
+  @Test
+  void builderMatchesCsrBuilder() {
+    Random random = new Random(5L);
+    CsrGraph.Builder expected = CsrGraph.builder(300, false);
+    try (OffHeapGraph.Builder builder = OffHeapGraph.builder(300, false)) {
+      for (int i = 0; i < 5000; i++) {
+        int u = random.nextInt(300);
+        int v = (u + 1 + random.nextInt(299)) % 300;
+        double w = random.nextInt(100);
+        expected.addEdge(u, v, w);
+        builder.addEdge(u, v, w);
+      }
+      CsrGraph csr = expected.build();
+      try (OffHeapGraph graph = builder.build()) {
+        assertEquals(10000, graph.arcCount());
+        for (int u = 0; u < 300; u++) {
+          assertEquals(edges(csr.adjacency(u)), edges(graph.adjacency(u)));
+        }
+      }
+      assertThrows(IllegalStateException.class, () -> builder.addEdge(0, 1));
+    }
+  }
+
+  @Test
+  void mapsGraphFilesAndRejectsUseAfterClose() throws IOException {
+    Graph graph = TestGraphs.randomGraph(200, 3, true, 23L, random -> 1 + random.nextInt(30));
+    Path file = dir.resolve("graph.bin");
+    GraphFiles.write(graph, file);
+    OffHeapGraph mapped = OffHeapGraph.map(file);
+    assertEquals(graph.edgeCount(), mapped.edgeCount());
+    assertArrayEquals(graph.shortestDistances(7), mapped.shortestDistances(7), 1e-9);
+    mapped.close();
+    assertThrows(IllegalStateException.class, () -> mapped.degree(0));
+  }
+
+  private static List<String> edges(Iterable<Edge> adjacency) {
+    List<String> result = new ArrayList<>();
+    for (Edge edge : adjacency) {
+      result.add(edge.to() + ":" + edge.weight());
+    }
+    return result;
+  }
+
+  private static List<Integer> collect(Iterable<Integer> iterable) {
+    List<Integer> result = new ArrayList<>();
+    iterable.forEach(result::add);
+    return result;
+  }
+}
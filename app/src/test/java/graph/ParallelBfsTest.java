@@ -0,0 +1,90 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParallelBfsTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void everyDirectionMatchesSequentialLevels() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (boolean directed : new boolean[] { true, false }) {
+        Graph graph = TestGraphs.randomGraph(5000, 6, directed, 21L);
+        int[] expected = sequentialLevels(graph, 0);
+        for (ParallelBfs.Direction direction : ParallelBfs.Direction.values()) {
+          ParallelBfs.Result result = ParallelBfs.compute(graph, 0, direction, pool);
+          assertArrayEquals(expected, result.levels(), direction + " directed=" + directed);
+          assertParentsAreValid(graph, 0, result);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void bottomUpReadsTheTransposeOfAMappedGraph() throws IOException {
+    Graph graph = TestGraphs.randomGraph(2000, 4, true, 23L);
+    Path file = dir.resolve("graph.bin");
+    GraphFiles.write(graph, file);
+    MappedGraph mapped = GraphFiles.map(file);
+    ParallelBfs.Result result = ParallelBfs.compute(mapped, 0, ParallelBfs.Direction.BOTTOM_UP,
+        ForkJoinPool.commonPool());
+    assertArrayEquals(sequentialLevels(graph, 0), result.levels());
+    assertParentsAreValid(graph, 0, result);
+  }
+
+  @Test
+  void unreachableNodesHaveNoLevel() {
+    Graph graph = new DirectedGraph(4);
+    graph.addEdge(0, 1);
+    graph.addEdge(2, 0);
+    ParallelBfs.Result result = ParallelBfs.compute(CsrGraph.copyOf(graph), 0);
+    assertArrayEquals(new int[] { 0, 1, -1, -1 }, result.levels());
+    assertArrayEquals(new int[] { -1, 0, -1, -1 }, result.parents());
+    assertThrows(IllegalArgumentException.class, () -> ParallelBfs.compute(graph, 4));
+  }
+
+  private static void assertParentsAreValid(Graph graph, int source, ParallelBfs.Result result) {
+    int[] levels = result.levels();
+    int[] parents = result.parents();
+    for (int v = 0; v < graph.nodeCount(); v++) {
+      if (v == source || levels[v] < 0) {
+        assertEquals(-1, parents[v]);
+        continue;
+      }
+      int parent = parents[v];
+      assertEquals(levels[v] - 1, levels[parent]);
+      boolean hasArc = false;
+      for (Edge edge : graph.adjacency(parent)) {
+        hasArc |= edge.to() == v;
+      }
+      assertTrue(hasArc, "parent " + parent + " of " + v);
+    }
+  }
+
+  private static int[] sequentialLevels(Graph graph, int source) {
+    int[] levels = new int[graph.nodeCount()];
+    Arrays.fill(levels, -1);
+    levels[source] = 0;
+    for (int node : graph.bfs(source)) {
+      for (Edge edge : graph.adjacency(node)) {
+        if (levels[edge.to()] < 0) {
+          levels[edge.to()] = levels[node] + 1;
+        }
+      }
+    }
+    return levels;
+  }
+}
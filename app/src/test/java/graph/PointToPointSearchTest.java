@@ -0,0 +1,78 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PointToPointSearchTest {
+
+  @Test
+  void unidirectionalModeMatchesShortestPathExactly() {
+    Graph graph = TestGraphs.randomEdges(120, 600, true, 11, random -> 1 + random.nextInt(20));
+    PointToPointSearch search = new PointToPointSearch(graph);
+
+    for (int target = 0; target < graph.nodeCount(); target += 7) {
+      PointToPointSearch.Route route = search.shortestPath(0, target, PointToPointSearch.Mode.UNIDIRECTIONAL);
+      assertEquals(collect(graph.shortestPath(0, target)), route.path());
+      assertEquals(graph.shortestDistances(0)[target], route.distance(), 1e-9);
+    }
+  }
+
+  @Test
+  void bidirectionalModeFindsShortestDistancesOnDirectedAndUndirectedGraphs() {
+    for (boolean directed : new boolean[] { true, false }) {
+      Graph graph = TestGraphs.randomEdges(120, 600, directed, 5, random -> 1 + random.nextInt(20));
+      PointToPointSearch search = new PointToPointSearch(graph);
+      for (int source = 0; source < 20; source++) {
+        double[] expected = graph.shortestDistances(source);
+        for (int target = 0; target < graph.nodeCount(); target += 3) {
+          PointToPointSearch.Route route = search.shortestPath(source, target, PointToPointSearch.Mode.BIDIRECTIONAL);
+          assertEquals(expected[target], route.distance(), 1e-9);
+          assertEquals(expected[target], pathWeight(graph, route.path()), 1e-9);
+        }
+      }
+    }
+  }
+
+  @Test
+  void bidirectionalModeHandlesUnreachableAndTrivialQueries() {
+    Graph graph = new DirectedGraph(3);
+    graph.addEdge(0, 1, 2.0);
+    graph.addEdge(1, 2, 2.0);
+    PointToPointSearch search = new PointToPointSearch(graph);
+
+    PointToPointSearch.Route unreachable = search.shortestPath(2, 0, PointToPointSearch.Mode.BIDIRECTIONAL);
+    assertEquals(Double.POSITIVE_INFINITY, unreachable.distance());
+    assertEquals(List.of(), unreachable.path());
+    assertEquals(List.of(1), search.shortestPath(1, 1, PointToPointSearch.Mode.BIDIRECTIONAL).path());
+    assertEquals(List.of(0, 1, 2), search.shortestPath(0, 2, PointToPointSearch.Mode.BIDIRECTIONAL).path());
+  }
+
+  private static double pathWeight(Graph graph, List<Integer> path) {
+    if (path.isEmpty()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double total = 0.0;
+    for (int i = 0; i + 1 < path.size(); i++) {
+      double best = Double.POSITIVE_INFINITY;
+      for (Edge edge : graph.adjacency(path.get(i))) {
+        if (edge.to() == path.get(i + 1)) {
+          best = Math.min(best, edge.weight());
+        }
+      }
+      total += best;
+    }
+    return total;
+  }
+
+  private static <T> List<T> collect(Iterable<T> values) {
+    List<T> list = new ArrayList<>();
+    for (T value : values) {
+      list.add(value);
+    }
+    return list;
+  }
+}
@@ -0,0 +1,99 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ShortestPathCacheTest {
+
+  @Test
+  void repeatedQueriesHitTheCache() {
+    DirectedGraph graph = weightedDiamond();
+    graph.enableShortestPathCache(4);
+
+    assertArrayEquals(new double[] {0.0, 1.0, 3.0, 4.0}, graph.shortestDistances(0), 1e-9);
+    assertEquals(List.of(0, 1, 2, 3), collect(graph.shortestPath(0, 3)));
+    assertEquals(4.0, graph.shortestDistance(0, 3), 1e-9);
+
+    AbstractGraph.CacheStats stats = graph.shortestPathCacheStats();
+    assertEquals(1, stats.misses());
+    assertEquals(2, stats.hits());
+    assertEquals(1, stats.size());
+  }
+
+  @Test
+  void returnedDistancesAreCopies() {
+    DirectedGraph graph = weightedDiamond();
+    graph.enableShortestPathCache(4);
+
+    graph.shortestDistances(0)[3] = -1.0;
+    assertEquals(4.0, graph.shortestDistances(0)[3], 1e-9);
+  }
+
+  @Test
+  void leastRecentlyUsedSourceIsEvicted() {
+    DirectedGraph graph = weightedDiamond();
+    graph.enableShortestPathCache(2);
+
+    graph.shortestDistances(0);
+    graph.shortestDistances(1);
+    graph.shortestDistances(0);
+    graph.shortestDistances(2);
+    graph.shortestDistances(0);
+    graph.shortestDistances(1);
+
+    AbstractGraph.CacheStats stats = graph.shortestPathCacheStats();
+    assertEquals(2, stats.evictions());
+    assertEquals(4, stats.misses());
+    assertEquals(2, stats.hits());
+    assertEquals(2, stats.size());
+  }
+
+  @Test
+  void mutationsInvalidateCachedTrees() {
+    UndirectedGraph graph = new UndirectedGraph(3);
+    graph.addEdge(0, 1, 5.0);
+    graph.addEdge(1, 2, 5.0);
+    graph.enableShortestPathCache(4);
+    assertEquals(10.0, graph.shortestDistance(0, 2), 1e-9);
+
+    graph.addEdge(0, 2, 3.0);
+    assertEquals(3.0, graph.shortestDistance(0, 2), 1e-9);
+    assertEquals(List.of(0, 2), collect(graph.shortestPath(0, 2)));
+
+    graph.removeEdge(0, 2);
+    assertEquals(10.0, graph.shortestDistance(0, 2), 1e-9);
+
+    graph.removeEdge(0, 2);
+    AbstractGraph.CacheStats stats = graph.shortestPathCacheStats();
+    assertEquals(2, stats.invalidations());
+    assertEquals(1, stats.size());
+  }
+
+  @Test
+  void disabledCacheReportsZerosAndRejectsBadSize() {
+    DirectedGraph graph = weightedDiamond();
+    graph.shortestDistances(0);
+    assertEquals(new AbstractGraph.CacheStats(0, 0, 0, 0, 0, 0), graph.shortestPathCacheStats());
+    assertThrows(IllegalArgumentException.class, () -> graph.enableShortestPathCache(0));
+  }
+
+  private static DirectedGraph weightedDiamond() {
+    DirectedGraph graph = new DirectedGraph(4);
+    graph.addEdge(0, 1, 1.0);
+    graph.addEdge(0, 2, 4.0);
+    graph.addEdge(1, 2, 2.0);
+    graph.addEdge(1, 3, 5.0);
+    graph.addEdge(2, 3, 1.0);
+    return graph;
+  }
+
+  private static List<Integer> collect(Iterable<Integer> iterable) {
+    List<Integer> result = new ArrayList<>();
+    iterable.forEach(result::add);
+    return result;
+  }
+}
@@ -0,0 +1,90 @@
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Random graph fixtures shared by the graph tests. Weights are drawn from the same {@link Random}
+ * right after the endpoints of each edge, so a seed always produces the same graph.
+ */
+final class TestGraphs {
+  private TestGraphs() {
+  }
+
+  /**
+   * Returns a graph where every node gets up to {@code degree} unit-weight edges to random other
+   * nodes.
+   */
+  static Graph randomGraph(int nodes, int degree, boolean directed, long seed) {
+    return randomGraph(nodes, degree, directed, seed, random -> 1.0);
+  }
+
+  /**
+   * Returns a graph where every node gets up to {@code degree} edges to random other nodes,
+   * weighted by {@code weights}.
+   */
+  static Graph randomGraph(int nodes, int degree, boolean directed, long seed, ToDoubleFunction<Random> weights) {
+    Random random = new Random(seed);
+    Graph graph = directed ? new DirectedGraph(nodes) : new UndirectedGraph(nodes);
+    for (int u = 0; u < nodes; u++) {
+      for (int k = 0; k < degree; k++) {
+        int v = random.nextInt(nodes);
+        if (v != u) {
+          graph.addEdge(u, v, weights.applyAsDouble(random));
+        }
+      }
+    }
+    return graph;
+  }
+
+  /**
+   * Returns a graph with up to {@code edges} edges between uniformly random pairs of nodes.
+   */
+  static Graph randomEdges(int nodes, int edges, boolean directed, long seed, ToDoubleFunction<Random> weights) {
+    Random random = new Random(seed);
+    Graph graph = directed ? new DirectedGraph(nodes) : new UndirectedGraph(nodes);
+    for (int i = 0; i < edges; i++) {
+      addRandomEdge(graph, random, weights);
+    }
+    return graph;
+  }
+
+  /**
+   * Adds an edge between two random nodes and returns its endpoints, or returns {@code null} if
+   * both picks were the same node.
+   */
+  static int[] addRandomEdge(Graph graph, Random random, ToDoubleFunction<Random> weights) {
+    int u = random.nextInt(graph.nodeCount());
+    int v = random.nextInt(graph.nodeCount());
+    if (u == v) {
+      return null;
+    }
+    graph.addEdge(u, v, weights.applyAsDouble(random));
+    return new int[] { u, v };
+  }
+
+  /**
+   * Returns the reachability matrix of {@code graph}, computed with one BFS per node.
+   */
+  static boolean[][] reachability(Graph graph) {
+    int n = graph.nodeCount();
+    boolean[][] reach = new boolean[n][n];
+    for (int s = 0; s < n; s++) {
+      Deque<Integer> queue = new ArrayDeque<>();
+      reach[s][s] = true;
+      queue.add(s);
+      while (!queue.isEmpty()) {
+        int u = queue.remove();
+        for (Edge edge : graph.adjacency(u)) {
+          if (!reach[s][edge.to()]) {
+            reach[s][edge.to()] = true;
+            queue.add(edge.to());
+          }
+        }
+      }
+    }
+    return reach;
+  }
+}
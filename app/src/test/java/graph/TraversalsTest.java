@@ -0,0 +1,71 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TraversalsTest {
+
+  @Test
+  void visitOrderMatchesListTraversals() {
+    TraversalContext context = new TraversalContext();
+    for (boolean directed : new boolean[] { true, false }) {
+      Graph graph = TestGraphs.randomGraph(120, 3, directed, 3L);
+      Graph csr = CsrGraph.copyOf(graph);
+      for (int start : new int[] { 0, 17, 119 }) {
+        List<Integer> expectedBfs = collect(graph.bfs(start));
+        List<Integer> expectedDfs = collect(graph.dfs(start));
+        for (Graph g : List.of(graph, csr)) {
+          List<Integer> bfs = new ArrayList<>();
+          assertEquals(expectedBfs.size(), g.bfs(start, context, bfs::add));
+          assertEquals(expectedBfs, bfs);
+          List<Integer> dfs = new ArrayList<>();
+          assertEquals(expectedDfs.size(), g.dfs(start, context, dfs::add));
+          assertEquals(expectedDfs, dfs);
+        }
+      }
+    }
+  }
+
+  @Test
+  void visitorCanStopEarly() {
+    Graph graph = new DirectedGraph(5);
+    for (int u = 0; u < 4; u++) {
+      graph.addEdge(u, u + 1);
+    }
+    List<Integer> seen = new ArrayList<>();
+    int visited = Traversals.bfs(graph, 0, new TraversalContext(5), node -> {
+      seen.add(node);
+      return node != 2;
+    });
+    assertEquals(3, visited);
+    assertEquals(List.of(0, 1, 2), seen);
+  }
+
+  @Test
+  void contextIsReusedAndReportsVisitedNodes() {
+    Graph graph = new UndirectedGraph(4);
+    graph.addEdge(0, 1);
+    graph.addEdge(2, 3);
+    TraversalContext context = new TraversalContext(2);
+
+    assertEquals(2, Traversals.dfs(graph, 0, context, node -> true));
+    assertEquals(4, context.capacity());
+    assertTrue(context.isVisited(1));
+    assertFalse(context.isVisited(2));
+
+    assertEquals(2, Traversals.bfs(graph, 3, context, node -> true));
+    assertFalse(context.isVisited(0));
+    assertTrue(context.isVisited(2));
+    assertThrows(IllegalArgumentException.class, () -> Traversals.bfs(graph, 4, context, node -> true));
+  }
+
+  private static List<Integer> collect(Iterable<Integer> iterable) {
+    List<Integer> result = new ArrayList<>();
+    iterable.forEach(result::add);
+    return result;
+  }
+}
@@ -0,0 +1,144 @@
+package sorting;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExternalSortTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void multiPassMergeMatchesArraysSort() throws IOException {
+    long[] data = SortUtils.genRandomLongs(100_000, 21L);
+    Path input = writeLongs(data);
+    Path output = dir.resolve("sorted.bin");
+    Path spill = Files.createDirectory(dir.resolve("spill"));
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      ExternalSort.Result result = ExternalSort.builder(RecordCodec.longs())
+          .runRecords(1_000)
+          .bufferBytes(100)
+          .fanIn(5)
+          .tempDirectory(spill)
+          .pool(pool)
+          .build()
+          .sort(input, output);
+
+      assertEquals(100_000, result.records());
+      assertEquals(100, result.runs());
+      assertEquals(3, result.mergePasses());
+    } finally {
+      pool.shutdown();
+    }
+    Arrays.sort(data);
+    assertArrayEquals(data, readLongs(output));
+    try (Stream<Path> left = Files.list(spill)) {
+      assertEquals(0, left.count());
+    }
+  }
+
+  @Test
+  void sortsCustomRecordsByKey() throws IOException {
+    Random rand = new Random(8L);
+    Path input = dir.resolve("records.bin");
+    Entry[] entries = new Entry[5_000];
+    ByteBuffer bytes = ByteBuffer.allocate(entries.length * 12);
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = new Entry(rand.nextInt(100), i);
+      bytes.putInt(entries[i].key()).putLong(entries[i].payload());
+    }
+    Files.write(input, bytes.array());
+    Path output = dir.resolve("records-sorted.bin");
+
+    ExternalSort.builder(Entry.CODEC).runRecords(700).fanIn(3).tempDirectory(dir).build().sort(input, output);
+
+    Arrays.sort(entries);
+    ByteBuffer sorted = ByteBuffer.wrap(Files.readAllBytes(output));
+    for (Entry entry : entries) {
+      assertEquals(entry, Entry.CODEC.decode(sorted));
+    }
+    assertEquals(0, sorted.remaining());
+  }
+
+  @Test
+  void smallAndEmptyInputsSkipSpilling() throws IOException {
+    Path output = dir.resolve("out.bin");
+    ExternalSort<Long> sorter = ExternalSort.builder(RecordCodec.longs()).runRecords(10).tempDirectory(dir).build();
+
+    ExternalSort.Result empty = sorter.sort(writeLongs(new long[0]), output);
+    assertEquals(0, empty.runs());
+    assertEquals(0, Files.size(output));
+
+    ExternalSort.Result small = sorter.sort(writeLongs(new long[] { 3, -1, 2 }), output);
+    assertEquals(1, small.runs());
+    assertEquals(0, small.mergePasses());
+    assertArrayEquals(new long[] { -1, 2, 3 }, readLongs(output));
+  }
+
+  @Test
+  void rejectsTruncatedInput() throws IOException {
+    Path input = dir.resolve("truncated.bin");
+    Files.write(input, new byte[13]);
+    ExternalSort<Long> sorter = ExternalSort.builder(RecordCodec.longs()).build();
+    assertThrows(IOException.class, () -> sorter.sort(input, dir.resolve("never.bin")));
+    assertThrows(IllegalArgumentException.class, () -> ExternalSort.builder(RecordCodec.longs()).fanIn(1));
+  }
+
+  private Path writeLongs(long[] data) throws IOException {
+    Path file = Files.createTempFile(dir, "input-", ".bin");
+    ByteBuffer bytes = ByteBuffer.allocate(data.length * Long.BYTES);
+    for (long value : data) {
+      bytes.putLong(value);
+    }
+    Files.write(file, bytes.array());
+    return file;
+  }
+
+  private static long[] readLongs(Path file) throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+    long[] result = new long[bytes.remaining() / Long.BYTES];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = bytes.getLong();
+    }
+    return result;
+  }
+
+  private record Entry(int key, long payload) implements Comparable<Entry> {
+    static final RecordCodec<Entry> CODEC = new RecordCodec<>() {
+      @Override
+      public int recordBytes() {
+        return 12;
+      }
+
+      @Override
+      public void encode(Entry record, ByteBuffer buffer) {
+        buffer.putInt(record.key()).putLong(record.payload());
+      }
+
+      @Override
+      public Entry decode(ByteBuffer buffer) {
+        return new Entry(buffer.getInt(), buffer.getLong());
+      }
+    };
+
+    @Override
+    public int compareTo(Entry other) {
+      int c = Integer.compare(key, other.key);
+      return c != 0 ? c : Long.compare(payload, other.payload);
+    }
+  }
+}
@@ -2,6 +2,10 @@ package sorting;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
 
 import org.junit.jupiter.api.Test;
 
@@ -54,6 +58,42 @@ class HeapSortTest {
     assertEquals(3, data[2].value);
   }
 
+  @Test
+  void binaryAndQuaternaryLayoutsMatchArraysSort() {
+    for (int n = 0; n <= 70; n++) {
+      int[] data = SortUtils.genRandomInts(n + 10, n, 1 + n / 3);
+      int[] expected = data.clone();
+      Arrays.sort(expected, 5, n + 5);
+      Integer[] boxedExpected = Arrays.stream(expected).boxed().toArray(Integer[]::new);
+
+      int[] binary = data.clone();
+      HeapSort.sort(binary, 5, n + 4);
+      assertArrayEquals(expected, binary);
+      int[] quaternary = data.clone();
+      HeapSort.sortQuaternary(quaternary, 5, n + 4);
+      assertArrayEquals(expected, quaternary);
+      Integer[] boxed = Arrays.stream(data).boxed().toArray(Integer[]::new);
+      HeapSort.sortQuaternary(boxed, 5, n + 4);
+      assertArrayEquals(boxedExpected, boxed);
+    }
+  }
+
+  @Test
+  void medianOfThreeKillerForcesHeapFallback() {
+    Integer[] killer = SortUtils.genMedianOfThreeKiller(20_000);
+    Integer[] random = SortUtils.genRandomIntegers(20_000, 25L, Integer.MAX_VALUE);
+    int depthLimit = HybridQuickHeapSort.defaultDepthLimit(killer.length);
+    SortCounters killed = new SortCounters();
+    SortCounters normal = new SortCounters();
+
+    HybridQuickHeapSort.sort(killer, 0, killer.length - 1, depthLimit, Comparator.naturalOrder(), killed);
+    HybridQuickHeapSort.sort(random, 0, random.length - 1, depthLimit, Comparator.naturalOrder(), normal);
+
+    assertArrayEquals(SortUtils.genSortedIntegers(20_000), killer);
+    assertTrue(killed.heapFallbacks() > 0);
+    assertEquals(0, normal.heapFallbacks());
+  }
+
   private static final class Box implements Comparable<Box> {
     private final int value;
 
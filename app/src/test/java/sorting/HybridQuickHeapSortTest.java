@@ -0,0 +1,241 @@
+package sorting;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class HybridQuickHeapSortTest {
+
+  @Test
+  void sortsIntsLikeBoxedVersion() {
+    int[] data = SortUtils.genRandomInts(10_000, 7L, 1_000);
+    Integer[] boxed = Arrays.stream(data).boxed().toArray(Integer[]::new);
+
+    HybridQuickHeapSort.sort(data);
+    HybridQuickHeapSort.sort(boxed);
+
+    assertArrayEquals(Arrays.stream(boxed).mapToInt(Integer::intValue).toArray(), data);
+  }
+
+  @Test
+  void sortsLongsWithExtremeValues() {
+    long[] data = SortUtils.genRandomLongs(5_000, 11L);
+    data[0] = Long.MIN_VALUE;
+    data[1] = Long.MAX_VALUE;
+    long[] expected = data.clone();
+    Arrays.sort(expected);
+
+    HybridQuickHeapSort.sort(data);
+
+    assertArrayEquals(expected, data);
+  }
+
+  @Test
+  void sortsDoublesWithNaNAndSignedZerosLikeArraysSort() {
+    double[] data = SortUtils.genRandomDoubles(2_000, 3L);
+    for (int i = 0; i < data.length; i += 7) {
+      data[i] = -data[i];
+    }
+    for (int i = 0; i < data.length; i += 97) {
+      data[i] = Double.NaN;
+    }
+    for (int i = 5; i < data.length; i += 53) {
+      data[i] = (i % 2 == 0) ? 0.0 : -0.0;
+    }
+    data[data.length - 1] = Double.NEGATIVE_INFINITY;
+    double[] expected = data.clone();
+    Arrays.sort(expected);
+
+    HybridQuickHeapSort.sort(data);
+
+    assertArrayEquals(expected, data);
+  }
+
+  @Test
+  void nansSortAfterNegativeZero() {
+    double[] data = { Double.NaN, Double.NaN, -0.0 };
+
+    HybridQuickHeapSort.sort(data);
+
+    assertEquals(-0.0, data[0]);
+    assertEquals(Double.NaN, data[1]);
+    assertEquals(Double.NaN, data[2]);
+  }
+
+  @Test
+  void tinyDepthLimitFallsBackToHeapSort() {
+    int[] data = SortUtils.genRandomInts(1_000, 5L, 50);
+    int[] expected = data.clone();
+    Arrays.sort(expected);
+
+    HybridQuickHeapSort.sort(data, 0, data.length - 1, 1);
+
+    assertArrayEquals(expected, data);
+  }
+
+  @Test
+  void primitiveSortsHandlePatternsAndDuplicates() {
+    int n = 50_000;
+    int[][] inputs = new int[5][n];
+    Random rand = new Random(24L);
+    for (int i = 0; i < n; i++) {
+      inputs[0][i] = i < n / 2 ? i : n - i;
+      inputs[1][i] = rand.nextInt(3);
+      inputs[2][i] = (int) (1_000 * Math.pow(rand.nextDouble(), 8));
+      inputs[3][i] = i % 10 == 0 ? rand.nextInt() : i;
+      inputs[4][i] = (i & 1) == 0 ? i : n - i;
+    }
+    for (int[] data : inputs) {
+      int[] expected = data.clone();
+      Arrays.sort(expected);
+      long[] longs = Arrays.stream(data).asLongStream().toArray();
+      double[] doubles = Arrays.stream(data).asDoubleStream().toArray();
+
+      HybridQuickHeapSort.sort(data);
+      HybridQuickHeapSort.sort(longs);
+      HybridQuickHeapSort.sort(doubles);
+
+      assertArrayEquals(expected, data);
+      assertArrayEquals(Arrays.stream(expected).asLongStream().toArray(), longs);
+      assertArrayEquals(Arrays.stream(expected).asDoubleStream().toArray(), doubles);
+    }
+  }
+
+  @Test
+  void sortsOnlySelectedPrimitiveRange() {
+    int[] data = { 9, 4, 3, 2, 1, 0 };
+
+    HybridQuickHeapSort.sort(data, 1, 4, 8);
+
+    assertArrayEquals(new int[] { 9, 1, 2, 3, 4, 0 }, data);
+  }
+
+  @Test
+  void parallelSortMatchesSequentialSortOnCustomPool() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      int[] ints = SortUtils.genRandomInts(200_000, 13L, 1_000_000);
+      int[] expectedInts = ints.clone();
+      Arrays.sort(expectedInts);
+      HybridQuickHeapSort.parallelSort(ints, pool, 1_024);
+      assertArrayEquals(expectedInts, ints);
+
+      Integer[] boxed = SortUtils.genRandomIntegers(50_000, 17L, 100);
+      HybridQuickHeapSort.parallelSort(boxed, pool, 512);
+      assertTrue(SortUtils.isSorted(boxed));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void parallelDoubleSortKeepsArraysSortOrdering() {
+    double[] data = SortUtils.genRandomDoubles(100_000, 19L);
+    data[10] = Double.NaN;
+    data[20] = -0.0;
+    data[30] = 0.0;
+    double[] expected = data.clone();
+    Arrays.sort(expected);
+
+    HybridQuickHeapSort.parallelSort(data, ForkJoinPool.commonPool(), 256);
+
+    assertArrayEquals(expected, data);
+  }
+
+  @Test
+  void parallelSortHandlesThresholdOfOne() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      int[] pair = { 2, 1 };
+      HybridQuickHeapSort.parallelSort(pair, pool, 1);
+      assertArrayEquals(new int[] { 1, 2 }, pair);
+
+      for (int n : new int[] { 3, 17, 1_000, 50_000 }) {
+        int[] ints = SortUtils.genRandomInts(n, n, 100);
+        long[] longs = Arrays.stream(ints).asLongStream().toArray();
+        double[] doubles = SortUtils.genRandomDoubles(n, n);
+        Integer[] boxed = SortUtils.genRandomIntegers(n, n, 100);
+        int[] expectedInts = ints.clone();
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedInts);
+        Arrays.sort(expectedDoubles);
+
+        HybridQuickHeapSort.parallelSort(ints, pool, 1);
+        HybridQuickHeapSort.parallelSort(longs, pool, 1);
+        HybridQuickHeapSort.parallelSort(doubles, pool, 1);
+        HybridQuickHeapSort.parallelSort(boxed, pool, 1);
+
+        assertArrayEquals(expectedInts, ints);
+        assertArrayEquals(Arrays.stream(expectedInts).asLongStream().toArray(), longs);
+        assertArrayEquals(expectedDoubles, doubles);
+        assertTrue(SortUtils.isSorted(boxed));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void parallelSortRejectsNonPositiveThreshold() {
+    assertThrows(IllegalArgumentException.class,
+        () -> HybridQuickHeapSort.parallelSort(new long[4], ForkJoinPool.commonPool(), 0));
+  }
+
+  private record Event(String name, long timestamp, int priority) {
+  }
+
+  @Test
+  void sortsByComparatorAndByKey() {
+    Event[] events = new Event[5_000];
+    Random rand = new Random(23L);
+    for (int i = 0; i < events.length; i++) {
+      events[i] = new Event("e" + i, (rand.nextLong() >> 20) | 1, rand.nextInt(7) - 3);
+    }
+    Comparator<Event> byTime = Comparator.comparingLong(Event::timestamp).reversed();
+    Event[] expected = events.clone();
+    Arrays.sort(expected, byTime);
+    Event[] byComparator = events.clone();
+    HybridQuickHeapSort.sort(byComparator, byTime);
+    assertArrayEquals(expected, byComparator);
+
+    // The key sorts are stable, like Arrays.sort on objects.
+    Event[] stableByPriority = events.clone();
+    Arrays.sort(stableByPriority, Comparator.comparingInt(Event::priority));
+    Event[] byPriority = events.clone();
+    RadixSort.sortByIntKey(byPriority, Event::priority);
+    assertArrayEquals(stableByPriority, byPriority);
+
+    Event[] stableByTimestamp = events.clone();
+    Arrays.sort(stableByTimestamp, Comparator.comparingLong(Event::timestamp));
+    Event[] byTimestamp = events.clone();
+    RadixSort.sortByLongKey(byTimestamp, Event::timestamp);
+    assertArrayEquals(stableByTimestamp, byTimestamp);
+  }
+
+  @Test
+  void countersReportComparisonsSwapsAndHeapFallbacks() {
+    Integer[] data = SortUtils.genRandomIntegers(10_000, 6L, 1_000);
+    Integer[] expected = data.clone();
+    Arrays.sort(expected);
+    SortCounters counters = new SortCounters();
+
+    HybridQuickHeapSort.sort(data, 0, data.length - 1, 3, Comparator.naturalOrder(), counters);
+
+    assertArrayEquals(expected, data);
+    assertEquals(8, counters.heapFallbacks());
+    assertTrue(counters.comparisons() > data.length);
+    assertTrue(counters.swaps() > 0);
+
+    counters.reset();
+    HybridQuickHeapSort.sort(expected, 0, expected.length - 1, 64, Comparator.naturalOrder(), counters);
+    assertEquals(0, counters.heapFallbacks());
+  }
+}
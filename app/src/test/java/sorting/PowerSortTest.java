@@ -0,0 +1,98 @@
+package sorting;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PowerSortTest {
+
+  private record Item(int key, int order) {
+  }
+
+  private static final Comparator<Item> BY_KEY = Comparator.comparingInt(Item::key);
+
+  @Test
+  void isStableOnRunStructuredInputs() {
+    Random rand = new Random(22L);
+    for (int n : new int[] { 0, 1, 2, 23, 24, 25, 100, 1_000, 20_000 }) {
+      for (int shape = 0; shape < 5; shape++) {
+        Item[] items = new Item[n];
+        for (int i = 0; i < n; i++) {
+          int key = switch (shape) {
+            case 0 -> rand.nextInt(Math.max(1, n / 4));
+            case 1 -> i / 3;
+            case 2 -> n - i / 5;
+            // Sorted blocks of random length: long merges that gallop.
+            case 3 -> (i % (1 + n / 7)) * 2 + (i / (1 + n / 7)) % 2;
+            default -> rand.nextInt(10) < 9 ? i : rand.nextInt(n);
+          };
+          items[i] = new Item(key, i);
+        }
+        Item[] expected = items.clone();
+        Arrays.sort(expected, BY_KEY);
+        PowerSort.sort(items, BY_KEY);
+        assertArrayEquals(expected, items, "n=" + n + " shape=" + shape);
+      }
+    }
+  }
+
+  @Test
+  void sortsSubrangesAndComparables() {
+    Integer[] data = SortUtils.genRandomIntegers(5_000, 9L, 1_000);
+    Integer[] expected = data.clone();
+    Arrays.sort(expected, 100, 4_001);
+    PowerSort.sort(data, 100, 4_000, Comparator.naturalOrder());
+    assertArrayEquals(expected, data);
+
+    Integer[] reversed = SortUtils.genReversedIntegers(10_000);
+    PowerSort.sort(reversed);
+    assertArrayEquals(SortUtils.genSortedIntegers(10_000), reversed);
+  }
+
+  @Test
+  void nodePowerIsDepthOfBoundary() {
+    // The midpoint of [0, 16) splits at depth 1, the quarter points at depth 2.
+    assertEquals(1, PowerSort.nodePower(0, 16, 0, 8, 16));
+    assertEquals(2, PowerSort.nodePower(0, 16, 0, 4, 8));
+    assertEquals(2, PowerSort.nodePower(0, 16, 8, 12, 16));
+    assertEquals(4, PowerSort.nodePower(0, 16, 0, 1, 2));
+  }
+
+  @Test
+  void adaptiveSortDetectsPresortedInput() {
+    Integer[] sorted = SortUtils.genSortedIntegers(100_000);
+    Integer[] reversed = SortUtils.genReversedIntegers(100_000);
+    Integer[] random = SortUtils.genRandomIntegers(100_000, 5L, Integer.MAX_VALUE);
+    assertTrue(AdaptiveSort.looksPresorted(sorted, 0, sorted.length - 1));
+    assertTrue(AdaptiveSort.looksPresorted(reversed, 0, reversed.length - 1));
+    assertFalse(AdaptiveSort.looksPresorted(random, 0, random.length - 1));
+
+    for (Integer[] data : new Integer[][] { sorted, reversed, random, new Integer[0], new Integer[] { 1 } }) {
+      Integer[] expected = data.clone();
+      Arrays.sort(expected);
+      AdaptiveSort.sort(data);
+      assertArrayEquals(expected, data);
+    }
+  }
+
+  @Test
+  void adaptiveSortScansSmallRangesCompletely() {
+    // 20 pairs, 4 of them descending: 80% ascend, below the threshold. A sample of two windows
+    // of 8 pairs would only see [0, 8) and [10, 18) and miss every descent.
+    Integer[] data = new Integer[21];
+    for (int i = 0; i < data.length; i++)
+      data[i] = 10 * i;
+    data[8] = 100;
+    data[10] = 80;
+    data[18] = 200;
+    data[20] = 180;
+    assertFalse(AdaptiveSort.looksPresorted(data, 0, data.length - 1));
+  }
+}
@@ -0,0 +1,101 @@
+package sorting;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RadixSortTest {
+
+  @Test
+  void allIntVariantsMatchArraysSort() {
+    for (int bound : new int[] { 1, 16, 1 << 20, Integer.MAX_VALUE }) {
+      int[] data = SortUtils.genRandomInts(50_000, bound, bound);
+      for (int i = 0; i < data.length; i += 3) {
+        data[i] = -data[i];
+      }
+      data[7] = Integer.MIN_VALUE;
+      data[8] = Integer.MAX_VALUE;
+      int[] expected = data.clone();
+      Arrays.sort(expected);
+
+      int[] lsd = data.clone();
+      RadixSort.lsdSort(lsd);
+      assertArrayEquals(expected, lsd);
+      int[] flag = data.clone();
+      RadixSort.americanFlagSort(flag);
+      assertArrayEquals(expected, flag);
+      int[] chosen = data.clone();
+      RadixSort.sort(chosen);
+      assertArrayEquals(expected, chosen);
+    }
+  }
+
+  @Test
+  void allLongVariantsMatchArraysSort() {
+    long[] wide = SortUtils.genRandomLongs(40_000, 3L);
+    long[] narrow = new long[40_000];
+    Random rand = new Random(4L);
+    for (int i = 0; i < narrow.length; i++) {
+      narrow[i] = 1_700_000_000_000L + rand.nextInt(86_400_000);
+    }
+    wide[0] = Long.MIN_VALUE;
+    wide[1] = Long.MAX_VALUE;
+    for (long[] data : new long[][] { wide, narrow }) {
+      long[] expected = data.clone();
+      Arrays.sort(expected);
+
+      long[] lsd = data.clone();
+      RadixSort.lsdSort(lsd);
+      assertArrayEquals(expected, lsd);
+      long[] flag = data.clone();
+      RadixSort.americanFlagSort(flag);
+      assertArrayEquals(expected, flag);
+      long[] chosen = data.clone();
+      RadixSort.sort(chosen);
+      assertArrayEquals(expected, chosen);
+    }
+  }
+
+  @Test
+  void sortsOnlySelectedRange() {
+    int[] data = SortUtils.genRandomInts(1_000, 9L, 100);
+    int[] expected = data.clone();
+    Arrays.sort(expected, 100, 900);
+
+    int[] lsd = data.clone();
+    RadixSort.lsdSort(lsd, 100, 899);
+    assertArrayEquals(expected, lsd);
+    int[] flag = data.clone();
+    RadixSort.americanFlagSort(flag, 100, 899);
+    assertArrayEquals(expected, flag);
+    int[] chosen = data.clone();
+    RadixSort.sort(chosen, 100, 899);
+    assertArrayEquals(expected, chosen);
+  }
+
+  @Test
+  void keyExtractorSortIsStable() {
+    // Small inputs and wide keys take the packed introsort path, the rest the LSD path.
+    for (int n : new int[] { 100, 20_000 }) {
+      Random rand = new Random(5L);
+      long[][] records = new long[n][];
+      for (int i = 0; i < records.length; i++) {
+        records[i] = new long[] { rand.nextInt(500) - 250, i };
+      }
+      long[][] byInt = records.clone();
+      RadixSort.sortByIntKey(byInt, r -> (int) r[0]);
+      long[][] byLong = records.clone();
+      RadixSort.sortByLongKey(byLong, r -> r[0] * 1_000_000_007L);
+      for (int i = 1; i < records.length; i++) {
+        assertTrue(byInt[i - 1][0] < byInt[i][0]
+            || (byInt[i - 1][0] == byInt[i][0] && byInt[i - 1][1] < byInt[i][1]));
+      }
+      assertArrayEquals(byInt, byLong);
+    }
+  }
+
+}